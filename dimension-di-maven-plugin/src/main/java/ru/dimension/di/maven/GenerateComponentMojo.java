@@ -0,0 +1,126 @@
+package ru.dimension.di.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import ru.dimension.di.ComponentGenerator;
+
+/**
+ * Generates the whole-graph component from the project's compiled classes with
+ * {@link ComponentGenerator} and compiles it into the output directory.
+ *
+ * Runs after compilation, so the scan sees exactly the classes the application ships; the
+ * source is kept under {@code generatedSourcesDirectory} for reading and debugging.
+ */
+@Mojo(name = "generate-component",
+      defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class GenerateComponentMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  /**
+   * Binary name of the class to generate, e.g. {@code com.acme.AppComponent}.
+   */
+  @Parameter(required = true)
+  private String componentClass;
+
+  /**
+   * Optional class whose public static methods are manual bindings.
+   */
+  @Parameter
+  private String moduleClass;
+
+  /**
+   * Packages to scan, as for {@code DimensionDI.Builder.scanPackages}.
+   */
+  @Parameter(required = true)
+  private List<String> packages;
+
+  @Parameter(defaultValue = "${project.build.directory}/generated-sources/dimension-di", required = true)
+  private File generatedSourcesDirectory;
+
+  @Parameter(defaultValue = "${project.build.outputDirectory}", required = true, readonly = true)
+  private File outputDirectory;
+
+  @Parameter(property = "dimension-di.component.skip", defaultValue = "false")
+  private boolean skip;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      getLog().info("Dimension-DI: component generation skipped");
+      return;
+    }
+
+    List<String> classpath;
+    try {
+      classpath = project.getCompileClasspathElements();
+    } catch (DependencyResolutionRequiredException e) {
+      throw new MojoExecutionException("Dimension-DI: cannot resolve the compile classpath", e);
+    }
+
+    String source = generate(classpath);
+    Path file = generatedSourcesDirectory.toPath()
+        .resolve(componentClass.replace('.', File.separatorChar) + ".java");
+    try {
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, source, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Dimension-DI: cannot write " + file, e);
+    }
+
+    compile(file, classpath);
+    getLog().info("Dimension-DI: generated " + componentClass);
+  }
+
+  private String generate(List<String> classpath) throws MojoExecutionException, MojoFailureException {
+    try {
+      return ProjectClassLoader.call(classpath, () ->
+          ComponentGenerator.generate(componentClass, moduleClass, packages.toArray(String[]::new)));
+    } catch (IllegalStateException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+  }
+
+  private void compile(Path file, List<String> classpath) throws MojoExecutionException, MojoFailureException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new MojoExecutionException("Dimension-DI: component generation needs a JDK, not a JRE");
+    }
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+      List<String> options = List.of(
+          "-proc:none",
+          "-d", outputDirectory.getPath(),
+          "-classpath", String.join(File.pathSeparator, classpath));
+      boolean ok = compiler.getTask(null, fm, diagnostics, options, null, fm.getJavaFileObjects(file)).call();
+      if (!ok) {
+        throw new MojoFailureException("Dimension-DI: generated component does not compile: "
+                                           + diagnostics.getDiagnostics());
+      }
+    } catch (IOException e) {
+      throw new MojoExecutionException("Dimension-DI: cannot compile " + file, e);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package ru.dimension.di.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import ru.dimension.di.DimensionDI;
+import ru.dimension.di.NativeImageMetadata;
+
+/**
+ * Writes GraalVM reachability metadata for the project's scanned bindings with
+ * {@link NativeImageMetadata} to
+ * {@code META-INF/native-image/<groupId>/<artifactId>/reachability-metadata.json} in the output
+ * directory, where {@code native-image} picks it up from the jar. The scanner parameters match the
+ * {@code DimensionDI.Builder} methods of the same name and default to the JSR-330 configuration.
+ */
+@Mojo(name = "generate-native-metadata",
+      defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class GenerateNativeMetadataMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  /**
+   * Packages to scan, as for {@code DimensionDI.Builder.scanPackages}.
+   */
+  @Parameter(required = true)
+  private List<String> packages;
+
+  /**
+   * Constructor and member injection annotations, FQCN or descriptor; default {@code jakarta.inject.Inject}.
+   */
+  @Parameter
+  private List<String> injectConstructorAnnotations;
+
+  /**
+   * Singleton class annotations; default {@code jakarta.inject.Singleton}.
+   */
+  @Parameter
+  private List<String> singletonClassAnnotations;
+
+  @Parameter(defaultValue = "true")
+  private boolean allowImplicitPublicNoArgConstructor;
+
+  @Parameter
+  private List<String> includePackages;
+
+  @Parameter
+  private List<String> excludePackages;
+
+  @Parameter
+  private List<String> includeClasses;
+
+  @Parameter
+  private List<String> excludeClasses;
+
+  @Parameter(defaultValue = "false")
+  private boolean skipAnonymousClasses;
+
+  @Parameter(defaultValue = "${project.build.outputDirectory}", required = true, readonly = true)
+  private File outputDirectory;
+
+  @Parameter(property = "dimension-di.native-metadata.skip", defaultValue = "false")
+  private boolean skip;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (skip) {
+      getLog().info("Dimension-DI: native image metadata skipped");
+      return;
+    }
+
+    List<String> classpath;
+    try {
+      classpath = project.getCompileClasspathElements();
+    } catch (DependencyResolutionRequiredException e) {
+      throw new MojoExecutionException("Dimension-DI: cannot resolve the compile classpath", e);
+    }
+
+    String json;
+    try {
+      json = ProjectClassLoader.call(classpath, () -> NativeImageMetadata.generate(builder()));
+    } catch (IllegalStateException e) {
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+
+    Path file = outputDirectory.toPath()
+        .resolve("META-INF/native-image")
+        .resolve(project.getGroupId())
+        .resolve(project.getArtifactId())
+        .resolve("reachability-metadata.json");
+    try {
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, json, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Dimension-DI: cannot write " + file, e);
+    }
+    getLog().info("Dimension-DI: wrote " + file);
+  }
+
+  private DimensionDI.Builder builder() {
+    DimensionDI.Builder builder = DimensionDI.builder()
+        .scanPackages(packages.toArray(String[]::new))
+        .allowImplicitPublicNoArgConstructor(allowImplicitPublicNoArgConstructor)
+        .skipAnonymousClasses(skipAnonymousClasses);
+    if (injectConstructorAnnotations != null) {
+      builder.injectConstructorAnnotations(injectConstructorAnnotations.toArray(String[]::new));
+    }
+    if (singletonClassAnnotations != null) {
+      builder.singletonClassAnnotations(singletonClassAnnotations.toArray(String[]::new));
+    }
+    if (includePackages != null) builder.includePackages(includePackages.toArray(String[]::new));
+    if (excludePackages != null) builder.excludePackages(excludePackages.toArray(String[]::new));
+    if (includeClasses != null) builder.includeClasses(includeClasses.toArray(String[]::new));
+    if (excludeClasses != null) builder.excludeClasses(excludeClasses.toArray(String[]::new));
+    return builder;
+  }
+}
@@ -0,0 +1,43 @@
+package ru.dimension.di.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * Runs a Dimension-DI generator with the project's compile classpath as the context class loader,
+ * which is where the generators read class files from.
+ */
+final class ProjectClassLoader {
+
+  private ProjectClassLoader() {}
+
+  static <T> T call(List<String> classpath, Supplier<T> generator) throws MojoExecutionException {
+    List<URL> urls = new ArrayList<>();
+    for (String element : classpath) {
+      try {
+        urls.add(new File(element).toURI().toURL());
+      } catch (MalformedURLException e) {
+        throw new MojoExecutionException("Dimension-DI: bad classpath element " + element, e);
+      }
+    }
+
+    // the platform loader as parent keeps Maven's own classes out of the scan
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+    try (URLClassLoader loader = new URLClassLoader(urls.toArray(URL[]::new), ClassLoader.getPlatformClassLoader())) {
+      thread.setContextClassLoader(loader);
+      return generator.get();
+    } catch (IOException e) {
+      throw new MojoExecutionException("Dimension-DI: cannot close the project class loader", e);
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+}
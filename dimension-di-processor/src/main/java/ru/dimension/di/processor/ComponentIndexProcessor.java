@@ -0,0 +1,220 @@
+package ru.dimension.di.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes {@code META-INF/dimension-di/components.idx} at compile time so that
+ * Dimension-DI can skip classpath walking and class-file parsing at startup.
+ *
+ * The index is config-agnostic: it records the raw facts the runtime scanner
+ * looks at (annotations on the class and its constructors, presence of a public
+ * no-arg constructor, all supertypes). The runtime applies its own
+ * scanner config to them, so custom inject/singleton annotations keep working.
+ *
+ * Format (UTF-8, one class per line, tab-separated, lists comma-separated):
+ * <pre>
+ *   # dimension-di component index v2
+ *   binaryName  publicNoArg(0|1)  classAnnotations  constructorAnnotations  supertypes
+ * </pre>
+ *
+ * supertypes is the breadth-first closure of superclasses and interfaces (superclass
+ * before interfaces, java.lang.Object left out, java.* types kept only as direct
+ * supertypes and never expanded), the same list the runtime scanner produces from
+ * class files. v1 indexes listed direct interfaces only.
+ *
+ * Only classes that could be accepted under some config are listed
+ * (at least one annotated constructor or a public no-arg constructor).
+ *
+ * An index already in the class output is merged: entries of classes compiled this time are
+ * replaced, the others are kept while the class still exists. An incremental or IDE build
+ * that recompiles only some sources therefore keeps the components it did not touch.
+ */
+@SupportedAnnotationTypes("*")
+public final class ComponentIndexProcessor extends AbstractProcessor {
+
+  static final String INDEX_RESOURCE = "META-INF/dimension-di/components.idx";
+  static final String HEADER = "# dimension-di component index v2";
+  private static final String OBJECT = "java.lang.Object";
+  private static final String JDK_PREFIX = "java.";
+
+  // binary name -> index line; sorted for reproducible output
+  private final Map<String, String> lines = new TreeMap<>();
+  // binary names of every type compiled in this run, components or not
+  private final Set<String> compiled = new HashSet<>();
+  private boolean previousIndex;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+
+    for (Element element : roundEnv.getRootElements()) {
+      collect(element);
+    }
+    // never claim annotations: other processors must still see them
+    return false;
+  }
+
+  private void collect(Element element) {
+    if (!(element instanceof TypeElement type)) return;
+
+    for (Element enclosed : type.getEnclosedElements()) {
+      collect(enclosed);
+    }
+    compiled.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+
+    ElementKind kind = type.getKind();
+    if (kind != ElementKind.CLASS && kind != ElementKind.RECORD && kind != ElementKind.ENUM) return;
+    if (type.getModifiers().contains(Modifier.ABSTRACT)) return;
+
+    // non-static member classes get the outer instance as a hidden constructor parameter
+    boolean innerClass = type.getNestingKind() == NestingKind.MEMBER
+        && kind == ElementKind.CLASS
+        && !type.getModifiers().contains(Modifier.STATIC);
+
+    boolean publicNoArg = false;
+    Set<String> constructorAnnotations = new TreeSet<>();
+    for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      constructorAnnotations.addAll(annotationNames(ctor));
+      if (!innerClass && ctor.getParameters().isEmpty() && ctor.getModifiers().contains(Modifier.PUBLIC)) {
+        publicNoArg = true;
+      }
+    }
+
+    if (!publicNoArg && constructorAnnotations.isEmpty()) return;
+
+    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+    lines.put(binaryName, String.join("\t",
+        binaryName,
+        publicNoArg ? "1" : "0",
+        String.join(",", annotationNames(type)),
+        String.join(",", constructorAnnotations),
+        String.join(",", supertypes(type))));
+  }
+
+  private Set<String> supertypes(TypeElement type) {
+    Set<String> out = new LinkedHashSet<>();
+    ArrayDeque<TypeMirror> queue = new ArrayDeque<>();
+    for (TypeMirror supertype : directSupertypes(type)) {
+      String name = binaryName(supertype);
+      if (name == null || name.equals(OBJECT) || !out.add(name) || name.startsWith(JDK_PREFIX)) continue;
+      queue.add(supertype);
+    }
+    while (!queue.isEmpty()) {
+      TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(queue.poll());
+      for (TypeMirror supertype : directSupertypes(element)) {
+        String name = binaryName(supertype);
+        if (name == null || name.startsWith(JDK_PREFIX) || !out.add(name)) continue;
+        queue.add(supertype);
+      }
+    }
+    return out;
+  }
+
+  private static List<TypeMirror> directSupertypes(TypeElement type) {
+    List<TypeMirror> out = new ArrayList<>(type.getInterfaces().size() + 1);
+    // NoType for interfaces and java.lang.Object itself
+    if (type.getSuperclass().getKind() == TypeKind.DECLARED) out.add(type.getSuperclass());
+    out.addAll(type.getInterfaces());
+    return out;
+  }
+
+  /**
+   * Binary names of annotations that survive into the class file
+   * (the runtime scanner never sees SOURCE-retention annotations).
+   */
+  private Set<String> annotationNames(Element element) {
+    Set<String> out = new TreeSet<>();
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+      Retention retention = annotationType.getAnnotation(Retention.class);
+      if (retention != null && retention.value() == RetentionPolicy.SOURCE) continue;
+      out.add(processingEnv.getElementUtils().getBinaryName(annotationType).toString());
+    }
+    return out;
+  }
+
+  private String binaryName(TypeMirror type) {
+    TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+    if (!(erased instanceof DeclaredType declared)) return null;
+    return processingEnv.getElementUtils().getBinaryName((TypeElement) declared.asElement()).toString();
+  }
+
+  /**
+   * Lines of the index left by an earlier compilation for classes not compiled this time and
+   * still present; empty when there is none.
+   */
+  private Map<String, String> previousLines() {
+    Map<String, String> out = new HashMap<>();
+    try {
+      FileObject resource = processingEnv.getFiler()
+          .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(resource.openReader(true))) {
+        if (!HEADER.equals(reader.readLine())) return out;
+        previousIndex = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          int tab = line.indexOf('\t');
+          if (tab <= 0) continue;
+          String binaryName = line.substring(0, tab);
+          if (!compiled.contains(binaryName) && exists(binaryName)) out.put(binaryName, line);
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no earlier index (or an unreadable one): this compilation writes it from scratch
+    }
+    return out;
+  }
+
+  private boolean exists(String binaryName) {
+    TypeElement type = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+    return type != null && processingEnv.getElementUtils().getBinaryName(type).contentEquals(binaryName);
+  }
+
+  private void writeIndex() {
+    Map<String, String> previous = previousLines();
+    previous.forEach(lines::putIfAbsent);
+    // an earlier index is rewritten even when empty, so removed components drop out of it
+    if (lines.isEmpty() && !previousIndex) return;
+
+    try {
+      FileObject resource = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (Writer writer = resource.openWriter()) {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (String line : lines.values()) {
+          writer.write(line);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(
+          Diagnostic.Kind.ERROR, "Dimension-DI: cannot write " + INDEX_RESOURCE + ": " + e.getMessage());
+    }
+  }
+}
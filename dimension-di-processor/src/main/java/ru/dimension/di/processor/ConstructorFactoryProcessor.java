@@ -0,0 +1,425 @@
+package ru.dimension.di.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a {@code ru.dimension.di.ConstructorFactory} for every class with an {@code @Inject}
+ * constructor, so Dimension-DI creates instances with a plain {@code new} instead of a
+ * reflective MethodHandle call.
+ *
+ * For {@code app.Outer$Car} the factory is {@code app.Outer$Car$DimensionFactory} (binary name plus
+ * a '$' suffix, so it cannot clash with another class's factory):
+ * <pre>
+ *   public final class Outer$Car$DimensionFactory implements ConstructorFactory&lt;app.Outer.Car&gt; {
+ *     public static final Outer$Car$DimensionFactory INSTANCE = ...;
+ *     public app.Outer.Car create() {
+ *       app.Outer.Car instance = new app.Outer.Car(ServiceLocator.get(app.Engine.class), ...);
+ *       ...
+ *     }
+ *   }
+ * </pre>
+ *
+ * Arguments are resolved through the public ServiceLocator lookups with the same rules as the
+ * reflective path ({@code @Named}, {@code List/Set/Collection<T>}, {@code Map<String, T>});
+ * primitives are looked up by their wrapper class and unboxed. The constructor is private, so
+ * the scanner never registers a factory as a component.
+ *
+ * Every class that got a factory is listed in {@code META-INF/dimension-di/factories.idx}; the
+ * runtime only looks for factories of listed classes. An index already in the class output is
+ * merged, as the component index is.
+ *
+ * No factory is written (the runtime keeps using reflection) for classes it could not call
+ * from generated code or that the runtime rejects anyway: private, abstract, generic or inner
+ * classes, several {@code @Inject} constructors, private or generic constructors,
+ * {@code @Assisted} parameters and type variables in parameter types. Classes that also use
+ * another inject annotation (any {@code *.Inject} besides the jakarta one, or one listed in the
+ * {@code dimension.di.injectAnnotations} option, comma-separated) keep the reflective path too.
+ */
+@SupportedAnnotationTypes(ConstructorFactoryProcessor.INJECT)
+@SupportedOptions(ConstructorFactoryProcessor.INJECT_ANNOTATIONS_OPTION)
+public final class ConstructorFactoryProcessor extends AbstractProcessor {
+
+  // must match ServiceLocator.GENERATED_FACTORY_SUFFIX and GENERATED_FACTORY_INDEX
+  static final String SUFFIX = "$DimensionFactory";
+  static final String INDEX_RESOURCE = "META-INF/dimension-di/factories.idx";
+  static final String HEADER = "# dimension-di factory index v1";
+
+  static final String INJECT_ANNOTATIONS_OPTION = "dimension.di.injectAnnotations";
+
+  static final String INJECT = "jakarta.inject.Inject";
+  private static final String NAMED = "jakarta.inject.Named";
+  private static final String ASSISTED = "ru.dimension.di.Assisted";
+  private static final String LOCATOR = "ru.dimension.di.ServiceLocator";
+
+  private final Set<String> processed = new HashSet<>();
+  // binary names of classes that got a factory in this run; sorted for reproducible output
+  private final Set<String> generated = new TreeSet<>();
+  private Set<String> injectAnnotations;
+  private boolean previousIndex;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CONSTRUCTOR) continue;
+        TypeElement type = (TypeElement) element.getEnclosingElement();
+        if (processed.add(binaryName(type))) generate(type);
+      }
+    }
+    // never claim annotations: other processors must still see them
+    return false;
+  }
+
+  private void generate(TypeElement type) {
+    if (!constructible(type) || usesOtherInject(type)) return;
+
+    List<ExecutableElement> injectCtors = new ArrayList<>();
+    for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (hasAnnotation(ctor, INJECT)) injectCtors.add(ctor);
+    }
+    if (injectCtors.size() != 1) return;
+
+    ExecutableElement ctor = injectCtors.get(0);
+    if (ctor.getModifiers().contains(Modifier.PRIVATE) || !ctor.getTypeParameters().isEmpty()) return;
+
+    List<String> arguments = new ArrayList<>();
+    for (VariableElement param : ctor.getParameters()) {
+      if (hasAnnotation(param, ASSISTED)) return;
+      String argument = argument(param);
+      if (argument == null) return;
+      arguments.add(argument);
+    }
+
+    write(type, arguments, !ctor.getThrownTypes().isEmpty(), hasInjectedMembers(type));
+  }
+
+  /**
+   * Top-level or static member class that generated code in the same package can instantiate.
+   */
+  private static boolean constructible(TypeElement type) {
+    if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) return false;
+    if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) return false;
+
+    Element e = type;
+    while (e instanceof TypeElement t) {
+      if (t.getModifiers().contains(Modifier.PRIVATE)) return false;
+      NestingKind nesting = t.getNestingKind();
+      if (nesting == NestingKind.TOP_LEVEL) return true;
+      if (nesting != NestingKind.MEMBER) return false;
+      if (t.getKind() == ElementKind.CLASS && !t.getModifiers().contains(Modifier.STATIC)) return false;
+      e = t.getEnclosingElement();
+    }
+    return false;
+  }
+
+  /**
+   * Source expression resolving one constructor argument, or null if it is not supported.
+   */
+  private String argument(VariableElement param) {
+    String named = namedValue(param);
+    String name = named == null ? "null" : processingEnv.getElementUtils().getConstantExpression(named);
+    TypeMirror type = param.asType();
+
+    if (type instanceof DeclaredType declared) {
+      String raw = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+      List<? extends TypeMirror> args = declared.getTypeArguments();
+
+      switch (raw) {
+        case "java.util.List", "java.util.Collection", "java.util.Set" -> {
+          if (args.size() != 1) return null;
+          String element = typeArgument(args.get(0));
+          if (element == null) return null;
+          String method = raw.equals("java.util.Set") ? "resolveSet" : "resolveList";
+          return "(" + raw + ") " + LOCATOR + "." + method + "(" + element + ".class, " + name + ")";
+        }
+        case "java.util.Map" -> {
+          if (args.size() != 2 || !"java.lang.String".equals(typeArgument(args.get(0)))) return null;
+          String value = typeArgument(args.get(1));
+          if (value == null) return null;
+          return "(java.util.Map) " + LOCATOR + ".resolveMap(" + value + ".class, " + name + ")";
+        }
+        default -> {}
+      }
+    }
+
+    // same Key.of(int.class) as the reflective path; resolve does not Class.cast, the call site unboxes
+    if (type.getKind().isPrimitive()) {
+      return "(" + type + ") " + LOCATOR + ".resolve(" + type + ".class, " + name + ")";
+    }
+
+    String literal = typeName(type);
+    if (literal == null) return null;
+    return named == null
+        ? LOCATOR + ".get(" + literal + ".class)"
+        : LOCATOR + ".get(" + literal + ".class, " + name + ")";
+  }
+
+  /**
+   * Erased type argument the way ServiceLocator reads it: wildcards resolve to their upper bound.
+   */
+  private static String typeArgument(TypeMirror arg) {
+    if (arg instanceof WildcardType wildcard) {
+      return wildcard.getExtendsBound() == null ? "java.lang.Object" : typeArgument(wildcard.getExtendsBound());
+    }
+    // generic arrays are rejected by the runtime too
+    if (arg instanceof ArrayType array
+        && array.getComponentType() instanceof DeclaredType component
+        && !component.getTypeArguments().isEmpty()) {
+      return null;
+    }
+    return typeName(arg);
+  }
+
+  /**
+   * Source name of an erased type for a class literal; null for type variables and the like.
+   */
+  private static String typeName(TypeMirror type) {
+    if (type.getKind().isPrimitive()) return type.getKind().name().toLowerCase(Locale.ROOT);
+    if (type instanceof DeclaredType declared) {
+      return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+    }
+    if (type instanceof ArrayType array) {
+      String component = typeName(array.getComponentType());
+      return component == null ? null : component + "[]";
+    }
+    return null;
+  }
+
+  private static String namedValue(Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      if (!qualifiedName(mirror).equals(NAMED)) continue;
+      for (var e : mirror.getElementValues().entrySet()) {
+        if (e.getKey().getSimpleName().contentEquals("value") && e.getValue().getValue() instanceof String s) {
+          return s.isBlank() ? null : s;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * True if the class or a superclass has {@code @Inject} fields or methods, which
+   * ServiceLocator.injectMembers fills in after construction.
+   */
+  private boolean hasInjectedMembers(TypeElement type) {
+    for (TypeElement t = type; t != null; ) {
+      for (Element member : t.getEnclosedElements()) {
+        if ((member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD)
+            && hasAnnotation(member, INJECT)) {
+          return true;
+        }
+      }
+      TypeMirror superclass = t.getSuperclass();
+      t = superclass.getKind() == TypeKind.DECLARED
+          ? (TypeElement) processingEnv.getTypeUtils().asElement(superclass)
+          : null;
+    }
+    return false;
+  }
+
+  /**
+   * True if a constructor of the class, or a field or method of it or a superclass, carries an inject
+   * annotation other than jakarta's, which the runtime may honor differently from this processor.
+   */
+  private boolean usesOtherInject(TypeElement type) {
+    for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (hasOtherInject(ctor)) return true;
+    }
+    for (TypeElement t = type; t != null; ) {
+      for (Element member : t.getEnclosedElements()) {
+        if ((member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD)
+            && hasOtherInject(member)) {
+          return true;
+        }
+      }
+      TypeMirror superclass = t.getSuperclass();
+      t = superclass.getKind() == TypeKind.DECLARED
+          ? (TypeElement) processingEnv.getTypeUtils().asElement(superclass)
+          : null;
+    }
+    return false;
+  }
+
+  private boolean hasOtherInject(Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      String name = qualifiedName(mirror);
+      if (name.equals(INJECT)) continue;
+      if (name.endsWith(".Inject") || injectAnnotations().contains(name)) return true;
+    }
+    return false;
+  }
+
+  private Set<String> injectAnnotations() {
+    if (injectAnnotations == null) {
+      injectAnnotations = new HashSet<>();
+      String option = processingEnv.getOptions().get(INJECT_ANNOTATIONS_OPTION);
+      if (option != null) {
+        for (String name : option.split(",")) {
+          if (!name.isBlank()) injectAnnotations.add(name.strip());
+        }
+      }
+    }
+    return injectAnnotations;
+  }
+
+  private static boolean hasAnnotation(Element element, String annotation) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      if (qualifiedName(mirror).equals(annotation)) return true;
+    }
+    return false;
+  }
+
+  private static String qualifiedName(AnnotationMirror mirror) {
+    return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+  }
+
+  private String binaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private void write(TypeElement type, List<String> arguments, boolean throwsChecked, boolean injectMembers) {
+    String binaryName = binaryName(type);
+    String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+        + SUFFIX;
+    String factoryName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    String target = type.getQualifiedName().toString();
+
+    StringBuilder src = new StringBuilder();
+    if (!packageName.isEmpty()) src.append("package ").append(packageName).append(";\n\n");
+    src.append("// Generated by ").append(getClass().getName()).append(". Do not edit.\n")
+        .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+        .append("public final class ").append(simpleName)
+        .append(" implements ru.dimension.di.ConstructorFactory<").append(target).append("> {\n\n")
+        .append("  public static final ").append(simpleName).append(" INSTANCE = new ")
+        .append(simpleName).append("();\n\n")
+        .append("  private ").append(simpleName).append("() {}\n\n")
+        .append("  @Override\n")
+        .append("  public ").append(target).append(" create() {\n");
+
+    String indent = throwsChecked ? "      " : "    ";
+    StringBuilder newExpression = new StringBuilder("new ").append(target).append("(");
+    for (int i = 0; i < arguments.size(); i++) {
+      newExpression.append(i == 0 ? "\n" : ",\n").append(indent).append("    ").append(arguments.get(i));
+    }
+    newExpression.append(")");
+
+    if (throwsChecked) {
+      src.append("    ").append(target).append(" instance;\n")
+          .append("    try {\n")
+          .append(indent).append("instance = ").append(newExpression).append(";\n")
+          .append("    } catch (RuntimeException e) {\n")
+          .append("      throw e;\n")
+          .append("    } catch (Exception e) {\n")
+          .append("      throw new RuntimeException(\"Failed to instantiate ").append(binaryName).append("\", e);\n")
+          .append("    }\n");
+    } else {
+      src.append(indent).append(target).append(" instance = ").append(newExpression).append(";\n");
+    }
+    if (injectMembers) {
+      // cast: a component implementing Collection must not pick the bulk overload
+      src.append("    ").append(LOCATOR).append(".injectMembers((Object) instance);\n");
+    }
+    src.append("    return instance;\n")
+        .append("  }\n")
+        .append("}\n");
+
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(factoryName, type);
+      try (Writer writer = file.openWriter()) {
+        writer.write(src.toString());
+      }
+      generated.add(binaryName);
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(
+          Diagnostic.Kind.ERROR, "Dimension-DI: cannot write " + factoryName + ": " + e.getMessage(), type);
+    }
+  }
+
+  /**
+   * Entries of an earlier index for classes not processed this time whose factory still exists;
+   * empty when there is none.
+   */
+  private Set<String> previousEntries() {
+    Set<String> out = new HashSet<>();
+    try {
+      FileObject resource = processingEnv.getFiler()
+          .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(resource.openReader(true))) {
+        if (!HEADER.equals(reader.readLine())) return out;
+        previousIndex = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (!line.isEmpty() && !processed.contains(line) && factoryExists(line)) out.add(line);
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no earlier index (or an unreadable one): this compilation writes it from scratch
+    }
+    return out;
+  }
+
+  private boolean factoryExists(String binaryName) {
+    // a '$' in the factory's own simple name is not a nesting separator: look it up in its package
+    int dot = binaryName.lastIndexOf('.');
+    String packageName = dot < 0 ? "" : binaryName.substring(0, dot);
+    String factoryName = binaryName.substring(dot + 1) + SUFFIX;
+    PackageElement pkg = processingEnv.getElementUtils().getPackageElement(packageName);
+    if (pkg == null) return false;
+    for (Element e : pkg.getEnclosedElements()) {
+      if (e.getSimpleName().contentEquals(factoryName)) return true;
+    }
+    return false;
+  }
+
+  private void writeIndex() {
+    generated.addAll(previousEntries());
+    // an earlier index is rewritten even when empty, so removed factories drop out of it
+    if (generated.isEmpty() && !previousIndex) return;
+
+    try {
+      FileObject resource = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      try (Writer writer = resource.openWriter()) {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (String binaryName : generated) {
+          writer.write(binaryName);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(
+          Diagnostic.Kind.ERROR, "Dimension-DI: cannot write " + INDEX_RESOURCE + ": " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package ru.dimension.di.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.tools.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComponentIndexProcessorTest {
+
+  @TempDir
+  Path out;
+
+  @Test
+  @DisplayName("Index lists injectable classes with their annotations and supertypes")
+  void writesIndex() throws IOException {
+    Map<String, String> index = compile(
+        source("jakarta.inject.Inject", """
+            package jakarta.inject;
+            import java.lang.annotation.*;
+            @Retention(RetentionPolicy.RUNTIME) public @interface Inject {}
+            """),
+        source("jakarta.inject.Singleton", """
+            package jakarta.inject;
+            import java.lang.annotation.*;
+            @Retention(RetentionPolicy.RUNTIME) public @interface Singleton {}
+            """),
+        source("app.Repo", """
+            package app;
+            public interface Repo {}
+            """),
+        source("app.SqlRepo", """
+            package app;
+            @jakarta.inject.Singleton
+            @SuppressWarnings("all")
+            public class SqlRepo implements Repo, java.io.Serializable {
+              @jakarta.inject.Inject SqlRepo(String url) {}
+            }
+            """),
+        source("app.Plain", """
+            package app;
+            public class Plain {
+              public static class Nested {}
+              public class Inner {}
+            }
+            """),
+        source("app.Hidden", """
+            package app;
+            class Hidden { private Hidden() {} }
+            """),
+        source("app.Base", """
+            package app;
+            public abstract class Base {}
+            """),
+        source("app.AbstractRepo", """
+            package app;
+            public abstract class AbstractRepo implements Repo {}
+            """),
+        source("app.JpaRepo", """
+            package app;
+            public class JpaRepo extends AbstractRepo implements Comparable<JpaRepo> {
+              public int compareTo(JpaRepo o) { return 0; }
+            }
+            """),
+        source("app.ListRepo", """
+            package app;
+            public class ListRepo extends java.util.AbstractList<String> implements Repo {
+              public String get(int index) { return null; }
+              public int size() { return 0; }
+            }
+            """)
+    );
+
+    assertEquals("app.SqlRepo\t0\tjakarta.inject.Singleton\tjakarta.inject.Inject\tapp.Repo,java.io.Serializable",
+                 index.get("app.SqlRepo"), "SOURCE-retention annotations must be dropped");
+    assertEquals("app.Plain\t1\t\t\t", index.get("app.Plain"));
+    assertEquals("app.Plain$Nested\t1\t\t\t", index.get("app.Plain$Nested"));
+    assertEquals("app.JpaRepo\t1\t\t\tapp.AbstractRepo,java.lang.Comparable,app.Repo", index.get("app.JpaRepo"),
+                 "superclasses and inherited interfaces, breadth-first");
+    assertEquals("app.ListRepo\t1\t\t\tjava.util.AbstractList,app.Repo", index.get("app.ListRepo"),
+                 "java.* supertypes are kept when direct but not expanded");
+
+    assertFalse(index.containsKey("app.Plain$Inner"), "inner class has no real no-arg constructor");
+    assertFalse(index.containsKey("app.Hidden"), "class without injectable constructor");
+    assertFalse(index.containsKey("app.Base"), "abstract class");
+    assertFalse(index.containsKey("app.Repo"), "interface");
+  }
+
+  @Test
+  @DisplayName("No index is written when nothing is injectable")
+  void noIndexWhenEmpty() throws IOException {
+    compile(source("app.Repo", """
+        package app;
+        public interface Repo {}
+        """));
+
+    assertFalse(Files.exists(out.resolve(ComponentIndexProcessor.INDEX_RESOURCE)));
+  }
+
+  @Test
+  @DisplayName("A partial recompilation merges into the existing index")
+  void mergesPartialCompilation() throws IOException {
+    JavaFileObject inject = source("jakarta.inject.Inject", """
+        package jakarta.inject;
+        import java.lang.annotation.*;
+        @Retention(RetentionPolicy.RUNTIME) public @interface Inject {}
+        """);
+    Map<String, String> full = compile(List.of(), inject,
+        source("app.Kept", """
+            package app;
+            public class Kept { @jakarta.inject.Inject Kept() {} }
+            """),
+        source("app.Changed", """
+            package app;
+            public class Changed { @jakarta.inject.Inject Changed() {} }
+            """),
+        source("app.Removed", """
+            package app;
+            public class Removed { @jakarta.inject.Inject Removed() {} }
+            """));
+    assertEquals(3, full.size(), full.toString());
+
+    // Changed is recompiled and is no longer a component, Removed is gone, Kept is untouched
+    Files.delete(out.resolve("app/Removed.class"));
+    Map<String, String> partial = compile(List.of(),
+        source("app.Changed", """
+            package app;
+            public class Changed { private Changed() {} }
+            """),
+        source("app.Added", """
+            package app;
+            public class Added { @jakarta.inject.Inject Added() {} }
+            """));
+
+    assertEquals(Set.of("app.Kept", "app.Added"), partial.keySet());
+    assertEquals(full.get("app.Kept"), partial.get("app.Kept"));
+  }
+
+  private Map<String, String> compile(JavaFileObject... sources) throws IOException {
+    return compile(List.of("-proc:only"), sources);
+  }
+
+  private Map<String, String> compile(List<String> options, JavaFileObject... sources) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    try (StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, null)) {
+      fm.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(out));
+      // classes of an earlier compilation, as an incremental build sees them
+      fm.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of(out));
+
+      JavaCompiler.CompilationTask task = compiler.getTask(
+          null, fm, diagnostics, options, null, List.of(sources));
+      task.setProcessors(List.of(new ComponentIndexProcessor()));
+
+      assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+    }
+
+    Path index = out.resolve(ComponentIndexProcessor.INDEX_RESOURCE);
+    if (!Files.exists(index)) return Map.of();
+
+    List<String> lines = Files.readAllLines(index);
+    assertEquals(ComponentIndexProcessor.HEADER, lines.get(0));
+    return lines.stream()
+        .skip(1)
+        .collect(Collectors.toMap(l -> l.substring(0, l.indexOf('\t')), l -> l));
+  }
+
+  private static JavaFileObject source(String className, String code) {
+    URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+}
@@ -0,0 +1,232 @@
+package ru.dimension.di.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.tools.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConstructorFactoryProcessorTest {
+
+  @TempDir
+  Path out;
+
+  @Test
+  @DisplayName("Factories call the @Inject constructor and resolve arguments through ServiceLocator")
+  void writesFactories() throws Exception {
+    compile(
+        source("app.Car", """
+            package app;
+            import jakarta.inject.*;
+            import java.util.*;
+            public class Car {
+              @Inject String field;
+              @Inject Car(Engine engine, @Named("v8") Engine named, List<? extends Engine> engines,
+                          Map<String, Engine> byName, long speed) throws Exception {}
+              public interface Engine {}
+              public static class Wheel { @Inject public Wheel(Engine engine) {} }
+            }
+            """),
+        source("app.Skipped", """
+            package app;
+            import jakarta.inject.Inject;
+            public class Skipped {
+              public class Inner { @Inject public Inner() {} }
+              public static class Box<T> { @Inject public Box() {} }
+              public static class IntKeys { @Inject public IntKeys(java.util.Map<Integer, String> m) {} }
+              public static class Help { @Inject public Help(@ru.dimension.di.Assisted String s) {} }
+              private static class Hidden { @Inject Hidden() {} }
+              public static class NoInject { public NoInject() {} }
+              public static class Mixed { @Inject public Mixed() {} @javax.inject.Inject String field; }
+            }
+            """)
+    );
+
+    String car = Files.readString(out.resolve("app/Car$DimensionFactory.java"));
+    assertTrue(car.contains("implements ru.dimension.di.ConstructorFactory<app.Car>"), car);
+    assertTrue(car.contains("private Car$DimensionFactory() {}"), "factories must not look like components");
+    assertTrue(car.contains("ru.dimension.di.ServiceLocator.get(app.Car.Engine.class)"), car);
+    assertTrue(car.contains("ru.dimension.di.ServiceLocator.get(app.Car.Engine.class, \"v8\")"), car);
+    assertTrue(car.contains("ru.dimension.di.ServiceLocator.resolveList(app.Car.Engine.class, null)"), car);
+    assertTrue(car.contains("ru.dimension.di.ServiceLocator.resolveMap(app.Car.Engine.class, null)"), car);
+    assertTrue(car.contains("(long) ru.dimension.di.ServiceLocator.resolve(long.class, null)"), car);
+    assertTrue(car.contains("ru.dimension.di.ServiceLocator.injectMembers((Object) instance)"), "has @Inject field");
+
+    String wheel = Files.readString(out.resolve("app/Car$Wheel$DimensionFactory.java"));
+    assertFalse(wheel.contains("injectMembers"), "nothing to inject after construction");
+
+    for (String name : List.of("Skipped$Inner", "Skipped$Box", "Skipped$IntKeys", "Skipped$Help",
+                               "Skipped$Hidden", "Skipped$NoInject", "Skipped$Mixed")) {
+      assertFalse(Files.exists(out.resolve("app/" + name + ConstructorFactoryProcessor.SUFFIX + ".java")), name);
+    }
+
+    assertEquals(List.of(ConstructorFactoryProcessor.HEADER, "app.Car", "app.Car$Wheel"),
+                 Files.readAllLines(out.resolve(ConstructorFactoryProcessor.INDEX_RESOURCE)));
+
+    // the stub locator below resolves every dependency to null / 0 / empty
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {out.toUri().toURL()}, getClass().getClassLoader())) {
+      Object factory = loader.loadClass("app.Car$Wheel$DimensionFactory").getField("INSTANCE").get(null);
+      Object wheelInstance = factory.getClass().getMethod("create").invoke(factory);
+      assertEquals("app.Car$Wheel", wheelInstance.getClass().getName());
+    }
+  }
+
+  @Test
+  @DisplayName("Primitive parameters are looked up by their primitive class and unboxed")
+  void primitiveParameters() throws Exception {
+    compile(
+        source("app.Pool", """
+            package app;
+            import jakarta.inject.Inject;
+            public class Pool {
+              public final int size;
+              public final boolean fair;
+              @Inject public Pool(int size, @jakarta.inject.Named("fair") boolean fair) {
+                this.size = size;
+                this.fair = fair;
+              }
+            }
+            """)
+    );
+
+    String pool = Files.readString(out.resolve("app/Pool$DimensionFactory.java"));
+    assertTrue(pool.contains("(int) ru.dimension.di.ServiceLocator.resolve(int.class, null)"), pool);
+    assertTrue(pool.contains("(boolean) ru.dimension.di.ServiceLocator.resolve(boolean.class, \"fair\")"), pool);
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {out.toUri().toURL()}, getClass().getClassLoader())) {
+      Object factory = loader.loadClass("app.Pool$DimensionFactory").getField("INSTANCE").get(null);
+      Object instance = factory.getClass().getMethod("create").invoke(factory);
+      assertEquals(7, instance.getClass().getField("size").get(instance));
+      assertEquals(true, instance.getClass().getField("fair").get(instance));
+    }
+  }
+
+  @Test
+  @DisplayName("Classes using a configured inject annotation besides jakarta's keep the reflective path")
+  void configuredInjectAnnotations() throws IOException {
+    compile(List.of("-A" + ConstructorFactoryProcessor.INJECT_ANNOTATIONS_OPTION + "=app.Wire"),
+        source("app.Wire", """
+            package app;
+            public @interface Wire {}
+            """),
+        source("app.Base", """
+            package app;
+            public class Base { @Wire Object dependency; }
+            """),
+        source("app.Service", """
+            package app;
+            public class Service extends Base { @jakarta.inject.Inject public Service() {} }
+            """),
+        source("app.Plain", """
+            package app;
+            public class Plain { @jakarta.inject.Inject public Plain() {} }
+            """)
+    );
+
+    assertFalse(Files.exists(out.resolve("app/Service$DimensionFactory.java")), "@Wire field in the superclass");
+    assertTrue(Files.exists(out.resolve("app/Plain$DimensionFactory.java")));
+  }
+
+  @Test
+  @DisplayName("The factory index keeps entries of classes not recompiled")
+  void mergesPartialCompilation() throws IOException {
+    compile(
+        source("app.First", """
+            package app;
+            public class First { @jakarta.inject.Inject public First() {} }
+            """)
+    );
+    compile(
+        source("app.Second", """
+            package app;
+            public class Second { @jakarta.inject.Inject public Second() {} }
+            """)
+    );
+
+    assertEquals(List.of(ConstructorFactoryProcessor.HEADER, "app.First", "app.Second"),
+                 Files.readAllLines(out.resolve(ConstructorFactoryProcessor.INDEX_RESOURCE)));
+  }
+
+  private void compile(JavaFileObject... sources) throws IOException {
+    compile(List.of(), sources);
+  }
+
+  private void compile(List<String> options, JavaFileObject... sources) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    List<JavaFileObject> all = new ArrayList<>(List.of(sources));
+    all.addAll(List.of(
+        source("jakarta.inject.Inject", """
+            package jakarta.inject;
+            import java.lang.annotation.*;
+            @Retention(RetentionPolicy.RUNTIME) public @interface Inject {}
+            """),
+        source("jakarta.inject.Named", """
+            package jakarta.inject;
+            import java.lang.annotation.*;
+            @Retention(RetentionPolicy.RUNTIME) public @interface Named { String value() default ""; }
+            """),
+        source("javax.inject.Inject", """
+            package javax.inject;
+            import java.lang.annotation.*;
+            @Retention(RetentionPolicy.RUNTIME) public @interface Inject {}
+            """),
+        source("ru.dimension.di.Assisted", """
+            package ru.dimension.di;
+            public @interface Assisted { String value() default ""; }
+            """),
+        source("ru.dimension.di.ConstructorFactory", """
+            package ru.dimension.di;
+            public interface ConstructorFactory<T> { T create(); }
+            """),
+        source("ru.dimension.di.ServiceLocator", """
+            package ru.dimension.di;
+            import java.util.*;
+            public final class ServiceLocator {
+              public static <T> T get(Class<T> type) { return null; }
+              public static <T> T get(Class<T> type, String name) { return null; }
+              public static Object resolve(Class<?> type, String name) {
+                if (type == int.class && name == null) return 7;
+                return type == boolean.class && "fair".equals(name) ? Boolean.TRUE : null;
+              }
+              public static <T> List<T> resolveList(Class<T> type, String name) { return List.of(); }
+              public static <T> Set<T> resolveSet(Class<T> type, String name) { return Set.of(); }
+              public static <T> Map<String, T> resolveMap(Class<T> type, String name) { return Map.of(); }
+              public static void injectMembers(Object instance) {}
+              public static void injectMembers(Collection<?> instances) {}
+            }
+            """)));
+
+    try (StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, null)) {
+      fm.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(out));
+      fm.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(out));
+      fm.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of(out));
+
+      // generated sources are compiled too, so a broken factory fails the task
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fm, diagnostics, options, null, all);
+      task.setProcessors(List.of(new ConstructorFactoryProcessor()));
+
+      assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+    }
+  }
+
+  private static JavaFileObject source(String className, String code) {
+    URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+}
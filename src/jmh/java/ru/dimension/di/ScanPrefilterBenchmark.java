@@ -0,0 +1,108 @@
+package ru.dimension.di;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Class analysis over every class of a large jar, with and without the {@link ConstantPoolFilter}.
+ *
+ * The "parsed" counter reports full Class-File API parses per operation.
+ * Jar defaults to mockito-core from the test classpath; override with -Dbenchmark.jar=/path/to.jar.
+ *
+ * Run from the IDE (main method) or:
+ * <pre>
+ *   mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=ru.dimension.di.ScanPrefilterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanPrefilterBenchmark {
+
+  @Param({"true", "false"})
+  public boolean allowPublicNoArgConstructor;
+
+  private final List<String> names = new ArrayList<>();
+  private final List<byte[]> classes = new ArrayList<>();
+  private DependencyScanner.Config config;
+  private ConstantPoolFilter filter;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ParseCounter {
+    public long parsed;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      parsed = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() throws IOException, URISyntaxException {
+    String jarProperty = System.getProperty("benchmark.jar");
+    Path jarPath = jarProperty != null
+        ? Path.of(jarProperty)
+        : Path.of(Mockito.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+    try (JarFile jar = new JarFile(jarPath.toFile())) {
+      for (JarEntry entry : Collections.list(jar.entries())) {
+        String name = entry.getName();
+        if (!name.endsWith(".class") || name.endsWith("-info.class")) continue;
+        try (InputStream in = jar.getInputStream(entry)) {
+          names.add(name.substring(0, name.length() - 6).replace('/', '.'));
+          classes.add(in.readAllBytes());
+        }
+      }
+    }
+
+    config = DependencyScanner.Config.defaultsJakartaInject()
+        .withAllowPublicNoArgConstructor(allowPublicNoArgConstructor);
+    filter = new ConstantPoolFilter(config);
+  }
+
+  @Benchmark
+  public int fullParse(ParseCounter counter) {
+    int components = 0;
+    for (int i = 0; i < classes.size(); i++) {
+      counter.parsed++;
+      if (DependencyScanner.analyzeClass(config, null, names.get(i), classes.get(i)) != null) components++;
+    }
+    return components;
+  }
+
+  @Benchmark
+  public int preFiltered(ParseCounter counter) {
+    int components = 0;
+    for (int i = 0; i < classes.size(); i++) {
+      byte[] bytes = classes.get(i);
+      if (!filter.mayBeComponent(bytes)) continue;
+      counter.parsed++;
+      if (DependencyScanner.analyzeClass(config, null, names.get(i), bytes) != null) components++;
+    }
+    return components;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ScanPrefilterBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,59 @@
+package ru.dimension.di;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.dimension.di.beans.SingletonBean;
+
+/**
+ * Singleton lookups through {@link ServiceLocator#get}, unnamed and named.
+ *
+ * Run with the GC profiler, which reports {@code gc.alloc.rate.norm} (bytes per operation);
+ * it is expected to be 0 for both benchmarks.
+ *
+ * Run from the IDE (main method) or:
+ * <pre>
+ *   mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=ru.dimension.di.ServiceLocatorGetBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceLocatorGetBenchmark {
+
+  @Setup
+  public void setUp() {
+    ServiceLocator.clear();
+    ServiceLocator.registerProvider(SingletonBean.class, ServiceLocator.singleton(SingletonBean::new));
+    ServiceLocator.registerProvider(SingletonBean.class, "named", ServiceLocator.singleton(SingletonBean::new));
+  }
+
+  @TearDown
+  public void tearDown() {
+    ServiceLocator.clear();
+  }
+
+  @Benchmark
+  public SingletonBean unnamed() {
+    return ServiceLocator.get(SingletonBean.class);
+  }
+
+  @Benchmark
+  public SingletonBean named() {
+    return ServiceLocator.get(SingletonBean.class, "named");
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ServiceLocatorGetBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+}
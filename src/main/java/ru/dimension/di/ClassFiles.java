@@ -0,0 +1,86 @@
+package ru.dimension.di;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.FieldModel;
+import java.lang.classfile.MethodModel;
+import java.lang.reflect.AccessFlag;
+import java.util.Set;
+
+/**
+ * Class files of one class loader, for the build-time generators ({@link ComponentGenerator},
+ * {@link NativeImageMetadata}), plus the member rules they share with {@link ServiceLocator}.
+ *
+ * Notes:
+ * - Classes are read as resources from the context class loader with the Class-File API;
+ *   nothing is loaded or initialized.
+ * - Only headers, annotations and member signatures are read: debug elements and line numbers
+ *   are dropped.
+ */
+final class ClassFiles {
+
+  private static final String OBJECT = "java.lang.Object";
+
+  private static final ClassFile PARSER = ClassFile.of(
+      ClassFile.DebugElementsOption.DROP_DEBUG,
+      ClassFile.LineNumbersOption.DROP_LINE_NUMBERS);
+
+  private final ClassLoader loader;
+
+  private ClassFiles(ClassLoader loader) {
+    this.loader = loader;
+  }
+
+  static ClassFiles ofContextLoader() {
+    ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+    return new ClassFiles(tccl != null ? tccl : ClassFiles.class.getClassLoader());
+  }
+
+  /**
+   * Null when the loader has no class file of that name.
+   */
+  ClassModel read(String className) {
+    try (InputStream in = loader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+      return in == null ? null : PARSER.parse(in.readAllBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Dimension-DI: cannot read " + className, e);
+    }
+  }
+
+  /**
+   * Null for a direct subclass of java.lang.Object or a superclass the loader cannot see.
+   */
+  ClassModel superclass(ClassModel model) {
+    return model.superclass()
+        .map(sc -> sc.asInternalName().replace('/', '.'))
+        .filter(name -> !name.equals(OBJECT))
+        .map(this::read)
+        .orElse(null);
+  }
+
+  /**
+   * The constructor ServiceLocator picks: the inject-annotated one, else the no-arg one; null if neither.
+   */
+  static MethodModel constructor(ClassModel model, Set<String> injectAnnotations) {
+    MethodModel inject = null;
+    MethodModel noArg = null;
+    for (MethodModel m : model.methods()) {
+      if (!m.methodName().equalsString("<init>")) continue;
+      if (m.methodTypeSymbol().parameterCount() == 0) noArg = m;
+      if (ClassFileAnnotations.hasAnyAnnotation(m, injectAnnotations)) inject = m;
+    }
+    return inject != null ? inject : noArg;
+  }
+
+  // members ServiceLocator.injectMembers sets or calls after construction
+  static boolean isInjected(FieldModel f, Set<String> injectAnnotations) {
+    return !f.flags().has(AccessFlag.STATIC) && ClassFileAnnotations.hasAnyAnnotation(f, injectAnnotations);
+  }
+
+  static boolean isInjected(MethodModel m, Set<String> injectAnnotations) {
+    return !m.methodName().equalsString("<init>") && ClassFileAnnotations.hasAnyAnnotation(m, injectAnnotations);
+  }
+}
@@ -0,0 +1,149 @@
+package ru.dimension.di;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Include/exclude rules the scanner applies to class names during discovery, before any
+ * class bytes are read.
+ *
+ * Notes:
+ * - Package globs match the package name: '*' is one segment, '**' any number of segments,
+ *   and a trailing ".**" also matches the package itself ("com.acme.**" covers "com.acme").
+ * - Class patterns are regexes matched against the whole binary name ("a.b.Outer$Inner").
+ * - An empty include list includes everything; excludes always win.
+ * - Skipping anonymous classes is opt-in: the check matches any "$<digit>" in the binary
+ *   name, so it also drops local classes ("Outer$1Local"), which can be components.
+ * - Each rule list is compiled once into a single alternation pattern.
+ */
+final class ClassFilter {
+
+  static final ClassFilter DEFAULT = new ClassFilter(List.of(), List.of(), List.of(), List.of(), false);
+
+  private static final Pattern NUMBERED_INNER = Pattern.compile("\\$[0-9]");
+
+  private final List<String> includePackages;
+  private final List<String> excludePackages;
+  private final List<String> includeClasses;
+  private final List<String> excludeClasses;
+  private final boolean skipAnonymous;
+
+  private final Pattern includePackagePattern;
+  private final Pattern excludePackagePattern;
+  private final Pattern includeClassPattern;
+  private final Pattern excludeClassPattern;
+
+  private ClassFilter(List<String> includePackages, List<String> excludePackages,
+                      List<String> includeClasses, List<String> excludeClasses, boolean skipAnonymous) {
+    this.includePackages = List.copyOf(includePackages);
+    this.excludePackages = List.copyOf(excludePackages);
+    this.includeClasses = List.copyOf(includeClasses);
+    this.excludeClasses = List.copyOf(excludeClasses);
+    this.skipAnonymous = skipAnonymous;
+
+    this.includePackagePattern = compile(this.includePackages.stream().map(ClassFilter::globToRegex).toList());
+    this.excludePackagePattern = compile(this.excludePackages.stream().map(ClassFilter::globToRegex).toList());
+    this.includeClassPattern = compile(this.includeClasses);
+    this.excludeClassPattern = compile(this.excludeClasses);
+  }
+
+  ClassFilter withIncludePackages(Collection<String> globs) {
+    return new ClassFilter(append(includePackages, globs), excludePackages, includeClasses, excludeClasses,
+                           skipAnonymous);
+  }
+
+  ClassFilter withExcludePackages(Collection<String> globs) {
+    return new ClassFilter(includePackages, append(excludePackages, globs), includeClasses, excludeClasses,
+                           skipAnonymous);
+  }
+
+  ClassFilter withIncludeClasses(Collection<String> regexes) {
+    return new ClassFilter(includePackages, excludePackages, append(includeClasses, regexes), excludeClasses,
+                           skipAnonymous);
+  }
+
+  ClassFilter withExcludeClasses(Collection<String> regexes) {
+    return new ClassFilter(includePackages, excludePackages, includeClasses, append(excludeClasses, regexes),
+                           skipAnonymous);
+  }
+
+  ClassFilter withSkipAnonymous(boolean enabled) {
+    return new ClassFilter(includePackages, excludePackages, includeClasses, excludeClasses, enabled);
+  }
+
+  /**
+   * Package-level rules only; a rejected package rejects all of its classes.
+   */
+  boolean acceptsPackage(String packageName) {
+    if (includePackagePattern != null && !includePackagePattern.matcher(packageName).matches()) return false;
+    return excludePackagePattern == null || !excludePackagePattern.matcher(packageName).matches();
+  }
+
+  /**
+   * Class-level rules only, for a class whose package was already accepted.
+   */
+  boolean acceptsClassInPackage(String className) {
+    if (skipAnonymous && NUMBERED_INNER.matcher(className).find()) return false;
+    if (includeClassPattern != null && !includeClassPattern.matcher(className).matches()) return false;
+    return excludeClassPattern == null || !excludeClassPattern.matcher(className).matches();
+  }
+
+  boolean acceptsClass(String className) {
+    int dot = className.lastIndexOf('.');
+    return acceptsPackage(dot < 0 ? "" : className.substring(0, dot)) && acceptsClassInPackage(className);
+  }
+
+  /**
+   * Stable description of the rules, for cache keys.
+   */
+  String key() {
+    return String.join(";",
+        String.join(",", includePackages),
+        String.join(",", excludePackages),
+        String.join(",", includeClasses),
+        String.join(",", excludeClasses),
+        Boolean.toString(skipAnonymous));
+  }
+
+  private static List<String> append(List<String> current, Collection<String> more) {
+    List<String> out = new ArrayList<>(current);
+    for (String s : more) {
+      if (s == null || s.isBlank()) continue;
+      out.add(s.trim());
+    }
+    return out;
+  }
+
+  private static Pattern compile(List<String> regexes) {
+    if (regexes.isEmpty()) return null;
+    StringJoiner alternation = new StringJoiner("|");
+    for (String r : regexes) alternation.add("(?:" + r + ")");
+    return Pattern.compile(alternation.toString());
+  }
+
+  static String globToRegex(String glob) {
+    String g = glob;
+    String suffix = "";
+    if (g.endsWith(".**")) {
+      g = g.substring(0, g.length() - 3);
+      suffix = "(?:\\..*)?";
+    }
+
+    StringBuilder regex = new StringBuilder();
+    for (int i = 0; i < g.length(); i++) {
+      char c = g.charAt(i);
+      if (c == '*') {
+        if (i + 1 < g.length() && g.charAt(i + 1) == '*') {
+          regex.append(".*");
+          i++;
+        } else {
+          regex.append("[^.]*");
+        }
+      } else {
+        if ("\\.[]{}()<>+-=!?^$|".indexOf(c) >= 0) regex.append('\\');
+        regex.append(c);
+      }
+    }
+    return regex.append(suffix).toString();
+  }
+}
@@ -0,0 +1,596 @@
+package ru.dimension.di;
+
+import java.lang.classfile.Annotation;
+import java.lang.classfile.Attributes;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.FieldModel;
+import java.lang.classfile.MethodModel;
+import java.lang.classfile.Signature;
+import java.lang.classfile.attribute.InnerClassInfo;
+import java.lang.constant.ClassDesc;
+import java.lang.reflect.AccessFlag;
+import java.util.*;
+import javax.lang.model.SourceVersion;
+import ru.dimension.di.DependencyScanner.Dependency;
+import ru.dimension.di.DependencyScanner.ScanResult;
+import ru.dimension.di.ServiceLocator.TypeNameKey;
+
+/**
+ * Build-time generator of a whole-graph component: one Java class in which every scanned component
+ * and every module binding is a method, and dependencies are plain Java calls. An application
+ * started from the component does no scanning, no registry lookups and no reflection.
+ *
+ * For the constructor {@code Car(Engine engine, List<Engine> engines)} with a singleton {@code V8Engine}:
+ * <pre>
+ *   public final class AppComponent {
+ *     private volatile V8Engine v8Engine;
+ *
+ *     public V8Engine v8Engine() {
+ *       ... double-checked: instance = new V8Engine(); ...
+ *     }
+ *
+ *     public Car car() {
+ *       return new Car(v8Engine(), (java.util.List) java.util.List.&lt;Object&gt;of(v8Engine()));
+ *     }
+ *   }
+ * </pre>
+ *
+ * The module class stands in for the builder's manual bindings: each public static method returning
+ * a value binds its return type, {@code @Named} on the method names the binding, {@code @Singleton}
+ * caches it, and its parameters are resolved like constructor parameters. Module bindings replace
+ * scanned ones with the same key, as manual providers do.
+ *
+ * Notes:
+ * - The graph is built from the class files ({@link ClassFiles}) without the component index, so
+ *   classes without {@code di-processor} entries are generated the same way.
+ * - Binding keys follow {@link DimensionDI.Builder} with its defaults (supertype bindings, unique named
+ *   bindings aliased as unnamed, named -> unnamed fallback); {@code List/Set/Collection<T>} and
+ *   {@code Map<String, T>} take every binding of T.
+ * - Only constructor injection is generated: components with {@code @Inject} fields or methods,
+ *   constructors the component cannot call (private, inner classes, other packages without public
+ *   access) and components depended on despite {@link Assisted} parameters are reported.
+ * - All problems, including missing bindings and cycles, are reported together; nothing is written then.
+ */
+public final class ComponentGenerator {
+
+  private static final Set<String> LISTS = Set.of("java.util.List", "java.util.Collection");
+  private static final String SET = "java.util.Set";
+  private static final String MAP = "java.util.Map";
+  private static final String OBJECT = "java.lang.Object";
+  private static final String SINGLETON = "Ljakarta/inject/Singleton;";
+
+  // no-arg methods of Object a component method must not hide
+  private static final Set<String> RESERVED = Set.of(
+      "getClass", "hashCode", "toString", "clone", "finalize", "notify", "notifyAll", "wait");
+
+  private final String componentClass;
+  private final String packageName;
+  private final ClassFiles classFiles;
+  private final DependencyScanner.Config config;
+
+  private final List<Binding> ordered = new ArrayList<>();
+  private final Map<TypeNameKey, Binding> bindings = new LinkedHashMap<>();
+  private final Set<String> assistedComponents = new HashSet<>();
+  private final Set<String> methodNames = new HashSet<>();
+  private final List<String> problems = new ArrayList<>();
+
+  /**
+   * One component method: a scanned constructor or a module method.
+   */
+  private static final class Binding {
+    final String type;        // binary name of what the method returns
+    final String owner;       // class whose constructor or static method is called
+    final String member;      // module method name; null for a constructor
+    final boolean singleton;
+    final List<Dependency> deps;
+    final boolean throwsChecked;
+    final List<String> arguments = new ArrayList<>();
+    final Set<Binding> edges = new LinkedHashSet<>();
+    String method;
+
+    Binding(String type, String owner, String member, boolean singleton, List<Dependency> deps,
+            boolean throwsChecked) {
+      this.type = type;
+      this.owner = owner;
+      this.member = member;
+      this.singleton = singleton;
+      this.deps = deps;
+      this.throwsChecked = throwsChecked;
+    }
+
+    String label() {
+      return member == null ? owner : owner + "." + member + "()";
+    }
+  }
+
+  private ComponentGenerator(String componentClass) {
+    this.componentClass = componentClass;
+    int dot = componentClass.lastIndexOf('.');
+    this.packageName = dot < 0 ? "" : componentClass.substring(0, dot);
+    this.classFiles = ClassFiles.ofContextLoader();
+    // the component needs every constructor, so index entries (dependencies unknown) are not used
+    this.config = DependencyScanner.Config.defaultsJakartaInject().withUseComponentIndex(false);
+  }
+
+  /**
+   * Java source of the component class.
+   *
+   * @param componentClass binary name of the class to generate, e.g. "com.acme.AppComponent"
+   * @param moduleClass    binary name of the module class, or null
+   * @param packages       packages to scan, as for {@link DimensionDI.Builder#scanPackages(String...)}
+   * @throws IllegalStateException listing every problem found in the graph
+   */
+  public static String generate(String componentClass, String moduleClass, String... packages) {
+    Objects.requireNonNull(componentClass, "componentClass");
+    ComponentGenerator generator = new ComponentGenerator(componentClass);
+    return generator.run(moduleClass, packages);
+  }
+
+  private String run(String moduleClass, String[] packages) {
+    Map<TypeNameKey, Binding> moduleBindings = moduleClass == null ? Map.of() : readModule(moduleClass);
+
+    List<ScanResult> scanResults = packages.length == 0
+        ? List.of()
+        : DependencyScanner.scan(config, packages);
+
+    Map<String, Binding> components = new HashMap<>();
+    DimensionDI.scannedBindings(scanResults, moduleBindings.keySet()).forEach((key, result) -> {
+      if (result.dependencies() != null && result.dependencies().stream().anyMatch(Dependency::assisted)) {
+        // created by factories only; reported when something depends on it
+        assistedComponents.add(result.className());
+        return;
+      }
+      // null values remember components already reported
+      if (!components.containsKey(result.className())) components.put(result.className(), component(result));
+      Binding binding = components.get(result.className());
+      if (binding != null) bindings.put(key, binding);
+    });
+    bindings.putAll(moduleBindings);
+    aliasUniqueNamed();
+
+    for (Binding b : ordered) link(b);
+    findCycles();
+
+    if (!problems.isEmpty()) {
+      StringBuilder message = new StringBuilder("Dimension-DI: Cannot generate ")
+          .append(componentClass).append(", ").append(problems.size()).append(" problem(s):");
+      for (String p : problems) message.append("\n - ").append(p);
+      throw new IllegalStateException(message.toString());
+    }
+    return source();
+  }
+
+  // =========================================================================
+  // Bindings
+  // =========================================================================
+
+  private Map<TypeNameKey, Binding> readModule(String moduleClass) {
+    ClassModel model = classFiles.read(moduleClass);
+    if (model == null) {
+      problems.add("Module class " + moduleClass + " not found");
+      return Map.of();
+    }
+    if (!accessible(moduleClass, classFlags(model))) {
+      problems.add("Module class " + moduleClass + " is not accessible from " + componentClass);
+    }
+
+    Map<TypeNameKey, Binding> out = new LinkedHashMap<>();
+    for (MethodModel m : model.methods()) {
+      if (!m.flags().has(AccessFlag.STATIC) || !m.flags().has(AccessFlag.PUBLIC)
+          || m.flags().has(AccessFlag.SYNTHETIC) || m.flags().has(AccessFlag.BRIDGE)) {
+        continue;
+      }
+      ClassDesc returnType = m.methodTypeSymbol().returnType();
+      if (returnType.descriptorString().equals("V")) continue;
+
+      String name = m.methodName().stringValue();
+      String named = null;
+      boolean singleton = false;
+      for (Annotation a : m.findAttribute(Attributes.runtimeVisibleAnnotations())
+          .map(attr -> attr.annotations()).orElse(List.of())) {
+        String descriptor = a.className().stringValue();
+        if (descriptor.equals(DependencyScanner.NAMED)) named = DependencyScanner.annotationValue(a);
+        if (descriptor.equals(SINGLETON) || config.singletonClassAnnotations().contains(descriptor)) {
+          singleton = true;
+        }
+      }
+
+      TypeNameKey key = new TypeNameKey(DependencyScanner.binaryName(returnType), named);
+      Binding binding = new Binding(key.typeName(), moduleClass, name, singleton,
+                                    DependencyScanner.constructorDependencies(m), throwsChecked(m));
+      if (out.putIfAbsent(key, binding) != null) {
+        problems.add("Duplicate module binding for " + describe(key) + ": " + binding.label());
+        continue;
+      }
+      add(binding, name);
+    }
+    return out;
+  }
+
+  /**
+   * Binding of a scanned component, or null after reporting why the component cannot call it.
+   */
+  private Binding component(ScanResult result) {
+    String className = result.className();
+    if (result.dependencies() == null) {
+      problems.add(className + ": no single @Inject or no-arg constructor");
+      return null;
+    }
+
+    ClassModel model = classFiles.read(className);
+    if (model == null) {
+      problems.add(className + ": class file not found");
+      return null;
+    }
+
+    Optional<InnerClassInfo> nested = innerClassInfo(model);
+    if (nested.isPresent() && nested.get().outerClass().isEmpty()) {
+      problems.add(className + ": local and anonymous classes cannot be created by the component");
+      return null;
+    }
+    if (nested.isPresent() && !nested.get().flags().contains(AccessFlag.STATIC)) {
+      problems.add(className + ": inner (non-static) classes cannot be created by the component");
+      return null;
+    }
+    if (!accessible(className, classFlags(model))) {
+      problems.add(className + " is not accessible from " + componentClass);
+      return null;
+    }
+
+    MethodModel ctor = ClassFiles.constructor(model, config.injectConstructorAnnotations());
+    if (ctor == null || !accessible(className, ctor.flags().flags())) {
+      problems.add(className + ": constructor is not accessible from " + componentClass);
+      return null;
+    }
+    if (hasInjectedMembers(model)) {
+      problems.add(className + ": @Inject fields and methods are not supported in generated components");
+      return null;
+    }
+
+    Binding binding = new Binding(className, className, null, result.isSingleton(),
+                                  result.dependencies(), throwsChecked(ctor));
+    add(binding, decapitalize(simpleName(className)));
+    return binding;
+  }
+
+  private void add(Binding binding, String preferredName) {
+    String name = SourceVersion.isKeyword(preferredName) || RESERVED.contains(preferredName)
+        ? preferredName + "Instance"
+        : preferredName;
+    String unique = name;
+    for (int i = 2; !methodNames.add(unique); i++) unique = name + i;
+    binding.method = unique;
+    ordered.add(binding);
+  }
+
+  // same as Builder.autoAliasUniqueNamed(true)
+  private void aliasUniqueNamed() {
+    Map<String, List<TypeNameKey>> namedByType = new LinkedHashMap<>();
+    Set<String> typesWithUnnamed = new HashSet<>();
+    for (TypeNameKey key : bindings.keySet()) {
+      if (key.isNamed()) namedByType.computeIfAbsent(key.typeName(), t -> new ArrayList<>()).add(key);
+      else typesWithUnnamed.add(key.typeName());
+    }
+    namedByType.forEach((type, keys) -> {
+      if (keys.size() == 1 && !typesWithUnnamed.contains(type)) {
+        bindings.put(new TypeNameKey(type, null), bindings.get(keys.get(0)));
+      }
+    });
+  }
+
+  // =========================================================================
+  // Arguments
+  // =========================================================================
+
+  private void link(Binding binding) {
+    for (int i = 0; i < binding.deps.size(); i++) {
+      Dependency dep = binding.deps.get(i);
+      String where = binding.label() + " (parameter " + i + ")";
+      if (dep.assisted()) {
+        problems.add(where + ": @Assisted parameters are not supported in generated components");
+        continue;
+      }
+
+      String argument;
+      if (LISTS.contains(dep.type()) || dep.type().equals(SET)) {
+        String elem = typeArgument(dep, 0, where);
+        if (elem == null) continue;
+        List<Binding> elements = dep.named() != null
+            ? single(new TypeNameKey(elem, dep.named()), where)
+            : allOf(elem);
+        if (elements == null) continue;
+        String list = "java.util.List.<Object>of(" + calls(binding, elements) + ")";
+        argument = dep.type().equals(SET)
+            ? "(java.util.Set) java.util.Set.copyOf(" + list + ")"
+            : "(java.util.List) " + list;
+      } else if (dep.type().equals(MAP)) {
+        String key = typeArgument(dep, 0, where);
+        String value = key == null ? null : typeArgument(dep, 1, where);
+        if (value == null) continue;
+        if (!key.equals("java.lang.String")) {
+          problems.add(where + ": Map injection only supports Map<String, T>, got Map<" + key + ", ...>");
+          continue;
+        }
+        argument = dep.named() != null ? namedMap(binding, new TypeNameKey(value, dep.named()), where)
+                                       : namedMap(binding, value);
+        if (argument == null) continue;
+      } else {
+        List<Binding> target = single(new TypeNameKey(dep.type(), dep.named()), where);
+        if (target == null) continue;
+        argument = calls(binding, target);
+      }
+      binding.arguments.add(argument);
+    }
+  }
+
+  private List<Binding> single(TypeNameKey key, String where) {
+    Binding target = bindings.get(key);
+    if (target == null && key.isNamed()) {
+      // ServiceLocator's named -> unnamed fallback
+      target = bindings.get(new TypeNameKey(key.typeName(), null));
+    }
+    if (target != null) return List.of(target);
+
+    if (assistedComponents.contains(key.typeName())) {
+      problems.add(where + ": " + key.typeName() + " has @Assisted parameters and is created by a factory");
+    } else {
+      problems.add("No binding for " + describe(key) + " required by " + where);
+    }
+    return null;
+  }
+
+  private List<Binding> allOf(String type) {
+    LinkedHashSet<Binding> out = new LinkedHashSet<>();
+    bindings.forEach((key, b) -> {
+      if (key.typeName().equals(type)) out.add(b);
+    });
+    return List.copyOf(out);
+  }
+
+  private String namedMap(Binding owner, TypeNameKey key, String where) {
+    List<Binding> target = single(key, where);
+    if (target == null) return null;
+    return "(java.util.Map) java.util.Map.<String, Object>of(" + quote(key.name()) + ", "
+        + calls(owner, target) + ")";
+  }
+
+  // every named binding of the type, sorted by name like ServiceLocator.getNamedMap
+  private String namedMap(Binding owner, String type) {
+    TreeMap<String, Binding> named = new TreeMap<>();
+    bindings.forEach((key, b) -> {
+      if (key.typeName().equals(type) && key.isNamed()) named.put(key.name(), b);
+    });
+    StringJoiner entries = new StringJoiner(", ");
+    named.forEach((name, b) -> {
+      owner.edges.add(b);
+      entries.add("java.util.Map.entry(" + quote(name) + ", " + b.method + "())");
+    });
+    return "(java.util.Map) java.util.Collections.unmodifiableSortedMap(new java.util.TreeMap<String, Object>("
+        + "java.util.Map.<String, Object>ofEntries(" + entries + ")))";
+  }
+
+  private static String calls(Binding owner, List<Binding> targets) {
+    StringJoiner out = new StringJoiner(", ");
+    for (Binding t : targets) {
+      owner.edges.add(t);
+      out.add(t.method + "()");
+    }
+    return out.toString();
+  }
+
+  /**
+   * Erased type argument of a generic parameter, as ServiceLocator resolves it; null after
+   * reporting a problem when there is none.
+   */
+  private String typeArgument(Dependency dep, int index, String where) {
+    String simple = simpleName(dep.type());
+    if (dep.signature() == null
+        || !(Signature.parseFrom(dep.signature()) instanceof Signature.ClassTypeSig type)
+        || type.typeArgs().size() <= index) {
+      problems.add(where + ": " + simple + " injection requires a parameterized type");
+      return null;
+    }
+
+    Signature.TypeArg arg = type.typeArgs().get(index);
+    if (!(arg instanceof Signature.TypeArg.Bounded bounded)
+        || bounded.wildcardIndicator() == Signature.TypeArg.Bounded.WildcardIndicator.SUPER) {
+      return OBJECT;
+    }
+    if (bounded.boundType() instanceof Signature.ClassTypeSig c) {
+      return DependencyScanner.binaryName(c.classDesc());
+    }
+    problems.add(where + ": unsupported generic type for generated components: " + dep.signature());
+    return null;
+  }
+
+  // =========================================================================
+  // Cycles
+  // =========================================================================
+
+  private void findCycles() {
+    Map<Binding, Integer> state = new HashMap<>(); // absent = new, 1 = on path, 2 = done
+    ArrayDeque<Binding> path = new ArrayDeque<>();
+    for (Binding b : ordered) {
+      if (!state.containsKey(b)) visit(b, state, path);
+    }
+  }
+
+  private void visit(Binding binding, Map<Binding, Integer> state, ArrayDeque<Binding> path) {
+    state.put(binding, 1);
+    path.addLast(binding);
+    for (Binding next : binding.edges) {
+      Integer s = state.get(next);
+      if (s == null) {
+        visit(next, state, path);
+      } else if (s == 1) {
+        StringJoiner cycle = new StringJoiner(" -> ");
+        boolean inCycle = false;
+        for (Binding b : path) {
+          if (b == next) inCycle = true;
+          if (inCycle) cycle.add(b.label());
+        }
+        cycle.add(next.label());
+        problems.add("Circular dependency: " + cycle);
+      }
+    }
+    path.removeLast();
+    state.put(binding, 2);
+  }
+
+  // =========================================================================
+  // Source
+  // =========================================================================
+
+  private String source() {
+    String simpleName = componentClass.substring(componentClass.lastIndexOf('.') + 1);
+    StringBuilder src = new StringBuilder();
+    if (!packageName.isEmpty()) src.append("package ").append(packageName).append(";\n\n");
+    src.append("// Generated by ").append(ComponentGenerator.class.getName()).append(". Do not edit.\n")
+        .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+        .append("public final class ").append(simpleName).append(" {\n");
+
+    for (Binding b : ordered) {
+      if (b.singleton) {
+        src.append("\n  private volatile ").append(sourceName(boxed(b.type))).append(' ')
+            .append(b.method).append(";\n");
+      }
+    }
+
+    for (Binding b : ordered) {
+      String type = sourceName(b.type);
+      src.append("\n  public ").append(type).append(' ').append(b.method).append("() {\n");
+      if (b.singleton) {
+        String boxed = sourceName(boxed(b.type));
+        src.append("    ").append(boxed).append(" instance = ").append(b.method).append(";\n")
+            .append("    if (instance == null) {\n")
+            .append("      synchronized (this) {\n")
+            .append("        instance = ").append(b.method).append(";\n")
+            .append("        if (instance == null) {\n");
+        construction(src, b, "          ", "instance = ");
+        src.append("          ").append(b.method).append(" = instance;\n")
+            .append("        }\n")
+            .append("      }\n")
+            .append("    }\n")
+            .append("    return instance;\n");
+      } else {
+        construction(src, b, "    ", "return ");
+      }
+      src.append("  }\n");
+    }
+    return src.append("}\n").toString();
+  }
+
+  private static void construction(StringBuilder src, Binding b, String indent, String target) {
+    String owner = sourceName(b.owner);
+    String call = b.member == null ? "new " + owner + "(" : owner + "." + b.member + "(";
+    StringBuilder expression = new StringBuilder(call);
+    String argIndent = indent + (b.throwsChecked ? "      " : "    ");
+    for (int i = 0; i < b.arguments.size(); i++) {
+      expression.append(i == 0 ? "\n" : ",\n").append(argIndent).append(b.arguments.get(i));
+    }
+    expression.append(")");
+
+    if (!b.throwsChecked) {
+      src.append(indent).append(target).append(expression).append(";\n");
+      return;
+    }
+    src.append(indent).append("try {\n")
+        .append(indent).append("  ").append(target).append(expression).append(";\n")
+        .append(indent).append("} catch (RuntimeException | Error e) {\n")
+        .append(indent).append("  throw e;\n")
+        .append(indent).append("} catch (Throwable e) {\n")
+        .append(indent).append("  throw new RuntimeException(\"Failed to instantiate ")
+        .append(b.label()).append("\", e);\n")
+        .append(indent).append("}\n");
+  }
+
+  // =========================================================================
+  // Class files
+  // =========================================================================
+
+  private static Optional<InnerClassInfo> innerClassInfo(ClassModel model) {
+    String self = model.thisClass().asInternalName();
+    return model.findAttribute(Attributes.innerClasses()).stream()
+        .flatMap(a -> a.classes().stream())
+        .filter(info -> info.innerClass().asInternalName().equals(self))
+        .findFirst();
+  }
+
+  // nested classes keep their declared access in InnerClasses only
+  private static Set<AccessFlag> classFlags(ClassModel model) {
+    return innerClassInfo(model).map(InnerClassInfo::flags).orElse(model.flags().flags());
+  }
+
+  private boolean accessible(String className, Set<AccessFlag> flags) {
+    if (flags.contains(AccessFlag.PUBLIC)) return true;
+    int dot = className.lastIndexOf('.');
+    String pkg = dot < 0 ? "" : className.substring(0, dot);
+    return !flags.contains(AccessFlag.PRIVATE) && pkg.equals(packageName);
+  }
+
+  private boolean hasInjectedMembers(ClassModel model) {
+    for (ClassModel c = model; c != null; c = classFiles.superclass(c)) {
+      for (FieldModel f : c.fields()) {
+        if (ClassFiles.isInjected(f, config.injectConstructorAnnotations())) return true;
+      }
+      for (MethodModel m : c.methods()) {
+        if (ClassFiles.isInjected(m, config.injectConstructorAnnotations())) return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean throwsChecked(MethodModel m) {
+    return m.findAttribute(Attributes.exceptions()).map(e -> !e.exceptions().isEmpty()).orElse(false);
+  }
+
+  // =========================================================================
+  // Names
+  // =========================================================================
+
+  /**
+   * Java source form of a binary name: "a.b.Outer$Inner" -> "a.b.Outer.Inner", "[I" -> "int[]".
+   */
+  static String sourceName(String binaryName) {
+    int dims = 0;
+    while (binaryName.charAt(dims) == '[') dims++;
+    String element = binaryName.substring(dims);
+    if (dims > 0) {
+      element = element.charAt(0) == 'L'
+          ? element.substring(1, element.length() - 1)
+          : ClassDesc.ofDescriptor(element).displayName();
+    }
+    return element.replace('$', '.') + "[]".repeat(dims);
+  }
+
+  private static String boxed(String type) {
+    return switch (type) {
+      case "boolean" -> "java.lang.Boolean";
+      case "byte" -> "java.lang.Byte";
+      case "char" -> "java.lang.Character";
+      case "short" -> "java.lang.Short";
+      case "int" -> "java.lang.Integer";
+      case "long" -> "java.lang.Long";
+      case "float" -> "java.lang.Float";
+      case "double" -> "java.lang.Double";
+      default -> type;
+    };
+  }
+
+  private static String simpleName(String className) {
+    String name = className.substring(className.lastIndexOf('.') + 1);
+    return name.substring(name.lastIndexOf('$') + 1);
+  }
+
+  private static String decapitalize(String name) {
+    return name.isEmpty() ? name : Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static String describe(TypeNameKey key) {
+    return key.isNamed() ? key.typeName() + " named '" + key.name() + "'" : key.typeName();
+  }
+
+  private static String quote(String s) {
+    return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+}
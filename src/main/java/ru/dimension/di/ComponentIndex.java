@@ -0,0 +1,154 @@
+package ru.dimension.di;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reader for the build-time component index written by the
+ * {@code ru.dimension.di.processor.ComponentIndexProcessor} annotation processor.
+ *
+ * Notes:
+ * - One index per classpath root: {@code <root>/META-INF/dimension-di/components.idx}.
+ * - Entries hold raw facts (annotations, public no-arg ctor, supertypes); the scanner config
+ *   is applied here, exactly like {@link DependencyScanner} does on parsed class files.
+ * - v2 indexes list the full supertype closure; v1 indexes list direct interfaces only and
+ *   the scanner completes them from class files ({@link #completeSupertypes()}).
+ * - An index with an unknown header is ignored, so the root falls back to scanning.
+ */
+final class ComponentIndex {
+
+  static final String RESOURCE = "META-INF/dimension-di/components.idx";
+  private static final String HEADER = "# dimension-di component index v2";
+  private static final String HEADER_V1 = "# dimension-di component index v1";
+
+  private final List<Entry> entries;
+  private final boolean completeSupertypes;
+
+  private ComponentIndex(List<Entry> entries, boolean completeSupertypes) {
+    this.entries = entries;
+    this.completeSupertypes = completeSupertypes;
+  }
+
+  /**
+   * A single indexed class. Annotation names are descriptors ("Ljakarta/inject/Inject;").
+   */
+  record Entry(
+      String className,
+      boolean publicNoArgConstructor,
+      Set<String> classAnnotations,
+      Set<String> constructorAnnotations,
+      Set<String> supertypes
+  ) {
+    /**
+     * Same acceptance rules as the class-file scanner; returns null if the class is not a component.
+     */
+    DependencyScanner.ScanResult toScanResult(DependencyScanner.Config config) {
+      Set<String> matchedInject = intersect(constructorAnnotations, config.injectConstructorAnnotations());
+      boolean injectable = !matchedInject.isEmpty()
+          || (config.allowPublicNoArgConstructor() && publicNoArgConstructor);
+      if (!injectable) return null;
+
+      Set<String> matchedSingleton = intersect(classAnnotations, config.singletonClassAnnotations());
+      return new DependencyScanner.ScanResult(
+          className,
+          !matchedSingleton.isEmpty(),
+          supertypes,
+          matchedInject,
+          matchedSingleton
+      );
+    }
+  }
+
+  List<Entry> entries() {
+    return entries;
+  }
+
+  /**
+   * False for v1 indexes, whose entries list direct interfaces instead of all supertypes.
+   */
+  boolean completeSupertypes() {
+    return completeSupertypes;
+  }
+
+  /**
+   * Classpath root (as URL string, ending with '/') -> index URL, for every index visible to the loader.
+   */
+  static Map<String, URL> findIndexes(ClassLoader cl) throws IOException {
+    Map<String, URL> out = new LinkedHashMap<>();
+    Enumeration<URL> urls = cl.getResources(RESOURCE);
+    while (urls.hasMoreElements()) {
+      URL url = urls.nextElement();
+      String root = rootOf(url, RESOURCE);
+      if (root != null) out.putIfAbsent(root, url);
+    }
+    return out;
+  }
+
+  /**
+   * Strips the resource path from a resource URL:
+   * "jar:file:/a.jar!/ru/x" -> "jar:file:/a.jar!/", "file:/classes/ru/x/" -> "file:/classes/".
+   */
+  static String rootOf(URL resource, String resourcePath) {
+    String url = stripTrailingSlash(resource.toExternalForm());
+    String path = stripTrailingSlash(resourcePath);
+    if (!url.endsWith("/" + path)) return null;
+    return url.substring(0, url.length() - path.length());
+  }
+
+  private static String stripTrailingSlash(String s) {
+    return s.endsWith("/") ? s.substring(0, s.length() - 1) : s;
+  }
+
+  /**
+   * Returns null if the index format is not recognized.
+   */
+  static ComponentIndex read(URL url) throws IOException {
+    URLConnection conn = url.openConnection();
+    conn.setUseCaches(false);
+
+    try (InputStream is = conn.getInputStream();
+         BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+      String header = reader.readLine();
+      if (!HEADER.equals(header) && !HEADER_V1.equals(header)) return null;
+
+      List<Entry> entries = new ArrayList<>();
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank() || line.startsWith("#")) continue;
+
+        String[] cols = line.split("\t", -1);
+        if (cols.length < 5) {
+          throw new IOException("Malformed component index line in " + url + ": " + line);
+        }
+
+        entries.add(new Entry(
+            cols[0],
+            "1".equals(cols[1]),
+            ClassFileAnnotations.normalizeAllToDescriptors(splitList(cols[2])),
+            ClassFileAnnotations.normalizeAllToDescriptors(splitList(cols[3])),
+            Collections.unmodifiableSet(new LinkedHashSet<>(splitList(cols[4])))
+        ));
+      }
+      return new ComponentIndex(List.copyOf(entries), HEADER.equals(header));
+    }
+  }
+
+  private static List<String> splitList(String col) {
+    return col.isEmpty() ? List.of() : List.of(col.split(","));
+  }
+
+  private static Set<String> intersect(Set<String> present, Set<String> wanted) {
+    if (present.isEmpty() || wanted.isEmpty()) return Set.of();
+    LinkedHashSet<String> out = new LinkedHashSet<>();
+    for (String s : present) {
+      if (wanted.contains(s)) out.add(s);
+    }
+    return Collections.unmodifiableSet(out);
+  }
+}
@@ -0,0 +1,146 @@
+package ru.dimension.di;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Cheap pre-check on raw class file bytes, run before the full Class-File API parse.
+ *
+ * Reads only the constant pool, the access flags and the method table headers:
+ * - annotation types are stored as Utf8 descriptors ("Ljakarta/inject/Inject;"),
+ *   so a class without any configured inject descriptor cannot have an annotated constructor;
+ * - a public no-arg constructor is a method named "<init>" with descriptor "()V".
+ *
+ * The check may accept classes that the scanner then rejects (a descriptor used for something
+ * else), but it never rejects a component. Malformed input is accepted, so the real parser
+ * reports it exactly as before, and so is a pool with several "<init>" or "()V" entries
+ * (legal, written by some bytecode tools), where the method table cannot be matched by index.
+ */
+final class ConstantPoolFilter {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_INTERFACE = 0x0200;
+  private static final int ACC_ABSTRACT = 0x0400;
+  private static final int ACC_ANNOTATION = 0x2000;
+
+  private static final byte[] INIT = "<init>".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] NO_ARG_VOID = "()V".getBytes(StandardCharsets.UTF_8);
+
+  private final byte[][] injectDescriptors;
+  private final boolean allowPublicNoArgConstructor;
+
+  ConstantPoolFilter(DependencyScanner.Config config) {
+    Set<String> descriptors = config.injectConstructorAnnotations();
+    this.injectDescriptors = new byte[descriptors.size()][];
+    int i = 0;
+    for (String d : descriptors) {
+      // descriptors are ASCII in practice; modified UTF-8 equals UTF-8 there
+      injectDescriptors[i++] = d.getBytes(StandardCharsets.UTF_8);
+    }
+    this.allowPublicNoArgConstructor = config.allowPublicNoArgConstructor();
+  }
+
+  /**
+   * False only if the class certainly is not an injectable component.
+   */
+  boolean mayBeComponent(byte[] b) {
+    try {
+      return check(b);
+    } catch (ArrayIndexOutOfBoundsException e) {
+      return true;
+    }
+  }
+
+  private boolean check(byte[] b) {
+    if (u4(b, 0) != MAGIC) return true;
+
+    int count = u2(b, 8);
+    int initIndex = 0;
+    int noArgIndex = 0;
+    boolean duplicateUtf8 = false;
+    boolean injectReferenced = false;
+
+    int p = 10;
+    for (int i = 1; i < count; i++) {
+      int tag = b[p] & 0xFF;
+      switch (tag) {
+        case 1 -> { // Utf8
+          int len = u2(b, p + 1);
+          int start = p + 3;
+          if (!injectReferenced && matchesAny(b, start, len, injectDescriptors)) injectReferenced = true;
+          if (matches(b, start, len, INIT)) {
+            if (initIndex != 0) duplicateUtf8 = true;
+            initIndex = i;
+          }
+          if (matches(b, start, len, NO_ARG_VOID)) {
+            if (noArgIndex != 0) duplicateUtf8 = true;
+            noArgIndex = i;
+          }
+          p = start + len;
+        }
+        case 3, 4 -> p += 5;          // Integer, Float
+        case 5, 6 -> { p += 9; i++; } // Long, Double take two slots
+        case 7, 8, 16, 19, 20 -> p += 3; // Class, String, MethodType, Module, Package
+        case 9, 10, 11, 12, 17, 18 -> p += 5; // refs, NameAndType, Dynamic, InvokeDynamic
+        case 15 -> p += 4;            // MethodHandle
+        default -> { return true; }   // unknown tag: let the real parser decide
+      }
+    }
+
+    int access = u2(b, p);
+    if ((access & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION)) != 0) return false;
+    if (injectReferenced) return true;
+    if (!allowPublicNoArgConstructor || initIndex == 0 || noArgIndex == 0) return false;
+    if (duplicateUtf8) return true;
+
+    // this_class, super_class, interfaces
+    p += 6;
+    p += 2 + 2 * u2(b, p);
+
+    // fields
+    int fields = u2(b, p);
+    p += 2;
+    for (int i = 0; i < fields; i++) p = skipMember(b, p);
+
+    // methods: only the headers are needed
+    int methods = u2(b, p);
+    p += 2;
+    for (int i = 0; i < methods; i++) {
+      int flags = u2(b, p);
+      if ((flags & ACC_PUBLIC) != 0 && u2(b, p + 2) == initIndex && u2(b, p + 4) == noArgIndex) return true;
+      p = skipMember(b, p);
+    }
+    return false;
+  }
+
+  private static int skipMember(byte[] b, int p) {
+    int attributes = u2(b, p + 6);
+    p += 8;
+    for (int i = 0; i < attributes; i++) {
+      p += 6 + u4(b, p + 2);
+    }
+    return p;
+  }
+
+  private static boolean matchesAny(byte[] b, int start, int len, byte[][] candidates) {
+    for (byte[] c : candidates) {
+      if (matches(b, start, len, c)) return true;
+    }
+    return false;
+  }
+
+  private static boolean matches(byte[] b, int start, int len, byte[] expected) {
+    return len == expected.length && Arrays.equals(b, start, start + len, expected, 0, len);
+  }
+
+  private static int u2(byte[] b, int p) {
+    return ((b[p] & 0xFF) << 8) | (b[p + 1] & 0xFF);
+  }
+
+  private static int u4(byte[] b, int p) {
+    return ((b[p] & 0xFF) << 24) | ((b[p + 1] & 0xFF) << 16) | ((b[p + 2] & 0xFF) << 8) | (b[p + 3] & 0xFF);
+  }
+}
@@ -0,0 +1,21 @@
+package ru.dimension.di;
+
+/**
+ * Creates instances of one component by calling its {@code @Inject} constructor directly.
+ *
+ * Notes:
+ * - Implementations are generated at compile time by the {@code di-processor} annotation processor:
+ *   {@code a.b.Outer$Inner} gets {@code a.b.Outer$Inner$DimensionFactory} with a public static
+ *   {@code INSTANCE} field, and is listed in {@code META-INF/dimension-di/factories.idx}.
+ * - {@link ServiceLocator#createConstructorProvider(Class, boolean)} uses the generated factory of
+ *   a listed class and falls back to the constructor's MethodHandle otherwise.
+ * - Dependencies are resolved through the regular {@link ServiceLocator} lookups, so fallbacks,
+ *   multibindings and cycle detection behave exactly as on the reflective path.
+ */
+public interface ConstructorFactory<T> {
+
+  /**
+   * Resolves the constructor arguments, creates the instance and injects its members.
+   */
+  T create();
+}
@@ -0,0 +1,237 @@
+package ru.dimension.di;
+
+import java.lang.classfile.Signature;
+import java.lang.constant.ClassDesc;
+import java.util.*;
+import ru.dimension.di.DependencyScanner.Dependency;
+import ru.dimension.di.DependencyScanner.ScanResult;
+import ru.dimension.di.ServiceLocator.TypeNameKey;
+
+/**
+ * Constructor dependency graph of scanned components, built from scan results alone, so missing
+ * bindings and cycles are found before any component class is loaded or initialized.
+ *
+ * Notes:
+ * - Lookups follow {@link ServiceLocator}: unnamed -> unique named and named -> unnamed fallbacks
+ *   when enabled, {@code List/Set/Collection<T>} and {@code Map<String, T>} take every binding of T
+ *   (or its multibind contributions) and may be empty; a {@code @Named} collection needs that binding.
+ * - Manual providers, factories and multibind contributions are leaves: what they need is not known.
+ * - Components with unknown dependencies (component index entries) are leaves as well, and
+ *   components with {@link Assisted} parameters are skipped: only factories create them.
+ * - Bindings registered on {@link ServiceLocator} after init are not seen here.
+ */
+final class DependencyGraph {
+
+  private static final String OBJECT = "java.lang.Object";
+  private static final Set<String> LISTS = Set.of("java.util.List", "java.util.Collection");
+  private static final String SET = "java.util.Set";
+  private static final String MAP = "java.util.Map";
+
+  private final Map<TypeNameKey, ScanResult> scanned;
+  private final Set<TypeNameKey> bound = new HashSet<>();
+  private final Map<String, List<TypeNameKey>> bindingsByType = new HashMap<>();
+  private final Set<String> intoSetTypes;
+  private final Set<String> intoMapTypes;
+  private final boolean unnamedFallback;
+  private final boolean namedFallback;
+
+  private final Map<String, List<String>> edges = new LinkedHashMap<>();
+  private final List<String> problems = new ArrayList<>();
+
+  /**
+   * @param scanned         binding key -> scanned component, as registered by the builder
+   * @param external        every other binding key (manual providers, factories)
+   * @param intoSetTypes    element types with intoSet contributions
+   * @param intoMapTypes    value types with intoMap contributions
+   * @param unnamedFallback an unnamed lookup may use the only named binding of its type
+   * @param namedFallback   a named lookup may use the unnamed binding of its type
+   */
+  DependencyGraph(Map<TypeNameKey, ScanResult> scanned, Set<TypeNameKey> external,
+                  Set<String> intoSetTypes, Set<String> intoMapTypes,
+                  boolean unnamedFallback, boolean namedFallback) {
+    this.scanned = scanned;
+    this.intoSetTypes = intoSetTypes;
+    this.intoMapTypes = intoMapTypes;
+    this.unnamedFallback = unnamedFallback;
+    this.namedFallback = namedFallback;
+
+    bound.addAll(scanned.keySet());
+    bound.addAll(external);
+    for (TypeNameKey key : bound) {
+      bindingsByType.computeIfAbsent(key.typeName(), t -> new ArrayList<>()).add(key);
+    }
+
+    LinkedHashMap<String, ScanResult> components = new LinkedHashMap<>();
+    for (ScanResult result : scanned.values()) components.putIfAbsent(result.className(), result);
+    for (ScanResult result : components.values()) link(result);
+    findCycles();
+  }
+
+  /**
+   * Missing bindings, unsupported parameter types and constructor cycles, in discovery order.
+   */
+  List<String> problems() {
+    return Collections.unmodifiableList(problems);
+  }
+
+  /**
+   * Component class name -> class names of the scanned components its constructor needs.
+   */
+  Map<String, List<String>> edges() {
+    return Collections.unmodifiableMap(edges);
+  }
+
+  void validate() {
+    if (problems.isEmpty()) return;
+    StringBuilder message = new StringBuilder("Dimension-DI: Dependency graph has ")
+        .append(problems.size()).append(" problem(s):");
+    for (String p : problems) message.append("\n - ").append(p);
+    throw new IllegalStateException(message.toString());
+  }
+
+  // =========================================================================
+  // Edges
+  // =========================================================================
+
+  private void link(ScanResult component) {
+    List<Dependency> deps = component.dependencies();
+    if (deps == null || deps.stream().anyMatch(Dependency::assisted)) return;
+
+    LinkedHashSet<String> targets = new LinkedHashSet<>();
+    for (int i = 0; i < deps.size(); i++) {
+      Dependency dep = deps.get(i);
+      String where = component.className() + " (constructor parameter " + i + ")";
+
+      if (LISTS.contains(dep.type()) || dep.type().equals(SET)) {
+        String elem = typeArgument(dep, 0, where);
+        if (elem == null) continue;
+        if (dep.named() != null) {
+          require(new TypeNameKey(elem, dep.named()), where, targets);
+        } else if (!intoSetTypes.contains(elem)) {
+          allOf(elem, targets);
+        }
+      } else if (dep.type().equals(MAP)) {
+        String key = typeArgument(dep, 0, where);
+        String value = key == null ? null : typeArgument(dep, 1, where);
+        if (value == null) continue;
+        if (!key.equals("java.lang.String")) {
+          problems.add(where + ": Map injection only supports Map<String, T>, got Map<" + key + ", ...>");
+        } else if (dep.named() != null) {
+          require(new TypeNameKey(value, dep.named()), where, targets);
+        } else if (!intoMapTypes.contains(value)) {
+          allOf(value, targets);
+        }
+      } else {
+        require(new TypeNameKey(dep.type(), dep.named()), where, targets);
+      }
+    }
+    edges.put(component.className(), List.copyOf(targets));
+  }
+
+  private void require(TypeNameKey key, String where, Set<String> targets) {
+    TypeNameKey resolved = resolve(key);
+    if (resolved == null) {
+      problems.add("No binding for " + describe(key) + " required by " + where);
+      return;
+    }
+    ScanResult target = scanned.get(resolved);
+    if (target != null) targets.add(target.className());
+  }
+
+  private void allOf(String type, Set<String> targets) {
+    for (TypeNameKey key : bindingsByType.getOrDefault(type, List.of())) {
+      ScanResult target = scanned.get(key);
+      if (target != null) targets.add(target.className());
+    }
+  }
+
+  private TypeNameKey resolve(TypeNameKey key) {
+    if (bound.contains(key)) return key;
+
+    if (!key.isNamed() && unnamedFallback) {
+      TypeNameKey onlyNamed = null;
+      for (TypeNameKey k : bindingsByType.getOrDefault(key.typeName(), List.of())) {
+        if (!k.isNamed()) continue;
+        if (onlyNamed != null) return null; // ambiguous
+        onlyNamed = k;
+      }
+      return onlyNamed;
+    }
+
+    if (key.isNamed() && namedFallback) {
+      TypeNameKey unnamed = new TypeNameKey(key.typeName(), null);
+      if (bound.contains(unnamed)) return unnamed;
+    }
+    return null;
+  }
+
+  private static String describe(TypeNameKey key) {
+    return key.isNamed() ? key.typeName() + " named '" + key.name() + "'" : key.typeName();
+  }
+
+  /**
+   * Erased type argument of a generic parameter, as ServiceLocator resolves it; null after
+   * reporting a problem when there is none.
+   */
+  private String typeArgument(Dependency dep, int index, String where) {
+    String simple = dep.type().substring(dep.type().lastIndexOf('.') + 1);
+    if (dep.signature() == null
+        || !(Signature.parseFrom(dep.signature()) instanceof Signature.ClassTypeSig type)
+        || type.typeArgs().size() <= index) {
+      problems.add(where + ": " + simple + " injection requires a parameterized type");
+      return null;
+    }
+
+    Signature.TypeArg arg = type.typeArgs().get(index);
+    if (!(arg instanceof Signature.TypeArg.Bounded bounded)
+        || bounded.wildcardIndicator() == Signature.TypeArg.Bounded.WildcardIndicator.SUPER) {
+      return OBJECT; // upper bound of '?' and '? super T'
+    }
+    Signature bound = bounded.boundType();
+    if (bound instanceof Signature.ClassTypeSig c) {
+      return DependencyScanner.binaryName(c.classDesc());
+    }
+    if (bound instanceof Signature.ArrayTypeSig) {
+      try {
+        // plain arrays only; generic arrays are rejected by ServiceLocator too
+        return DependencyScanner.binaryName(ClassDesc.ofDescriptor(bound.signatureString()));
+      } catch (IllegalArgumentException ignored) {}
+    }
+    problems.add(where + ": unsupported generic type for DI: " + dep.signature());
+    return null;
+  }
+
+  // =========================================================================
+  // Cycles
+  // =========================================================================
+
+  private void findCycles() {
+    Map<String, Integer> state = new HashMap<>(); // absent = new, 1 = on path, 2 = done
+    ArrayDeque<String> path = new ArrayDeque<>();
+    for (String component : edges.keySet()) {
+      if (!state.containsKey(component)) visit(component, state, path);
+    }
+  }
+
+  private void visit(String component, Map<String, Integer> state, ArrayDeque<String> path) {
+    state.put(component, 1);
+    path.addLast(component);
+    for (String next : edges.getOrDefault(component, List.of())) {
+      Integer s = state.get(next);
+      if (s == null) {
+        visit(next, state, path);
+      } else if (s == 1) {
+        List<String> cycle = new ArrayList<>();
+        boolean inCycle = false;
+        for (String c : path) {
+          if (c.equals(next)) inCycle = true;
+          if (inCycle) cycle.add(c);
+        }
+        cycle.add(next);
+        problems.add("Circular dependency: " + String.join(" -> ", cycle));
+      }
+    }
+    path.removeLast();
+    state.put(component, 2);
+  }
+}
@@ -1,20 +1,32 @@
 package ru.dimension.di;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.lang.classfile.Annotation;
+import java.lang.classfile.AnnotationElement;
+import java.lang.classfile.AnnotationValue;
+import java.lang.classfile.Attributes;
 import java.lang.classfile.ClassFile;
 import java.lang.classfile.ClassModel;
 import java.lang.classfile.MethodModel;
+import java.lang.classfile.Signature;
+import java.lang.classfile.attribute.RuntimeVisibleParameterAnnotationsAttribute;
+import java.lang.constant.ClassDesc;
 import java.lang.reflect.AccessFlag;
 import java.net.JarURLConnection;
+import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.zip.ZipFile;
 
 /**
  * Scans classpath for classes matching annotation-based rules using the Class-File API.
@@ -26,10 +38,17 @@ import java.util.jar.JarFile;
 final class DependencyScanner {
 
   /**
-   * Jar URL -> list of all .class entry names in that jar (like "a/b/C.class").
-   * This prevents iterating the same jar over and over for multiple base packages.
+   * Parser for candidates that passed the {@link ConstantPoolFilter}. Only the class header,
+   * annotations and method headers are read; Code is never inflated (the model is lazy),
+   * debug elements and line numbers are dropped.
    */
-  private static final Map<String, List<String>> JAR_CLASS_ENTRY_CACHE = new ConcurrentHashMap<>();
+  private static final ClassFile PARSER = ClassFile.of(
+      ClassFile.DebugElementsOption.DROP_DEBUG,
+      ClassFile.LineNumbersOption.DROP_LINE_NUMBERS);
+
+  // parameter annotations ServiceLocator reads when resolving constructor arguments
+  static final String NAMED = "Ljakarta/inject/Named;";
+  private static final String ASSISTED = "Lru/dimension/di/Assisted;";
 
   private DependencyScanner() {}
 
@@ -38,13 +57,21 @@ final class DependencyScanner {
    * - injectConstructorAnnotations: any of these makes a constructor injectable
    * - singletonClassAnnotations: any of these marks a class as singleton
    * - allowPublicNoArgConstructor: treat public no-arg ctor as injectable (even without annotations)
+   * - parallel: discover classpath roots and analyze class files on the common fork-join pool
+   * - useComponentIndex: read build-time {@link ComponentIndex} files instead of scanning the roots that have one
+   * - cacheDirectory: optional {@link ScanCache} location; unchanged classpath roots are served from it
+   * - classFilter: {@link ClassFilter} include/exclude rules checked on class names before any bytes are read
    *
    * Annotation names can be given as FQCN ("jakarta.inject.Inject") or descriptors ("Ljakarta/inject/Inject;").
    */
   record Config(
       Set<String> injectConstructorAnnotations,
       Set<String> singletonClassAnnotations,
-      boolean allowPublicNoArgConstructor
+      boolean allowPublicNoArgConstructor,
+      boolean parallel,
+      boolean useComponentIndex,
+      Path cacheDirectory,
+      ClassFilter classFilter
   ) {
     static Config defaultsJakartaInject() {
       return new Config(
@@ -58,151 +85,680 @@ final class DependencyScanner {
     Config {
       injectConstructorAnnotations = ClassFileAnnotations.normalizeAllToDescriptors(injectConstructorAnnotations);
       singletonClassAnnotations = ClassFileAnnotations.normalizeAllToDescriptors(singletonClassAnnotations);
+      if (classFilter == null) classFilter = ClassFilter.DEFAULT;
+    }
+
+    Config(Set<String> injectConstructorAnnotations,
+           Set<String> singletonClassAnnotations,
+           boolean allowPublicNoArgConstructor) {
+      this(injectConstructorAnnotations, singletonClassAnnotations, allowPublicNoArgConstructor, false, true, null,
+           ClassFilter.DEFAULT);
+    }
+
+    Config withInjectConstructorAnnotations(Set<String> annotations) {
+      return new Config(annotations, singletonClassAnnotations, allowPublicNoArgConstructor,
+                        parallel, useComponentIndex, cacheDirectory, classFilter);
+    }
+
+    Config withSingletonClassAnnotations(Set<String> annotations) {
+      return new Config(injectConstructorAnnotations, annotations, allowPublicNoArgConstructor,
+                        parallel, useComponentIndex, cacheDirectory, classFilter);
+    }
+
+    Config withAllowPublicNoArgConstructor(boolean enabled) {
+      return new Config(injectConstructorAnnotations, singletonClassAnnotations, enabled,
+                        parallel, useComponentIndex, cacheDirectory, classFilter);
+    }
+
+    Config withParallel(boolean enabled) {
+      return new Config(injectConstructorAnnotations, singletonClassAnnotations, allowPublicNoArgConstructor,
+                        enabled, useComponentIndex, cacheDirectory, classFilter);
+    }
+
+    Config withUseComponentIndex(boolean enabled) {
+      return new Config(injectConstructorAnnotations, singletonClassAnnotations, allowPublicNoArgConstructor,
+                        parallel, enabled, cacheDirectory, classFilter);
+    }
+
+    Config withCacheDirectory(Path directory) {
+      return new Config(injectConstructorAnnotations, singletonClassAnnotations, allowPublicNoArgConstructor,
+                        parallel, useComponentIndex, directory, classFilter);
+    }
+
+    Config withClassFilter(ClassFilter filter) {
+      return new Config(injectConstructorAnnotations, singletonClassAnnotations, allowPublicNoArgConstructor,
+                        parallel, useComponentIndex, cacheDirectory, filter);
     }
   }
 
   /**
    * Scan result.
    *
+   * supertypes: every superclass (except java.lang.Object) and every directly or indirectly
+   *             implemented interface, resolved from class files by {@link SupertypeResolver};
+   *             java.* types only when they are direct supertypes
    * matchedInjectCtorAnnotations: union of matched inject-annotations found on at least one ctor
    * matchedSingletonAnnotations: subset of configured singleton annotations found on the class
+   * dependencies: parameters of the constructor ServiceLocator will call (the single inject-annotated
+   *               one, else the no-arg one); null when unknown (component index entries, several
+   *               inject-annotated constructors, no usable constructor)
    */
   record ScanResult(
       String className,
       boolean isSingleton,
-      Set<String> interfaces,
+      Set<String> supertypes,
       Set<String> matchedInjectCtorAnnotations,
-      Set<String> matchedSingletonAnnotations
-  ) {}
+      Set<String> matchedSingletonAnnotations,
+      List<Dependency> dependencies
+  ) {
+    ScanResult(String className, boolean isSingleton, Set<String> supertypes,
+               Set<String> matchedInjectCtorAnnotations, Set<String> matchedSingletonAnnotations) {
+      this(className, isSingleton, supertypes, matchedInjectCtorAnnotations, matchedSingletonAnnotations, null);
+    }
+  }
+
+  /**
+   * One constructor parameter, read from the class file.
+   *
+   * type: binary name as {@link Class#getName()} prints it ("a.b.Outer$Inner", "int", "[Ljava.lang.String;")
+   * signature: generic signature ("Ljava/util/List<La/b/Foo;>;"), null when the parameter is not generic
+   * named: value of {@code @jakarta.inject.Named}, null when absent or blank
+   * assisted: parameter is annotated with {@link Assisted}
+   */
+  record Dependency(String type, String signature, String named, boolean assisted) {}
 
   public static List<ScanResult> scan(String... basePackages) {
     return scan(Config.defaultsJakartaInject(), basePackages);
   }
 
   public static List<ScanResult> scan(Config config, String... basePackages) {
+    return scan(config, ScanMetrics.DISABLED, basePackages);
+  }
+
+  /**
+   * Same as {@link #scan(Config, String...)}, recording phase timings and counters into metrics.
+   */
+  static List<ScanResult> scan(Config config, ScanMetrics metrics, String... basePackages) {
     Objects.requireNonNull(config, "config");
+    Objects.requireNonNull(metrics, "metrics");
     try {
-      Set<String> classNames = discoverClassNames(basePackages);
-      return analyzeClasses(config, classNames);
+      ClassLoader cl = effectiveClassLoader();
+      SupertypeResolver supertypes = new SupertypeResolver(cl);
+      long resolveStart = metrics.start();
+      List<ClasspathRoot> roots = resolveRoots(config, cl, basePackages);
+      metrics.phase(ScanReport.Phase.RESOLVE_ROOTS, resolveStart);
+
+      // Roots are independent, so in parallel mode they are scanned concurrently
+      List<List<ScanResult>> perRoot = (config.parallel() && roots.size() > 1)
+          ? unchecked(() -> roots.parallelStream()
+              .map(root -> uncheckedIo(() -> scanRoot(config, cl, root, supertypes, metrics)))
+              .toList())
+          : scanRootsSequentially(config, cl, roots, supertypes, metrics);
+
+      // Merge in root order; a class present in several roots is taken from the first one
+      LinkedHashMap<String, ScanResult> merged = new LinkedHashMap<>();
+      for (List<ScanResult> results : perRoot) {
+        for (ScanResult r : results) {
+          if (merged.putIfAbsent(r.className(), r) != null) metrics.reject(ScanReport.Rejection.DUPLICATE);
+        }
+      }
+      return List.copyOf(merged.values());
     } catch (Exception e) {
       throw new RuntimeException("Dimension-DI: Failed to scan packages: " + Arrays.toString(basePackages), e);
     }
   }
 
-  private static List<ScanResult> analyzeClasses(Config config, Set<String> classNames) throws IOException {
-    ClassLoader cl = effectiveClassLoader();
+  /**
+   * One classpath entry ("file:" directory or jar) with the requested packages found in it.
+   * url is the root URL ending with '/', index is the root's component index URL or null.
+   */
+  private record ClasspathRoot(String url, List<PackageRoot> packages, URL index) {
+    List<String> packageNames() {
+      return packages.stream().map(PackageRoot::basePackage).toList();
+    }
 
-    List<ScanResult> results = new ArrayList<>();
-    for (String className : classNames) {
-      byte[] classBytes = readClassBytes(cl, className);
-      ClassModel classModel = ClassFile.of().parse(classBytes);
-
-      // skip things that can never be constructed
-      if (classModel.flags().has(AccessFlag.ABSTRACT)) continue;
-      if (classModel.flags().has(AccessFlag.INTERFACE)) continue;
-      if (classModel.flags().has(AccessFlag.ANNOTATION)) continue;
-
-      // Determine "injectable"
-      boolean injectable = false;
-      LinkedHashSet<String> matchedInjectCtorAnns = new LinkedHashSet<>();
-
-      for (MethodModel m : classModel.methods()) {
-        if (!m.methodName().stringValue().equals("<init>")) continue;
-
-        // any configured @Inject-like annotation
-        Set<String> matched = ClassFileAnnotations.findAnyAnnotations(m, config.injectConstructorAnnotations());
-        if (!matched.isEmpty()) {
-          injectable = true;
-          matchedInjectCtorAnns.addAll(matched);
-        }
+    PackageTrie packageTrie() {
+      return PackageTrie.of(packageNames());
+    }
+  }
+
+  /**
+   * A base package as found under one classpath root. Packages of one root never overlap.
+   */
+  private record PackageRoot(String basePackage, URL resource) {}
+
+  private static List<ClasspathRoot> resolveRoots(Config config, ClassLoader classLoader, String... basePackages)
+      throws IOException {
+    if (basePackages == null || basePackages.length == 0) return List.of();
+
+    // Classpath roots that ship a build-time index are not walked at all
+    Map<String, URL> indexes = config.useComponentIndex() ? ComponentIndex.findIndexes(classLoader) : Map.of();
+
+    // Subpackages of another requested package are dropped here, so nothing is listed twice
+    PackageTrie trie = new PackageTrie();
+    for (String basePackageRaw : basePackages) {
+      if (basePackageRaw == null) continue;
+      String basePackage = basePackageRaw.trim();
+      if (!basePackage.isEmpty()) trie.add(basePackage);
+    }
+
+    LinkedHashMap<String, List<PackageRoot>> byRoot = new LinkedHashMap<>();
+    for (String basePackage : trie.topPackages()) {
+      String path = basePackage.replace('.', '/');
+      Enumeration<URL> resources = classLoader.getResources(path);
+
+      while (resources.hasMoreElements()) {
+        URL resource = resources.nextElement();
+        String protocol = resource.getProtocol();
 
-        // optional implicit public no-arg ctor
-        if (!injectable
-            && config.allowPublicNoArgConstructor()
-            && m.methodTypeSymbol().parameterCount() == 0
-            && m.flags().has(AccessFlag.PUBLIC)) {
-          injectable = true;
+        // ignore other protocols (jrt:, vfs:, etc.) for this tiny scanner
+        if (!"file".equals(protocol) && !"jar".equals(protocol)) continue;
+
+        String rootUrl = ComponentIndex.rootOf(resource, path);
+        if (rootUrl == null) rootUrl = resource.toExternalForm();
+        byRoot.computeIfAbsent(rootUrl, _u -> new ArrayList<>()).add(new PackageRoot(basePackage, resource));
+      }
+    }
+
+    List<ClasspathRoot> roots = new ArrayList<>(byRoot.size());
+    byRoot.forEach((url, packages) -> roots.add(new ClasspathRoot(url, List.copyOf(packages), indexes.get(url))));
+    return roots;
+  }
+
+  /**
+   * Scanner config plus the {@link ScanCache#fingerprint} of every classpath root holding one of
+   * the packages: equal strings mean a scan would return the same results.
+   * Null when a root cannot be fingerprinted.
+   */
+  static String classpathFingerprint(Config config, String... basePackages) {
+    try {
+      List<ClasspathRoot> roots = resolveRoots(config, effectiveClassLoader(), basePackages);
+      List<String> lines = new ArrayList<>(roots.size() + 1);
+      lines.add(ScanCache.configKey(config, List.of(basePackages)) + "|" + config.useComponentIndex());
+      for (ClasspathRoot root : roots) {
+        String fingerprint = ScanCache.fingerprint(root.url(), root.packageNames());
+        if (fingerprint == null) return null;
+        lines.add(root.url() + "|" + fingerprint);
+      }
+      return String.join("\n", lines);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * {@link ScanCache#fingerprint} of every classpath root holding a supertype (outside java.*) of the
+   * results, plus the supertypes whose class files are missing: the supertype closures of the results
+   * were read from exactly these files. Null when a root cannot be fingerprinted.
+   */
+  static String supertypeFingerprint(Collection<ScanResult> results) {
+    return supertypeFingerprint(effectiveClassLoader(), results);
+  }
+
+  static String supertypeFingerprint(ClassLoader cl, Collection<ScanResult> results) {
+    Set<String> types = new TreeSet<>();
+    for (ScanResult result : results) types.addAll(result.supertypes());
+
+    Map<String, Set<String>> packagesByRoot = new TreeMap<>();
+    List<String> missing = new ArrayList<>();
+    for (String type : types) {
+      if (type.startsWith("java.")) continue;
+      String path = type.replace('.', '/') + ".class";
+      URL resource = cl.getResource(path);
+      String root = resource != null ? ComponentIndex.rootOf(resource, path) : null;
+      if (root == null) {
+        missing.add(type);
+        continue;
+      }
+      int dot = type.lastIndexOf('.');
+      packagesByRoot.computeIfAbsent(root, _r -> new TreeSet<>()).add(dot < 0 ? "" : type.substring(0, dot));
+    }
+
+    try {
+      List<String> lines = new ArrayList<>(packagesByRoot.size() + 1);
+      for (var entry : packagesByRoot.entrySet()) {
+        String fingerprint = ScanCache.fingerprint(entry.getKey(), List.copyOf(entry.getValue()));
+        if (fingerprint == null) return null;
+        lines.add(entry.getKey() + "|" + fingerprint);
+      }
+      lines.add("missing|" + String.join(",", missing));
+      return String.join("\n", lines);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Binary names of every class file under the packages that passes the config's class filter,
+   * without reading any of them; a class present in several roots is listed once.
+   */
+  static List<String> classNames(Config config, String... basePackages) {
+    try {
+      LinkedHashSet<String> out = new LinkedHashSet<>();
+      for (ClasspathRoot root : resolveRoots(config, effectiveClassLoader(), basePackages)) {
+        for (ClassLocation location : findClasses(root, config.classFilter(), ScanMetrics.DISABLED)) {
+          out.add(location.className());
         }
       }
+      return List.copyOf(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Dimension-DI: Failed to list packages: " + Arrays.toString(basePackages), e);
+    }
+  }
+
+  private static List<List<ScanResult>> scanRootsSequentially(
+      Config config, ClassLoader cl, List<ClasspathRoot> roots, SupertypeResolver supertypes, ScanMetrics metrics)
+      throws IOException {
+    List<List<ScanResult>> out = new ArrayList<>(roots.size());
+    for (ClasspathRoot root : roots) {
+      out.add(scanRoot(config, cl, root, supertypes, metrics));
+    }
+    return out;
+  }
+
+  private static List<ScanResult> scanRoot(
+      Config config, ClassLoader cl, ClasspathRoot root, SupertypeResolver supertypes, ScanMetrics metrics)
+      throws IOException {
+    long rootStart = metrics.start();
+
+    if (root.index() != null) {
+      long indexStart = metrics.start();
+      ComponentIndex index = ComponentIndex.read(root.index());
+      List<ScanResult> indexed = index != null ? resultsFromIndex(config, root, index, supertypes, metrics) : null;
+      metrics.phase(ScanReport.Phase.INDEX, indexStart);
+      if (indexed != null) {
+        metrics.root(root.url(), ScanReport.Source.INDEX, rootStart, indexed.size());
+        return indexed;
+      }
+    }
+
+    ScanCache cache = config.cacheDirectory() != null ? new ScanCache(config.cacheDirectory()) : null;
+    String fingerprint = null;
+    String cacheKey = null;
+    if (cache != null) {
+      long cacheStart = metrics.start();
+      fingerprint = ScanCache.fingerprint(root.url(), root.packageNames());
+      cacheKey = ScanCache.configKey(config, root.packageNames());
+      List<ScanResult> cached = fingerprint != null ? cache.read(root.url(), fingerprint, cacheKey, cl) : null;
+      metrics.phase(ScanReport.Phase.CACHE, cacheStart);
+      if (cached != null) {
+        metrics.root(root.url(), ScanReport.Source.CACHE, rootStart, cached.size());
+        return cached;
+      }
+    }
 
-      if (!injectable) continue;
+    List<ClassLocation> classes = findClasses(root, config.classFilter(), metrics);
 
-      Set<String> matchedSingleton = ClassFileAnnotations.findAnyAnnotations(
-          classModel, config.singletonClassAnnotations());
+    List<ScanResult> results;
+    try (ClassBytesReader reader = ClassBytesReader.open(root, cl)) {
+      results = analyzeClasses(config, reader, classes, supertypes, metrics);
+    }
 
-      boolean isSingleton = !matchedSingleton.isEmpty();
+    if (cache != null && fingerprint != null) {
+      long cacheStart = metrics.start();
+      cache.write(root.url(), fingerprint, cacheKey, results, cl);
+      metrics.phase(ScanReport.Phase.CACHE, cacheStart);
+    }
+    metrics.root(root.url(), ScanReport.Source.SCAN, rootStart, results.size());
+    return results;
+  }
 
-      Set<String> interfaces = new LinkedHashSet<>();
-      classModel.interfaces().forEach(iface -> interfaces.add(iface.name().stringValue().replace('/', '.')));
+  private static List<ScanResult> resultsFromIndex(
+      Config config, ClasspathRoot root, ComponentIndex index, SupertypeResolver supertypes, ScanMetrics metrics) {
+    PackageTrie trie = root.packageTrie();
+    List<ScanResult> out = new ArrayList<>();
+    for (ComponentIndex.Entry entry : index.entries()) {
+      if (!trie.coversClass(entry.className(), '.')) continue;
+      if (!config.classFilter().acceptsClass(entry.className())) {
+        metrics.reject(ScanReport.Rejection.FILTERED);
+        continue;
+      }
+      ScanResult result = entry.toScanResult(config);
+      if (result == null) {
+        metrics.reject(ScanReport.Rejection.NOT_INJECTABLE);
+        continue;
+      }
+      // v1 indexes list direct interfaces only
+      if (!index.completeSupertypes()) result = withSupertypeClosure(result, supertypes);
+      out.add(result);
+    }
+    return List.copyOf(out);
+  }
+
+  private static ScanResult withSupertypeClosure(ScanResult result, SupertypeResolver supertypes) {
+    LinkedHashSet<String> direct = new LinkedHashSet<>(supertypes.directOf(result.className()));
+    direct.addAll(result.supertypes());
+    return new ScanResult(result.className(), result.isSingleton(), supertypes.closure(direct),
+                          result.matchedInjectCtorAnnotations(), result.matchedSingletonAnnotations(),
+                          result.dependencies());
+  }
 
-      results.add(new ScanResult(
-          className,
-          isSingleton,
-          Collections.unmodifiableSet(interfaces),
-          Collections.unmodifiableSet(matchedInjectCtorAnns),
-          matchedSingleton
-      ));
+  private static List<ScanResult> analyzeClasses(
+      Config config, ClassBytesReader reader, Collection<ClassLocation> classes,
+      SupertypeResolver supertypes, ScanMetrics metrics) throws IOException {
+    ConstantPoolFilter filter = new ConstantPoolFilter(config);
+
+    if (config.parallel()) {
+      // Ordered parallel stream: class files are read and parsed concurrently,
+      // toList() keeps discovery order so the merged result is deterministic.
+      return unchecked(() -> List.copyOf(classes).parallelStream()
+          .map(location -> uncheckedIo(() -> analyzeClass(config, filter, location, reader, supertypes, metrics)))
+          .filter(Objects::nonNull)
+          .toList());
     }
 
+    List<ScanResult> results = new ArrayList<>();
+    for (ClassLocation location : classes) {
+      ScanResult result = analyzeClass(config, filter, location, reader, supertypes, metrics);
+      if (result != null) results.add(result);
+    }
     return results;
   }
 
+  private static ScanResult analyzeClass(
+      Config config, ConstantPoolFilter filter, ClassLocation location, ClassBytesReader reader,
+      SupertypeResolver supertypes, ScanMetrics metrics) throws IOException {
+    long readStart = metrics.start();
+    byte[] classBytes = reader.read(location);
+    metrics.read(readStart, classBytes.length);
+    return analyzeClass(config, filter, location.className(), classBytes, supertypes, metrics);
+  }
+
+  /**
+   * Returns null when the class is not an injectable component.
+   * A null filter parses every class (baseline for tests and benchmarks).
+   */
+  static ScanResult analyzeClass(Config config, ConstantPoolFilter filter, String className, byte[] classBytes) {
+    return analyzeClass(config, filter, className, classBytes,
+                        new SupertypeResolver(effectiveClassLoader()), ScanMetrics.DISABLED);
+  }
+
+  private static ScanResult analyzeClass(
+      Config config, ConstantPoolFilter filter, String className, byte[] classBytes,
+      SupertypeResolver supertypes, ScanMetrics metrics) {
+    if (filter != null) {
+      long prefilterStart = metrics.start();
+      boolean candidate = filter.mayBeComponent(classBytes);
+      metrics.phase(ScanReport.Phase.PREFILTER, prefilterStart);
+      if (!candidate) {
+        metrics.reject(ScanReport.Rejection.PREFILTER);
+        return null;
+      }
+    }
+
+    long parseStart = metrics.start();
+    try {
+      return parseClass(config, className, classBytes, supertypes, metrics);
+    } finally {
+      metrics.phase(ScanReport.Phase.PARSE, parseStart);
+    }
+  }
+
+  private static ScanResult parseClass(
+      Config config, String className, byte[] classBytes, SupertypeResolver supertypes, ScanMetrics metrics) {
+    ClassModel classModel = PARSER.parse(classBytes);
+
+    // remembered even for rejected classes: abstract bases are exactly what subclasses walk through
+    List<String> directSupertypes = SupertypeResolver.directSupertypes(classModel);
+    supertypes.remember(className, directSupertypes);
+
+    // skip things that can never be constructed
+    if (classModel.flags().has(AccessFlag.ABSTRACT)
+        || classModel.flags().has(AccessFlag.INTERFACE)
+        || classModel.flags().has(AccessFlag.ANNOTATION)) {
+      metrics.reject(ScanReport.Rejection.NOT_CONCRETE);
+      return null;
+    }
+
+    // Determine "injectable"
+    boolean injectable = false;
+    LinkedHashSet<String> matchedInjectCtorAnns = new LinkedHashSet<>();
+    MethodModel injectCtor = null;
+    int injectCtorCount = 0;
+    MethodModel noArgCtor = null;
+
+    for (MethodModel m : classModel.methods()) {
+      if (!m.methodName().stringValue().equals("<init>")) continue;
+      if (m.methodTypeSymbol().parameterCount() == 0) noArgCtor = m;
+
+      // any configured @Inject-like annotation
+      Set<String> matched = ClassFileAnnotations.findAnyAnnotations(m, config.injectConstructorAnnotations());
+      if (!matched.isEmpty()) {
+        injectable = true;
+        matchedInjectCtorAnns.addAll(matched);
+        injectCtor = m;
+        injectCtorCount++;
+      }
+
+      // optional implicit public no-arg ctor
+      if (!injectable
+          && config.allowPublicNoArgConstructor()
+          && m.methodTypeSymbol().parameterCount() == 0
+          && m.flags().has(AccessFlag.PUBLIC)) {
+        injectable = true;
+      }
+    }
+
+    if (!injectable) {
+      metrics.reject(ScanReport.Rejection.NOT_INJECTABLE);
+      return null;
+    }
+
+    Set<String> matchedSingleton = ClassFileAnnotations.findAnyAnnotations(
+        classModel, config.singletonClassAnnotations());
+
+    boolean isSingleton = !matchedSingleton.isEmpty();
+
+    // the constructor ServiceLocator picks; several inject-annotated ones fail there, so stay unknown here
+    MethodModel ctor = injectCtorCount == 0 ? noArgCtor : injectCtorCount == 1 ? injectCtor : null;
+
+    return new ScanResult(
+        className,
+        isSingleton,
+        supertypes.closure(directSupertypes),
+        Collections.unmodifiableSet(matchedInjectCtorAnns),
+        matchedSingleton,
+        ctor == null ? null : constructorDependencies(ctor)
+    );
+  }
+
+  /**
+   * Parameters of a constructor from its descriptor, Signature and RuntimeVisibleParameterAnnotations.
+   * javac leaves synthetic leading parameters (outer instance, enum name and ordinal) out of the
+   * last two, so they are aligned to the end of the descriptor.
+   */
+  static List<Dependency> constructorDependencies(MethodModel ctor) {
+    List<ClassDesc> params = ctor.methodTypeSymbol().parameterList();
+    if (params.isEmpty()) return List.of();
+
+    List<Signature> generic = ctor.findAttribute(Attributes.signature())
+        .map(a -> a.asMethodSignature().arguments())
+        .orElse(List.of());
+    List<List<Annotation>> annotations = ctor.findAttribute(Attributes.runtimeVisibleParameterAnnotations())
+        .map(RuntimeVisibleParameterAnnotationsAttribute::parameterAnnotations)
+        .orElse(List.of());
+    int genericOffset = params.size() - generic.size();
+    int annotationOffset = params.size() - annotations.size();
+
+    List<Dependency> out = new ArrayList<>(params.size());
+    for (int i = 0; i < params.size(); i++) {
+      ClassDesc param = params.get(i);
+
+      String signature = null;
+      if (!generic.isEmpty() && genericOffset >= 0 && i >= genericOffset) {
+        String s = generic.get(i - genericOffset).signatureString();
+        if (!s.equals(param.descriptorString())) signature = s;
+      }
+
+      String named = null;
+      boolean assisted = false;
+      if (!annotations.isEmpty() && annotationOffset >= 0 && i >= annotationOffset) {
+        for (Annotation a : annotations.get(i - annotationOffset)) {
+          String descriptor = a.className().stringValue();
+          if (descriptor.equals(ASSISTED)) assisted = true;
+          else if (descriptor.equals(NAMED)) named = annotationValue(a);
+        }
+      }
+
+      out.add(new Dependency(binaryName(param), signature, named, assisted));
+    }
+    return List.copyOf(out);
+  }
+
+  static String annotationValue(Annotation annotation) {
+    for (AnnotationElement e : annotation.elements()) {
+      if (e.name().equalsString("value") && e.value() instanceof AnnotationValue.OfString s) {
+        String v = s.stringValue();
+        return v.isBlank() ? null : v;
+      }
+    }
+    return null;
+  }
+
+  // Class.getName() form of a field descriptor
+  static String binaryName(ClassDesc desc) {
+    if (desc.isPrimitive()) return desc.displayName();
+    String d = desc.descriptorString();
+    return desc.isArray() ? d.replace('/', '.') : d.substring(1, d.length() - 1).replace('/', '.');
+  }
+
   private static ClassLoader effectiveClassLoader() {
     ClassLoader tccl = Thread.currentThread().getContextClassLoader();
     return (tccl != null) ? tccl : DependencyScanner.class.getClassLoader();
   }
 
-  private static byte[] readClassBytes(ClassLoader cl, String className) throws IOException {
-    String resourceName = className.replace('.', '/') + ".class";
-    try (InputStream is = cl.getResourceAsStream(resourceName)) {
-      if (is == null) throw new IOException("Resource not found: " + resourceName);
-      return is.readAllBytes();
+  /**
+   * A class file found while walking a root. file is set for directory roots,
+   * entryName ("a/b/C.class") is always set and used for jar roots.
+   */
+  private record ClassLocation(String className, String entryName, Path file) {}
+
+  /**
+   * Reads class bytes straight from where the walk found them, without another class loader lookup:
+   * - directory files through a FileChannel into an exact-size array;
+   * - jar entries through one JarFile kept open for the whole root.
+   * Roots that are not plain local files (nested jars and the like) fall back to the class loader.
+   *
+   * ClassFile.parse only accepts a byte[] and keeps it for lazy parsing, so every class gets its own
+   * exact-size array; there is no intermediate stream buffer and no growing copy.
+   * Thread-safe: parallel workers share one reader per root.
+   */
+  private static final class ClassBytesReader implements Closeable {
+
+    private final ClassLoader fallback;
+    private final JarFile jar;
+
+    private ClassBytesReader(ClassLoader fallback, JarFile jar) {
+      this.fallback = fallback;
+      this.jar = jar;
     }
-  }
 
-  private static Set<String> discoverClassNames(String... basePackages) throws IOException {
-    ClassLoader classLoader = effectiveClassLoader();
-    Set<String> classNames = new LinkedHashSet<>();
+    static ClassBytesReader open(ClasspathRoot root, ClassLoader cl) throws IOException {
+      Path jarPath = localJarPath(root.url());
+      // runtime-versioned, like the class loader sees multi-release jars
+      JarFile jar = jarPath != null
+          ? new JarFile(jarPath.toFile(), false, ZipFile.OPEN_READ, JarFile.runtimeVersion())
+          : null;
+      return new ClassBytesReader(cl, jar);
+    }
 
-    if (basePackages == null || basePackages.length == 0) return classNames;
+    byte[] read(ClassLocation location) throws IOException {
+      if (location.file() != null) return readFile(location.file());
 
-    for (String basePackageRaw : basePackages) {
-      if (basePackageRaw == null) continue;
-      String basePackage = basePackageRaw.trim();
-      if (basePackage.isEmpty()) continue;
+      if (jar != null) {
+        JarEntry entry = jar.getJarEntry(location.entryName());
+        if (entry != null) return readEntry(entry);
+      }
 
-      String path = basePackage.replace('.', '/');
-      Enumeration<URL> resources = classLoader.getResources(path);
+      try (InputStream is = fallback.getResourceAsStream(location.entryName())) {
+        if (is == null) throw new IOException("Resource not found: " + location.entryName());
+        return is.readAllBytes();
+      }
+    }
 
-      while (resources.hasMoreElements()) {
-        URL resource = resources.nextElement();
-        String protocol = resource.getProtocol();
+    private static byte[] readFile(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) throw new IOException("Class file too large: " + file);
 
-        if ("file".equals(protocol)) {
-          try {
-            classNames.addAll(findClassesInDirectory(basePackage, Paths.get(resource.toURI())));
-          } catch (java.net.URISyntaxException e) {
-            throw new IOException(e);
-          }
-          continue;
+        byte[] bytes = new byte[(int) size];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer) < 0) throw new EOFException("Truncated class file: " + file);
         }
+        return bytes;
+      }
+    }
 
-        if ("jar".equals(protocol)) {
-          classNames.addAll(findClassesInJar(basePackage, resource));
-          continue;
-        }
+    private byte[] readEntry(JarEntry entry) throws IOException {
+      try (InputStream is = jar.getInputStream(entry)) {
+        long size = entry.getSize();
+        if (size < 0 || size > Integer.MAX_VALUE) return is.readAllBytes();
 
-        // ignore other protocols (jrt:, vfs:, etc.) for this tiny scanner
+        byte[] bytes = new byte[(int) size];
+        if (is.readNBytes(bytes, 0, bytes.length) != bytes.length) {
+          throw new EOFException("Truncated jar entry: " + entry.getName());
+        }
+        return bytes;
       }
     }
 
-    return classNames;
+    @Override
+    public void close() throws IOException {
+      if (jar != null) jar.close();
+    }
   }
 
-  private static Set<String> findClassesInDirectory(String basePackage, Path packageDir) throws IOException {
-    if (!Files.isDirectory(packageDir)) return Set.of();
+  /**
+   * Local jar file of a plain "jar:file:/x.jar!/" root URL; null for directories, nested jars
+   * and other URL schemes.
+   */
+  static Path localJarPath(String rootUrl) {
+    if (!rootUrl.startsWith("jar:file:")) return null;
+    if (!rootUrl.endsWith("!/") || rootUrl.indexOf("!/") != rootUrl.length() - 2) return null;
+    try {
+      Path jar = Paths.get(URI.create(rootUrl.substring("jar:".length(), rootUrl.length() - 2)));
+      return Files.isRegularFile(jar) ? jar : null;
+    } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+      return null;
+    }
+  }
 
-    LinkedHashSet<String> classes = new LinkedHashSet<>();
+  /**
+   * Lists the classes of every requested package under the root in a single pass:
+   * a jar's entry list is filtered once against the package trie, and directory packages
+   * are disjoint subtrees, so each file is visited once.
+   */
+  private static List<ClassLocation> findClasses(ClasspathRoot root, ClassFilter filter, ScanMetrics metrics)
+      throws IOException {
+    List<PackageRoot> packages = root.packages();
+    if ("jar".equals(packages.get(0).resource().getProtocol())) {
+      long listStart = metrics.start();
+      List<ClassLocation> classes = findClassesInJar(root.packageTrie(), filter, metrics, packages.get(0).resource());
+      metrics.phase(ScanReport.Phase.JAR_LISTING, listStart);
+      return classes;
+    }
+
+    long walkStart = metrics.start();
+    List<ClassLocation> classes = new ArrayList<>();
+    for (PackageRoot pr : packages) {
+      try {
+        classes.addAll(findClassesInDirectory(pr.basePackage(), filter, metrics, Paths.get(pr.resource().toURI())));
+      } catch (java.net.URISyntaxException e) {
+        throw new IOException(e);
+      }
+    }
+    metrics.phase(ScanReport.Phase.DIRECTORY_WALK, walkStart);
+    return classes;
+  }
+
+  private static List<ClassLocation> findClassesInDirectory(
+      String basePackage, ClassFilter filter, ScanMetrics metrics, Path packageDir)
+      throws IOException {
+    if (!Files.isDirectory(packageDir)) return List.of();
+
+    String pathPrefix = basePackage.replace('.', '/') + "/";
+    List<ClassLocation> classes = new ArrayList<>();
 
     // packageDir points to ".../ru/dimension/di" for basePackage "ru.dimension.di"
     try (var stream = Files.walk(packageDir)) {
@@ -223,61 +779,71 @@ final class DependencyScanner {
             String withoutExt = relStr.substring(0, relStr.length() - ".class".length());
 
             String className = basePackage + "." + withoutExt.replace('/', '.');
-            classes.add(className);
+            if (!filter.acceptsClass(className)) {
+              metrics.reject(ScanReport.Rejection.FILTERED);
+              return;
+            }
+            classes.add(new ClassLocation(className, pathPrefix + relStr, p));
           });
     }
 
-    return Collections.unmodifiableSet(classes);
+    return classes;
   }
 
-  private static Set<String> findClassesInJar(String basePackage, URL jarPackageUrl) throws IOException {
-    // jarPackageUrl looks like: jar:file:/.../x.jar!/ru/dimension/di
+  private static List<ClassLocation> findClassesInJar(
+      PackageTrie packages, ClassFilter filter, ScanMetrics metrics, URL jarPackageUrl) throws IOException {
+    // jarPackageUrl looks like: jar:file:/.../x.jar!/ru/dimension/di (any requested package of the jar)
     JarURLConnection conn = (JarURLConnection) jarPackageUrl.openConnection();
     conn.setUseCaches(false);
 
-    String jarId = conn.getJarFileURL().toExternalForm();
-    String pathPrefix = basePackage.replace('.', '/') + "/";
+    JarEntryIndex index = JarEntryIndex.of(conn);
 
-    List<String> allClassEntries;
-    try {
-      allClassEntries = JAR_CLASS_ENTRY_CACHE.computeIfAbsent(jarId, _id -> {
-        try {
-          return listAllClassEntries(conn);
-        } catch (IOException e) {
-          throw new UncheckedIOException(e);
+    // packages are far fewer than entries: match them against the trie, then take their classes whole
+    List<ClassLocation> classes = new ArrayList<>();
+    for (String packagePath : index.packages()) {
+      if (!packages.coversPackage(packagePath, '/')) continue;
+
+      String packageName = packagePath.replace('/', '.');
+      String[] simpleNames = index.classesIn(packagePath);
+      if (!filter.acceptsPackage(packageName)) {
+        metrics.reject(ScanReport.Rejection.FILTERED, simpleNames.length);
+        continue;
+      }
+
+      for (String simple : simpleNames) {
+        String className = packageName + "." + simple;
+        if (!filter.acceptsClassInPackage(className)) {
+          metrics.reject(ScanReport.Rejection.FILTERED);
+          continue;
         }
-      });
-    } catch (UncheckedIOException uioe) {
-      throw uioe.getCause();
+        classes.add(new ClassLocation(className, packagePath + "/" + simple + ".class", null));
+      }
     }
 
-    LinkedHashSet<String> classes = new LinkedHashSet<>();
-    for (String entryName : allClassEntries) {
-      if (!entryName.startsWith(pathPrefix)) continue;
-      if (!entryName.endsWith(".class")) continue;
+    return classes;
+  }
 
-      String simple = entryName.substring(entryName.lastIndexOf('/') + 1);
-      if (simple.equals("package-info.class") || simple.equals("module-info.class")) continue;
+  @FunctionalInterface
+  private interface IoSupplier<T> {
+    T get() throws IOException;
+  }
 
-      classes.add(entryName.replace('/', '.').replace(".class", ""));
+  private static <T> T uncheckedIo(IoSupplier<T> action) {
+    try {
+      return action.get();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
-
-    return Collections.unmodifiableSet(classes);
   }
 
-  private static List<String> listAllClassEntries(JarURLConnection conn) throws IOException {
-    try (JarFile jar = conn.getJarFile()) {
-      ArrayList<String> out = new ArrayList<>();
-      Enumeration<JarEntry> entries = jar.entries();
-      while (entries.hasMoreElements()) {
-        JarEntry e = entries.nextElement();
-        if (e.isDirectory()) continue;
-        String name = e.getName();
-        if (name.endsWith(".class")) {
-          out.add(name);
-        }
-      }
-      return List.copyOf(out);
+  /**
+   * Runs a stream pipeline built from {@link #uncheckedIo} steps and restores the original IOException.
+   */
+  private static <T> T unchecked(java.util.function.Supplier<T> pipeline) throws IOException {
+    try {
+      return pipeline.get();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
   }
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package ru.dimension.di;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import ru.dimension.di.ServiceLocator.Key;
 
@@ -14,11 +17,82 @@ public final class DimensionDI {
     return new Builder();
   }
 
+  /**
+   * Drops the jar entry listings the scanner keeps between scans.
+   * Local jars are re-listed anyway when their size or mtime change; call this after replacing
+   * jars that are not plain local files, or to release the memory once scanning is done.
+   */
+  public static void clearJarEntryCache() {
+    JarEntryIndex.invalidateAll();
+  }
+
+  /**
+   * Resolves every binding registered on {@link ServiceLocator} once, including lazily linked
+   * classes, bound factories (each method called with null / zero arguments) and multibindings,
+   * and reports what could not be exercised. Meant for AOT cache / CDS training runs
+   * ({@code -XX:AOTMode=record}), so the recorded cache covers the container's whole startup path.
+   */
+  public static TrainingReport train() {
+    return ServiceLocator.train();
+  }
+
+  /**
+   * Binding key -> scanned component, by type name, following the registration rules of
+   * {@link Builder#buildAndInit()}: the class itself, then every supertype unnamed (first component
+   * wins) and named after the implementation's simple name (full name, then "#n" on collisions).
+   * Keys in manualKeys are left to the manual providers.
+   */
+  static Map<ServiceLocator.TypeNameKey, DependencyScanner.ScanResult> scannedBindings(
+      List<DependencyScanner.ScanResult> scanResults, Set<ServiceLocator.TypeNameKey> manualKeys) {
+    Map<ServiceLocator.TypeNameKey, DependencyScanner.ScanResult> bindings = new LinkedHashMap<>();
+
+    for (var result : scanResults) {
+      String className = result.className();
+      bindings.put(new ServiceLocator.TypeNameKey(className, null), result);
+
+      for (String ifaceName : result.supertypes()) {
+        var unnamedIfaceKey = new ServiceLocator.TypeNameKey(ifaceName, null);
+        if (!bindings.containsKey(unnamedIfaceKey) && !manualKeys.contains(unnamedIfaceKey)) {
+          bindings.put(unnamedIfaceKey, result);
+        }
+
+        String implName = Builder.simpleName(className);
+        var namedIfaceKey = new ServiceLocator.TypeNameKey(ifaceName, implName);
+
+        if (bindings.containsKey(namedIfaceKey) || manualKeys.contains(namedIfaceKey)) {
+          implName = className;
+          namedIfaceKey = new ServiceLocator.TypeNameKey(ifaceName, implName);
+        }
+
+        if (bindings.containsKey(namedIfaceKey) || manualKeys.contains(namedIfaceKey)) {
+          int suffix = 2;
+          ServiceLocator.TypeNameKey candidate;
+          do {
+            candidate = new ServiceLocator.TypeNameKey(ifaceName, implName + "#" + suffix);
+            suffix++;
+          } while (bindings.containsKey(candidate) || manualKeys.contains(candidate));
+          namedIfaceKey = candidate;
+        }
+
+        bindings.put(namedIfaceKey, result);
+      }
+    }
+    return bindings;
+  }
+
   public static final class Builder {
     private final Set<String> packagesToScan = new HashSet<>();
     private final Map<Key, Supplier<?>> manualProviders = new HashMap<>();
     private final List<FactoryBinding<?>> factoryBindings = new ArrayList<>();
     private boolean autoAliasUniqueNamed = true;
+    private boolean lazyLinking = false;
+    private boolean parallelPrelink = false;
+    private boolean validateDependencyGraph = false;
+    private boolean hiddenClassProviders = false;
+    private boolean composedPrototypes = false;
+    private Path resolutionPlanFile;
+    private boolean trainingRun = false;
+    private Consumer<InitReport> initReportListener;
 
     // Scanner config
     private DependencyScanner.Config scannerConfig = DependencyScanner.Config.defaultsJakartaInject();
@@ -46,11 +120,7 @@ public final class DimensionDI {
      */
     public Builder injectConstructorAnnotations(String... annotationsFqcnOrDesc) {
       Set<String> s = new LinkedHashSet<>(List.of(annotationsFqcnOrDesc));
-      this.scannerConfig = new DependencyScanner.Config(
-          s,
-          this.scannerConfig.singletonClassAnnotations(),
-          this.scannerConfig.allowPublicNoArgConstructor()
-      );
+      this.scannerConfig = this.scannerConfig.withInjectConstructorAnnotations(s);
       return this;
     }
 
@@ -59,23 +129,111 @@ public final class DimensionDI {
      */
     public Builder singletonClassAnnotations(String... annotationsFqcnOrDesc) {
       Set<String> s = new LinkedHashSet<>(List.of(annotationsFqcnOrDesc));
-      this.scannerConfig = new DependencyScanner.Config(
-          this.scannerConfig.injectConstructorAnnotations(),
-          s,
-          this.scannerConfig.allowPublicNoArgConstructor()
-      );
+      this.scannerConfig = this.scannerConfig.withSingletonClassAnnotations(s);
       return this;
     }
 
     public Builder allowImplicitPublicNoArgConstructor(boolean enabled) {
-      this.scannerConfig = new DependencyScanner.Config(
-          this.scannerConfig.injectConstructorAnnotations(),
-          this.scannerConfig.singletonClassAnnotations(),
-          enabled
-      );
+      this.scannerConfig = this.scannerConfig.withAllowPublicNoArgConstructor(enabled);
+      return this;
+    }
+
+    /**
+     * Spreads classpath root listing and class-file analysis across cores.
+     * Scan results keep the same deterministic order as a sequential scan.
+     * Default is false.
+     */
+    public Builder parallelScan(boolean enabled) {
+      this.scannerConfig = this.scannerConfig.withParallel(enabled);
+      return this;
+    }
+
+    /**
+     * Reads build-time component indexes ({@code META-INF/dimension-di/components.idx},
+     * written by the {@code di-processor} annotation processor) instead of scanning
+     * the classpath roots that have one. Roots without an index are still scanned.
+     * Default is true.
+     */
+    public Builder useComponentIndex(boolean enabled) {
+      this.scannerConfig = this.scannerConfig.withUseComponentIndex(enabled);
+      return this;
+    }
+
+    /**
+     * Enables the persistent scan cache in the given directory: scan results are stored per
+     * classpath root and reused while the jar (path, size, mtime) or the directory contents
+     * stay unchanged, together with the roots holding the components' supertypes.
+     * Pass null to disable. Default is disabled.
+     */
+    public Builder scanCacheDirectory(Path directory) {
+      this.scannerConfig = this.scannerConfig.withCacheDirectory(directory);
+      return this;
+    }
+
+    /**
+     * Stores the resolved bindings of {@link #buildAndInit()} in the given file: the scanned
+     * components with their constructor dependencies and the final key table, including supertype
+     * names, "#n" suffixes and unnamed aliases. While the classpath roots of the scanned packages and
+     * of their supertypes (see {@link #scanCacheDirectory(Path)} for how they are fingerprinted), the scanner config and
+     * the manual keys stay unchanged, later starts load that file instead of scanning and aliasing.
+     * Pass null to disable. Default is disabled.
+     */
+    public Builder resolutionPlanFile(Path file) {
+      this.resolutionPlanFile = file;
+      return this;
+    }
+
+    /**
+     * Scans only classes in packages matching one of the globs ('*' = one segment,
+     * '**' = any number of segments, "com.acme.**" also matches "com.acme").
+     */
+    public Builder includePackages(String... globs) {
+      return classFilter(scannerConfig.classFilter().withIncludePackages(List.of(globs)));
+    }
+
+    /**
+     * Skips classes in packages matching one of the globs. Excludes win over includes.
+     */
+    public Builder excludePackages(String... globs) {
+      return classFilter(scannerConfig.classFilter().withExcludePackages(List.of(globs)));
+    }
+
+    /**
+     * Scans only classes whose binary name ("a.b.Outer$Inner") matches one of the regexes.
+     */
+    public Builder includeClasses(String... regexes) {
+      return classFilter(scannerConfig.classFilter().withIncludeClasses(List.of(regexes)));
+    }
+
+    /**
+     * Skips classes whose binary name matches one of the regexes, e.g. {@code ".*Dto"}.
+     */
+    public Builder excludeClasses(String... regexes) {
+      return classFilter(scannerConfig.classFilter().withExcludeClasses(List.of(regexes)));
+    }
+
+    /**
+     * Skips anonymous and local classes ("Outer$1", "Outer$1Local") without reading them.
+     * Default is false, since a local class can be a component.
+     */
+    public Builder skipAnonymousClasses(boolean enabled) {
+      return classFilter(scannerConfig.classFilter().withSkipAnonymous(enabled));
+    }
+
+    private Builder classFilter(ClassFilter filter) {
+      this.scannerConfig = this.scannerConfig.withClassFilter(filter);
       return this;
     }
 
+    // read by the build-time generators, which scan like buildAndInit()
+    DependencyScanner.Config scannerConfig() {
+      return scannerConfig;
+    }
+
+    String[] scannedPackages() {
+      return packagesToScan.toArray(new String[0]);
+    }
+
     /**
      * Controls whether to automatically create unnamed aliases for types
      * that have exactly one named binding.
@@ -86,6 +244,84 @@ public final class DimensionDI {
       return this;
     }
 
+    /**
+     * Registers scanned classes by name only: a class is loaded (without running its static
+     * initializer) when one of its bindings is first looked up, and its constructor provider
+     * is built on the first get. Scanned classes that are never requested are never loaded.
+     * Default is false.
+     */
+    public Builder lazyLinking(boolean enabled) {
+      this.lazyLinking = enabled;
+      return this;
+    }
+
+    /**
+     * Loads every scanned class and builds its constructor provider (constructor lookup,
+     * MethodHandle, dependency list) on all cores during {@link #buildAndInit()}, instead of
+     * one by one. Classes that fail to link are reported together in one exception.
+     * Ignored when {@link #lazyLinking(boolean)} is enabled. Default is false.
+     */
+    public Builder parallelPrelink(boolean enabled) {
+      this.parallelPrelink = enabled;
+      return this;
+    }
+
+    /**
+     * Creates scanned classes through a hidden class generated at runtime with the Class-File API,
+     * which calls the constructor directly, instead of a reflective MethodHandle call.
+     * Needs no annotation processor; classes with a generated factory from {@code di-processor}
+     * keep using it, and classes the hidden class cannot reach fall back to the MethodHandle.
+     * Default is false.
+     */
+    public Builder hiddenClassProviders(boolean enabled) {
+      this.hiddenClassProviders = enabled;
+      return this;
+    }
+
+    /**
+     * Links every scanned prototype into one composed MethodHandle: prototype dependencies are
+     * folded into their parent's handle instead of going through another provider, so the JIT can
+     * inline the construction of a whole prototype subgraph. Singletons, manual providers and
+     * collections stay lookups. A later {@link ServiceLocator#override} of an inlined prototype is
+     * not seen by its composed parents.
+     * Ignored when {@link #lazyLinking(boolean)} is enabled. Default is false.
+     */
+    public Builder composedPrototypes(boolean enabled) {
+      this.composedPrototypes = enabled;
+      return this;
+    }
+
+    /**
+     * Checks the constructor dependencies of every scanned component during {@link #buildAndInit()},
+     * from the class files alone, before any scanned class is loaded or initialized. Missing bindings
+     * and constructor cycles are reported together in one exception.
+     * Components read from a component index are not checked (the index holds no constructors),
+     * and bindings registered on {@link ServiceLocator} after init are not seen. Default is false.
+     */
+    public Builder validateDependencyGraph(boolean enabled) {
+      this.validateDependencyGraph = enabled;
+      return this;
+    }
+
+    /**
+     * Receives the {@link InitReport} at the end of every {@link #buildAndInit()}, e.g. to export
+     * startup timings as metrics.
+     */
+    public Builder onInitReport(Consumer<InitReport> listener) {
+      this.initReportListener = listener;
+      return this;
+    }
+
+    /**
+     * Turns {@link #buildAndInit()} into an AOT cache / CDS training run: after init it calls
+     * {@link DimensionDI#train()} and returns the result as {@link InitReport#training()}, also
+     * seen by {@link #onInitReport}. What to do with it (print, exit, carry on) is up to the caller.
+     */
+    public Builder trainingRun(boolean enabled) {
+      this.trainingRun = enabled;
+      return this;
+    }
+
     public <T> Builder bind(Class<T> interfaceType, Class<? extends T> implementationType) {
       Supplier<T> provider = () -> ServiceLocator.get(implementationType);
       manualProviders.put(Key.of(interfaceType), provider);
@@ -195,102 +431,423 @@ public final class DimensionDI {
           "Cannot infer target class from factory interface: " + factoryInterface.getName());
     }
 
-    public void buildAndInit() {
+    /**
+     * Scans, links and registers everything, replacing the current {@link ServiceLocator} state.
+     * Returns where the startup time went; the same report is passed to {@link #onInitReport}.
+     */
+    public InitReport buildAndInit() {
+      long initStart = System.nanoTime();
       Map<Key, Supplier<?>> allProviders = new HashMap<>();
+      Map<ServiceLocator.TypeNameKey, Supplier<?>> unlinkedProviders = new HashMap<>();
+      LongAdder classLoadingNanos = new LongAdder();
+      LongAdder providerCreationNanos = new LongAdder();
+      ScanReport scanReport = null;
+      List<DependencyScanner.ScanResult> scanResults = List.of();
+      Map<Supplier<?>, Class<?>> prototypes = new IdentityHashMap<>();
+      Map<Supplier<?>, String> scannedProviders = new IdentityHashMap<>();
+      HiddenClassProviders.clearFallbacks();
+
+      // 1. Load the plan of an earlier start, or run the scanner
+      String planKey = resolutionPlanFile != null && !packagesToScan.isEmpty() ? resolutionPlanKey() : null;
+      ResolutionPlan plan = planKey != null ? ResolutionPlan.read(resolutionPlanFile, planKey) : null;
+
+      if (plan != null) {
+        scanResults = plan.components();
+      } else if (!packagesToScan.isEmpty()) {
+        ScanMetrics metrics = new ScanMetrics();
+        long scanStart = System.nanoTime();
+        scanResults = DependencyScanner.scan(scannerConfig, metrics, packagesToScan.toArray(new String[0]));
+        scanReport = metrics.toReport(System.nanoTime() - scanStart, scanResults.size());
+      }
 
-      // 1. Run the scanner
-      if (!packagesToScan.isEmpty()) {
-        List<DependencyScanner.ScanResult> scanResults =
-            DependencyScanner.scan(scannerConfig, packagesToScan.toArray(new String[0]));
+      if (!scanResults.isEmpty() && validateDependencyGraph) {
+        dependencyGraph(scanResults).validate();
+      }
 
+      if (plan != null) {
+        registerPlanned(plan, allProviders, unlinkedProviders, prototypes,
+                        classLoadingNanos, providerCreationNanos);
+      } else if (!scanResults.isEmpty() && lazyLinking) {
+        registerUnlinked(scanResults, unlinkedProviders, scannedProviders);
+      } else if (!scanResults.isEmpty()) {
+        Map<String, Supplier<?>> prelinked = parallelPrelink
+            ? prelink(scanResults, hiddenClassProviders, classLoadingNanos, providerCreationNanos)
+            : Map.of();
+
+        Map<String, Class<?>> classes = new HashMap<>();
+        Map<String, Supplier<?>> providers = new HashMap<>();
         try {
           for (var result : scanResults) {
+            // Prelinked classes are already loaded and timed; this only initializes them
+            long loadStart = System.nanoTime();
             Class<?> clazz = Class.forName(result.className());
-            Supplier<?> provider = ServiceLocator.createConstructorProvider(clazz, result.isSingleton());
-
-            // Register the class itself
-            allProviders.put(Key.of(clazz), provider);
-
-            // Interface bindings:
-            // - ensure unnamed binding exists (first wins)
-            // - also register named binding for each impl (impl simple name / fallback collision handling)
-            for (String ifaceName : result.interfaces()) {
-              try {
-                Class<?> iface = Class.forName(ifaceName);
-                Key unnamedIfaceKey = Key.of(iface);
-
-                if (!allProviders.containsKey(unnamedIfaceKey) && !manualProviders.containsKey(unnamedIfaceKey)) {
-                  allProviders.put(unnamedIfaceKey, provider);
-                }
-
-                String implName = clazz.getSimpleName();
-                Key namedIfaceKey = Key.of(iface, implName);
-
-                if (allProviders.containsKey(namedIfaceKey) || manualProviders.containsKey(namedIfaceKey)) {
-                  implName = clazz.getName();
-                  namedIfaceKey = Key.of(iface, implName);
-                }
-
-                if (allProviders.containsKey(namedIfaceKey) || manualProviders.containsKey(namedIfaceKey)) {
-                  int suffix = 2;
-                  Key candidate;
-                  do {
-                    candidate = Key.of(iface, implName + "#" + suffix);
-                    suffix++;
-                  } while (allProviders.containsKey(candidate) || manualProviders.containsKey(candidate));
-                  namedIfaceKey = candidate;
-                }
-
-                if (!allProviders.containsKey(namedIfaceKey) && !manualProviders.containsKey(namedIfaceKey)) {
-                  allProviders.put(namedIfaceKey, provider);
-                }
-
-              } catch (ClassNotFoundException ignored) {}
+            long createStart = System.nanoTime();
+
+            Supplier<?> provider;
+            if (parallelPrelink) {
+              provider = prelinked.get(result.className());
+            } else {
+              classLoadingNanos.add(createStart - loadStart);
+              provider = ServiceLocator.createConstructorProvider(clazz, result.isSingleton(), hiddenClassProviders);
+              providerCreationNanos.add(System.nanoTime() - createStart);
+            }
+
+            classes.put(result.className(), clazz);
+            providers.put(result.className(), provider);
+            scannedProviders.put(provider, result.className());
+            if (composedPrototypes && !result.isSingleton()) {
+              prototypes.put(provider, clazz);
             }
           }
         } catch (ClassNotFoundException e) {
           throw new RuntimeException("Dimension-DI: A class found during scan could not be loaded", e);
         }
+
+        // The class itself and its supertypes, named by the same rules as the lazy and plan paths;
+        // a supertype that cannot be loaded is skipped
+        scannedBindings(scanResults).forEach((key, result) -> {
+          Class<?> type = classes.get(key.typeName());
+          if (type == null) {
+            long loadStart = System.nanoTime();
+            try {
+              type = Class.forName(key.typeName());
+            } catch (ClassNotFoundException ignored) {
+              return;
+            } finally {
+              classLoadingNanos.add(System.nanoTime() - loadStart);
+            }
+          }
+          allProviders.put(Key.of(type, key.name()), providers.get(result.className()));
+        });
       }
 
       // 2. Add manual providers
+      long registrationStart = System.nanoTime();
       allProviders.putAll(manualProviders);
 
-      // 3. Auto-create unnamed aliases for unique named bindings
-      if (autoAliasUniqueNamed) {
-        createUnnamedAliases(allProviders);
+      // 3. Auto-create unnamed aliases for unique named bindings (a plan already holds them)
+      if (plan != null) {
+        registerPlannedAliases(plan, allProviders);
+      } else if (autoAliasUniqueNamed) {
+        createUnnamedAliases(allProviders, unlinkedProviders);
+      }
+
+      if (planKey != null && plan == null) {
+        resolutionPlan(scanResults, allProviders, unlinkedProviders, scannedProviders)
+            .write(resolutionPlanFile, planKey);
+      }
+
+      // 3b. Fold prototype subgraphs into composed MethodHandles
+      if (!prototypes.isEmpty()) {
+        Map<Supplier<?>, Supplier<?>> composed = ServiceLocator.composePrototypes(allProviders, prototypes);
+        allProviders.replaceAll((key, provider) -> composed.getOrDefault(provider, provider));
       }
 
       // 4. Initialize providers + multibind contributions
       ServiceLocator.init(allProviders);
+      ServiceLocator.initUnlinked(unlinkedProviders);
       ServiceLocator.initMultibindings(intoSetContributions, intoMapContributions);
 
       // 5. Register factories
       for (var binding : factoryBindings) {
         registerFactory(binding);
       }
+
+      long end = System.nanoTime();
+      TrainingReport training = trainingRun ? train() : null;
+      InitReport report = new InitReport(
+          end - initStart,
+          scanReport,
+          classLoadingNanos.sum(),
+          providerCreationNanos.sum(),
+          end - registrationStart,
+          scanResults.size(),
+          allProviders.size() + unlinkedProviders.size(),
+          HiddenClassProviders.fallbacks(),
+          training);
+      if (initReportListener != null) initReportListener.accept(report);
+      return report;
+    }
+
+    private record Prelinked(String className, Supplier<?> provider, Throwable error) {}
+
+    /**
+     * Class name -> constructor provider for every scanned class, built in parallel.
+     * Fails after all classes were tried, listing every class that could not be linked.
+     */
+    private static Map<String, Supplier<?>> prelink(List<DependencyScanner.ScanResult> scanResults,
+                                                    boolean hiddenClass,
+                                                    LongAdder classLoadingNanos, LongAdder providerCreationNanos) {
+      // Loaded without static initializers: a <clinit> that touches another component
+      // could block a common-pool worker on a peer's initialization
+      ClassLoader loader = DimensionDI.class.getClassLoader();
+      List<Prelinked> linked = scanResults.parallelStream()
+          .map(result -> {
+            try {
+              long loadStart = System.nanoTime();
+              Class<?> clazz = Class.forName(result.className(), false, loader);
+              long createStart = System.nanoTime();
+              classLoadingNanos.add(createStart - loadStart);
+
+              Supplier<?> provider =
+                  ServiceLocator.createConstructorProvider(clazz, result.isSingleton(), hiddenClass);
+              providerCreationNanos.add(System.nanoTime() - createStart);
+              return new Prelinked(result.className(), provider, null);
+            } catch (Exception | LinkageError e) {
+              return new Prelinked(result.className(), null, e);
+            }
+          })
+          .toList();
+
+      Map<String, Supplier<?>> out = HashMap.newHashMap(linked.size());
+      List<Prelinked> failed = new ArrayList<>();
+      for (Prelinked p : linked) {
+        if (p.error() != null) failed.add(p);
+        else out.put(p.className(), p.provider());
+      }
+
+      if (!failed.isEmpty()) {
+        StringBuilder message = new StringBuilder("Dimension-DI: Failed to link ")
+            .append(failed.size()).append(" scanned class(es):");
+        for (Prelinked p : failed) {
+          message.append("\n - ").append(p.className()).append(": ").append(p.error());
+        }
+        RuntimeException e = new RuntimeException(message.toString());
+        for (Prelinked p : failed) e.addSuppressed(p.error());
+        throw e;
+      }
+      return out;
+    }
+
+    /**
+     * Lazy counterpart of the scan registration above: the same {@link DimensionDI#scannedBindings}
+     * keys, but by type name, so neither the classes nor their supertypes are loaded.
+     */
+    private void registerUnlinked(List<DependencyScanner.ScanResult> scanResults,
+                                  Map<ServiceLocator.TypeNameKey, Supplier<?>> unlinkedProviders,
+                                  Map<Supplier<?>, String> scannedProviders) {
+      ClassLoader loader = DimensionDI.class.getClassLoader();
+      Map<String, Supplier<?>> providers = new HashMap<>();
+
+      scannedBindings(scanResults).forEach((key, result) -> unlinkedProviders.put(
+          key,
+          providers.computeIfAbsent(result.className(), n -> ServiceLocator.lazyConstructorProvider(
+              n, result.isSingleton(), loader, hiddenClassProviders))));
+      providers.forEach((className, provider) -> scannedProviders.put(provider, className));
+    }
+
+    // =========================================================================
+    // Resolution plan
+    // =========================================================================
+
+    /**
+     * Null when a classpath root cannot be fingerprinted: the plan is then neither read nor written.
+     */
+    private String resolutionPlanKey() {
+      String classpath = DependencyScanner.classpathFingerprint(scannerConfig, packagesToScan.toArray(new String[0]));
+      if (classpath == null) return null;
+
+      List<String> manual = new ArrayList<>();
+      for (var key : manualKeys()) manual.add(key.typeName() + "@" + key.name());
+      Collections.sort(manual);
+      return String.join("\n", classpath, String.join(",", manual),
+                         "alias=" + autoAliasUniqueNamed, "lazy=" + lazyLinking);
+    }
+
+    /**
+     * The final table after scan registration, manual providers and aliases, by type name.
+     * Keys a manual provider is registered under are left out: the builder registers those again.
+     */
+    private ResolutionPlan resolutionPlan(List<DependencyScanner.ScanResult> scanResults,
+                                          Map<Key, Supplier<?>> allProviders,
+                                          Map<ServiceLocator.TypeNameKey, Supplier<?>> unlinkedProviders,
+                                          Map<Supplier<?>, String> scannedProviders) {
+      Map<Supplier<?>, ServiceLocator.TypeNameKey> manual = new IdentityHashMap<>();
+      manualProviders.forEach((key, provider) ->
+          manual.putIfAbsent(provider, new ServiceLocator.TypeNameKey(key.type.getName(), key.name)));
+
+      List<ResolutionPlan.Binding> bindings = new ArrayList<>();
+      Map<ServiceLocator.TypeNameKey, Supplier<?>> table = new LinkedHashMap<>();
+      allProviders.forEach((key, provider) ->
+          table.put(new ServiceLocator.TypeNameKey(key.type.getName(), key.name), provider));
+      table.putAll(unlinkedProviders);
+
+      table.forEach((key, provider) -> {
+        String component = scannedProviders.get(provider);
+        ServiceLocator.TypeNameKey manualKey = manual.get(provider);
+        if (component != null) {
+          bindings.add(new ResolutionPlan.Binding(key, component, null));
+        } else if (manualKey != null && !manualKey.equals(key)) {
+          bindings.add(new ResolutionPlan.Binding(key, null, manualKey));
+        }
+      });
+      return new ResolutionPlan(scanResults, bindings);
+    }
+
+    /**
+     * Registers the component bindings of a plan, linked eagerly or lazily like a scan would be.
+     */
+    private void registerPlanned(ResolutionPlan plan,
+                                 Map<Key, Supplier<?>> allProviders,
+                                 Map<ServiceLocator.TypeNameKey, Supplier<?>> unlinkedProviders,
+                                 Map<Supplier<?>, Class<?>> prototypes,
+                                 LongAdder classLoadingNanos, LongAdder providerCreationNanos) {
+      ClassLoader loader = DimensionDI.class.getClassLoader();
+      Map<String, DependencyScanner.ScanResult> components = new HashMap<>();
+      for (var result : plan.components()) components.put(result.className(), result);
+
+      Map<String, Supplier<?>> providers = new HashMap<>();
+      if (!lazyLinking && parallelPrelink) {
+        providers.putAll(prelink(plan.components(), hiddenClassProviders, classLoadingNanos, providerCreationNanos));
+      }
+
+      try {
+        for (var binding : plan.bindings()) {
+          if (binding.component() == null) continue;
+          DependencyScanner.ScanResult result = components.get(binding.component());
+          if (result == null) {
+            throw new IllegalStateException("Dimension-DI: Resolution plan binds " + binding.key()
+                                                + " to unknown component " + binding.component());
+          }
+
+          if (lazyLinking) {
+            unlinkedProviders.put(binding.key(), providers.computeIfAbsent(
+                result.className(), n -> ServiceLocator.lazyConstructorProvider(
+                    n, result.isSingleton(), loader, hiddenClassProviders)));
+            continue;
+          }
+
+          // same rule as the scan path: a supertype that cannot be loaded is skipped
+          long loadStart = System.nanoTime();
+          Class<?> type;
+          try {
+            type = Class.forName(binding.key().typeName());
+          } catch (ClassNotFoundException e) {
+            if (binding.key().typeName().equals(result.className())) throw e;
+            classLoadingNanos.add(System.nanoTime() - loadStart);
+            continue;
+          }
+          Supplier<?> provider = providers.get(result.className());
+          if (provider == null) {
+            Class<?> clazz = Class.forName(result.className());
+            long createStart = System.nanoTime();
+            classLoadingNanos.add(createStart - loadStart);
+            provider = ServiceLocator.createConstructorProvider(clazz, result.isSingleton(), hiddenClassProviders);
+            providerCreationNanos.add(System.nanoTime() - createStart);
+            providers.put(result.className(), provider);
+          } else {
+            classLoadingNanos.add(System.nanoTime() - loadStart);
+          }
+
+          allProviders.put(Key.of(type, binding.key().name()), provider);
+          if (composedPrototypes && !result.isSingleton() && binding.key().typeName().equals(result.className())) {
+            prototypes.put(provider, type);
+          }
+        }
+      } catch (ClassNotFoundException e) {
+        throw new RuntimeException("Dimension-DI: A class found during scan could not be loaded", e);
+      }
     }
 
-    private void createUnnamedAliases(Map<Key, Supplier<?>> allProviders) {
-      Map<Class<?>, List<Key>> namedKeysByType = new HashMap<>();
-      Set<Class<?>> typesWithUnnamed = new HashSet<>();
+    /**
+     * Aliases of a plan that point at manual providers; run after those are registered.
+     */
+    private void registerPlannedAliases(ResolutionPlan plan, Map<Key, Supplier<?>> allProviders) {
+      Map<ServiceLocator.TypeNameKey, Key> manual = new HashMap<>();
+      for (Key key : manualProviders.keySet()) {
+        manual.put(new ServiceLocator.TypeNameKey(key.type.getName(), key.name), key);
+      }
+
+      for (var binding : plan.bindings()) {
+        if (binding.manual() == null) continue;
+        Key target = manual.get(binding.manual());
+        if (target == null || !target.type.getName().equals(binding.key().typeName())) continue;
+        allProviders.put(Key.of(target.type, binding.key().name()), manualProviders.get(target));
+      }
+    }
+
+    /**
+     * Binding key -> scanned component, by type name; the one naming rule for eager, lazy and plan registration.
+     */
+    private Map<ServiceLocator.TypeNameKey, DependencyScanner.ScanResult> scannedBindings(
+        List<DependencyScanner.ScanResult> scanResults) {
+      return DimensionDI.scannedBindings(scanResults, manualKeys());
+    }
+
+    private Set<ServiceLocator.TypeNameKey> manualKeys() {
+      Set<ServiceLocator.TypeNameKey> keys = new HashSet<>();
+      for (Key key : manualProviders.keySet()) {
+        keys.add(new ServiceLocator.TypeNameKey(key.type.getName(), key.name));
+      }
+      return keys;
+    }
+
+    private DependencyGraph dependencyGraph(List<DependencyScanner.ScanResult> scanResults) {
+      Set<ServiceLocator.TypeNameKey> external = manualKeys();
+      for (var binding : factoryBindings) {
+        external.add(new ServiceLocator.TypeNameKey(binding.factoryInterface().getName(), null));
+      }
+      Set<String> intoSetTypes = new HashSet<>();
+      intoSetContributions.forEach((type, contributions) -> {
+        if (!contributions.isEmpty()) intoSetTypes.add(type.getName());
+      });
+      Set<String> intoMapTypes = new HashSet<>();
+      intoMapContributions.forEach((type, contributions) -> {
+        if (!contributions.isEmpty()) intoMapTypes.add(type.getName());
+      });
+
+      return new DependencyGraph(
+          scannedBindings(scanResults),
+          external,
+          intoSetTypes,
+          intoMapTypes,
+          // auto-aliasing turns a unique named binding into the unnamed one before any lookup
+          autoAliasUniqueNamed || ServiceLocator.isUnnamedFallbackEnabled(),
+          ServiceLocator.isNamedFallbackEnabled());
+    }
+
+    // Class.getSimpleName() of a top-level or member class, from its binary name
+    private static String simpleName(String className) {
+      String name = className.substring(className.lastIndexOf('.') + 1);
+      return name.substring(name.lastIndexOf('$') + 1);
+    }
+
+    private void createUnnamedAliases(Map<Key, Supplier<?>> allProviders,
+                                      Map<ServiceLocator.TypeNameKey, Supplier<?>> unlinkedProviders) {
+      // types are compared by name, so loaded and unlinked bindings of one type count together
+      Map<String, List<Key>> namedKeysByType = new HashMap<>();
+      Map<String, List<ServiceLocator.TypeNameKey>> namedUnlinkedKeysByType = new HashMap<>();
+      Set<String> typesWithUnnamed = new HashSet<>();
 
       for (Key key : allProviders.keySet()) {
         if (key.isNamed()) {
-          namedKeysByType.computeIfAbsent(key.type, k -> new ArrayList<>()).add(key);
+          namedKeysByType.computeIfAbsent(key.type.getName(), k -> new ArrayList<>()).add(key);
         } else {
-          typesWithUnnamed.add(key.type);
+          typesWithUnnamed.add(key.type.getName());
+        }
+      }
+      for (ServiceLocator.TypeNameKey key : unlinkedProviders.keySet()) {
+        if (key.isNamed()) {
+          namedUnlinkedKeysByType.computeIfAbsent(key.typeName(), k -> new ArrayList<>()).add(key);
+        } else {
+          typesWithUnnamed.add(key.typeName());
         }
       }
 
-      for (var entry : namedKeysByType.entrySet()) {
-        Class<?> type = entry.getKey();
-        List<Key> namedKeys = entry.getValue();
+      Set<String> namedTypes = new HashSet<>(namedKeysByType.keySet());
+      namedTypes.addAll(namedUnlinkedKeysByType.keySet());
+      for (String type : namedTypes) {
+        if (typesWithUnnamed.contains(type)) continue;
+        List<Key> namedKeys = namedKeysByType.getOrDefault(type, List.of());
+        List<ServiceLocator.TypeNameKey> namedUnlinkedKeys = namedUnlinkedKeysByType.getOrDefault(type, List.of());
+        if (namedKeys.size() + namedUnlinkedKeys.size() != 1) continue;
 
-        if (namedKeys.size() == 1 && !typesWithUnnamed.contains(type)) {
+        if (!namedKeys.isEmpty()) {
           Key namedKey = namedKeys.get(0);
-          Key unnamedKey = Key.of(type);
-          allProviders.put(unnamedKey, allProviders.get(namedKey));
+          allProviders.put(Key.of(namedKey.type), allProviders.get(namedKey));
+        } else {
+          ServiceLocator.TypeNameKey namedKey = namedUnlinkedKeys.get(0);
+          unlinkedProviders.put(new ServiceLocator.TypeNameKey(type, null), unlinkedProviders.get(namedKey));
         }
       }
     }
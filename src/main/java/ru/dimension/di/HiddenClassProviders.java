@@ -0,0 +1,308 @@
+package ru.dimension.di;
+
+import static java.lang.constant.ConstantDescs.*;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.TypeKind;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Constructor providers and assisted factories defined at runtime as hidden classes, written with
+ * the Class-File API.
+ *
+ * For a constructor {@code Foo(Bar bar, int size)} the provider is, in Java terms:
+ * <pre>
+ *   final class Foo$$DimensionSupplier implements Supplier {
+ *     private final Supplier d0, d1;
+ *     private final Consumer members;
+ *     public Object get() {
+ *       Foo instance = new Foo((Bar) d0.get(), ((Integer) d1.get()).intValue());
+ *       members.accept(instance);   // only when Foo has @Inject fields or methods
+ *       return instance;
+ *     }
+ *   }
+ * </pre>
+ * and for {@code Foo(Bar bar, @Assisted int size)} with {@code interface FooFactory { Foo create(int size); }}
+ * the factory is:
+ * <pre>
+ *   final class Foo$$DimensionFactory implements FooFactory {
+ *     private final Supplier d0;
+ *     private final Consumer members;
+ *     public Foo create(int size) {
+ *       Foo instance = new Foo((Bar) d0.get(), size);
+ *       ...
+ *     }
+ *   }
+ * </pre>
+ *
+ * Notes:
+ * - The class is a nestmate of the component, so package-private and private constructors are
+ *   called with a plain invokespecial; no Object[] and no MethodHandle on the call path.
+ * - Assisted arguments are passed as declared by the factory method: boxed or unboxed only where
+ *   the factory and constructor parameter types differ.
+ * - Apart from the factory interface only JDK types are referenced, so components from loaders
+ *   that cannot see Dimension-DI work too.
+ * - {@link #constant(MethodHandle)} wraps a composed prototype tree (see
+ *   {@link ServiceLocator#composePrototypes}) the same way, with the handle as class data.
+ * - Returns null whenever the class cannot be defined (no full-privilege lookup into the component's
+ *   module, types not visible from the component's loader, ...): callers fall back to the
+ *   MethodHandle provider or the Proxy factory. Only reflective, argument and linkage failures
+ *   count; a VirtualMachineError propagates.
+ * - Every fallback is recorded with its reason and reported in
+ *   {@link InitReport#hiddenClassFallbacks()}.
+ */
+final class HiddenClassProviders {
+
+  private static final ClassDesc CD_SUPPLIER = ClassDesc.of(Supplier.class.getName());
+  private static final ClassDesc CD_CONSUMER = ClassDesc.of(Consumer.class.getName());
+  private static final MethodTypeDesc MTD_INIT = MethodTypeDesc.of(CD_void, CD_SUPPLIER.arrayType(), CD_CONSUMER);
+  private static final MethodType MT_INIT = MethodType.methodType(void.class, Supplier[].class, Consumer.class);
+  private static final String SUPPLIER_SUFFIX = "$$DimensionSupplier";
+  private static final String FACTORY_SUFFIX = "$$DimensionFactory";
+  private static final ClassDesc CD_CONSTANT_SUPPLIER = ClassDesc.of(HiddenClassProviders.class.getName() + "$$Composed");
+  private static final MethodTypeDesc MTD_GET = MethodTypeDesc.of(CD_Object);
+
+  // class name -> why its hidden class could not be defined, since the last clearFallbacks()
+  private static final Map<String, String> fallbacks = new ConcurrentHashMap<>();
+
+  private HiddenClassProviders() {}
+
+  static Map<String, String> fallbacks() {
+    return Collections.unmodifiableMap(new TreeMap<>(fallbacks));
+  }
+
+  static void clearFallbacks() {
+    fallbacks.clear();
+  }
+
+  private static void fallback(Class<?> clazz, Throwable reason) {
+    fallbacks.put(clazz.getName(), reason.toString());
+  }
+
+  /**
+   * @param dependencies one supplier per constructor parameter, in order
+   * @param members      called with every new instance; null when there is nothing to inject
+   */
+  @SuppressWarnings("unchecked")
+  static <T> Supplier<T> define(Class<T> clazz, Constructor<?> ctor,
+                                Supplier<?>[] dependencies, Consumer<Object> members) {
+    try {
+      Class<?>[] params = ctor.getParameterTypes();
+      int[] factoryIndex = new int[params.length];
+      Arrays.fill(factoryIndex, -1);
+
+      Method get = Supplier.class.getMethod("get");
+      return (Supplier<T>) instantiate(clazz, Supplier.class, get, params, factoryIndex,
+                                       dependencies, members, SUPPLIER_SUFFIX);
+    } catch (ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+      fallback(clazz, e);
+      return null;
+    }
+  }
+
+  /**
+   * @param factoryIndex per constructor parameter: index of the factory method argument passed to it,
+   *                     or -1 when it is resolved from the matching dependency supplier
+   * @param dependencies per constructor parameter: supplier of a DI argument, null for assisted ones
+   * @param members      called with every new instance; null when there is nothing to inject
+   */
+  @SuppressWarnings("unchecked")
+  static <F> F defineFactory(Class<F> factoryInterface, Method factoryMethod,
+                             Class<?> clazz, Constructor<?> ctor, int[] factoryIndex,
+                             Supplier<?>[] dependencies, Consumer<Object> members) {
+    try {
+      return (F) instantiate(clazz, factoryInterface, factoryMethod, ctor.getParameterTypes(), factoryIndex,
+                             dependencies, members, FACTORY_SUFFIX);
+    } catch (ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+      fallback(clazz, e);
+      return null;
+    }
+  }
+
+  /**
+   * Supplier whose {@code get()} is {@code return (Object) HANDLE.invokeExact();} with the handle
+   * loaded from the hidden class data: a constant to the JIT, so the whole tree behind it can be
+   * inlined into the caller. Falls back to a plain lambda when the class cannot be defined.
+   *
+   * @param handle of type {@code ()Object}
+   * @param type   the prototype the handle creates, for the fallback record
+   */
+  static Supplier<Object> constant(MethodHandle handle, Class<?> type) {
+    try {
+      byte[] bytes = ClassFile.of().build(CD_CONSTANT_SUPPLIER, cb -> {
+        cb.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SUPER | ClassFile.ACC_SYNTHETIC)
+            .withInterfaceSymbols(CD_SUPPLIER);
+        cb.withMethodBody(INIT_NAME, MTD_void, ClassFile.ACC_PUBLIC, code -> code
+            .aload(0).invokespecial(CD_Object, INIT_NAME, MTD_void)
+            .return_());
+        cb.withMethodBody("get", MTD_GET, ClassFile.ACC_PUBLIC, code -> code
+            .ldc(DynamicConstantDesc.ofNamed(BSM_CLASS_DATA, DEFAULT_NAME, CD_MethodHandle))
+            .invokevirtual(CD_MethodHandle, "invokeExact", MTD_GET)
+            .areturn());
+      });
+      MethodHandles.Lookup hidden = MethodHandles.lookup().defineHiddenClassWithClassData(bytes, handle, true);
+      @SuppressWarnings("unchecked")
+      Supplier<Object> s = (Supplier<Object>) newInstance(
+          hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)));
+      return s;
+    } catch (ReflectiveOperationException | IllegalArgumentException | LinkageError e) {
+      fallback(type, e);
+      return () -> {
+        try {
+          return (Object) handle.invokeExact();
+        } catch (RuntimeException | Error t) {
+          throw t;
+        } catch (Throwable t) {
+          throw new RuntimeException(t);
+        }
+      };
+    }
+  }
+
+  private static Object instantiate(Class<?> clazz, Class<?> iface, Method method, Class<?>[] params,
+                                    int[] factoryIndex, Supplier<?>[] dependencies,
+                                    Consumer<Object> members, String suffix)
+      throws ReflectiveOperationException {
+    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+    // everything the hidden class links against must resolve to the same class from clazz's loader
+    checkVisible(lookup, iface);
+    checkVisible(lookup, method.getReturnType());
+    for (Class<?> p : method.getParameterTypes()) checkVisible(lookup, p);
+    for (Class<?> p : params) checkVisible(lookup, p);
+
+    byte[] bytes = generate(clazz, iface, method, params, factoryIndex, members != null, suffix);
+    MethodHandles.Lookup hidden = lookup.defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE);
+    return newInstance(hidden.findConstructor(hidden.lookupClass(), MT_INIT), dependencies, members);
+  }
+
+  // the generated constructors only store their arguments: anything checked they throw is unexpected
+  private static Object newInstance(MethodHandle constructor, Object... args) throws InvocationTargetException {
+    try {
+      return constructor.invokeWithArguments(args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  private static void checkVisible(MethodHandles.Lookup lookup, Class<?> type) throws ReflectiveOperationException {
+    while (type.isArray()) type = type.getComponentType();
+    if (type.isPrimitive()) return;
+    if (lookup.findClass(type.getName()) != type) {
+      throw new ClassNotFoundException(type.getName() + " resolves to another class from " + lookup.lookupClass());
+    }
+  }
+
+  private static byte[] generate(Class<?> clazz, Class<?> iface, Method method, Class<?>[] params,
+                                 int[] factoryIndex, boolean injectMembers, String suffix) {
+    ClassDesc target = desc(clazz);
+    // same package as the component, as defineHiddenClass requires
+    ClassDesc self = ClassDesc.of(clazz.getName() + suffix);
+
+    ClassDesc[] paramDescs = new ClassDesc[params.length];
+    for (int i = 0; i < params.length; i++) paramDescs[i] = desc(params[i]);
+    MethodTypeDesc ctorDesc = MethodTypeDesc.of(CD_void, paramDescs);
+
+    Class<?>[] methodParams = method.getParameterTypes();
+    ClassDesc[] methodParamDescs = new ClassDesc[methodParams.length];
+    for (int i = 0; i < methodParams.length; i++) methodParamDescs[i] = desc(methodParams[i]);
+    Class<?> returnType = method.getReturnType();
+    MethodTypeDesc methodDesc = MethodTypeDesc.of(desc(returnType), methodParamDescs);
+
+    return ClassFile.of().build(self, cb -> {
+      cb.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SUPER | ClassFile.ACC_SYNTHETIC)
+          .withInterfaceSymbols(desc(iface));
+      for (int i = 0; i < params.length; i++) {
+        if (factoryIndex[i] < 0) cb.withField("d" + i, CD_SUPPLIER, ClassFile.ACC_PRIVATE | ClassFile.ACC_FINAL);
+      }
+      cb.withField("members", CD_CONSUMER, ClassFile.ACC_PRIVATE | ClassFile.ACC_FINAL);
+
+      cb.withMethodBody(INIT_NAME, MTD_INIT, ClassFile.ACC_PUBLIC, code -> {
+        code.aload(0).invokespecial(CD_Object, INIT_NAME, MTD_void);
+        for (int i = 0; i < params.length; i++) {
+          if (factoryIndex[i] >= 0) continue;
+          code.aload(0).aload(1).loadConstant(Integer.valueOf(i)).aaload()
+              .putfield(self, "d" + i, CD_SUPPLIER);
+        }
+        code.aload(0).aload(2).putfield(self, "members", CD_CONSUMER);
+        code.return_();
+      });
+
+      cb.withMethodBody(method.getName(), methodDesc, ClassFile.ACC_PUBLIC, code -> {
+        code.new_(target).dup();
+        for (int i = 0; i < params.length; i++) {
+          int arg = factoryIndex[i];
+          if (arg < 0) {
+            code.aload(0).getfield(self, "d" + i, CD_SUPPLIER)
+                .invokeinterface(CD_SUPPLIER, "get", MethodTypeDesc.of(CD_Object));
+            cast(code, params[i], paramDescs[i]);
+          } else {
+            code.loadLocal(TypeKind.from(methodParamDescs[arg]), code.parameterSlot(arg));
+            convert(code, methodParams[arg], params[i]);
+          }
+        }
+        code.invokespecial(target, INIT_NAME, ctorDesc);
+        if (injectMembers) {
+          code.dup().aload(0).getfield(self, "members", CD_CONSUMER).swap()
+              .invokeinterface(CD_CONSUMER, "accept", MethodTypeDesc.of(CD_void, CD_Object));
+        }
+        // a factory may declare a subtype of the target class
+        if (!returnType.isAssignableFrom(clazz)) code.checkcast(desc(returnType));
+        code.areturn();
+      });
+    });
+  }
+
+  private static ClassDesc desc(Class<?> type) {
+    return type.describeConstable()
+        .orElseThrow(() -> new IllegalArgumentException(type.getName() + " has no nominal descriptor"));
+  }
+
+  // Object -> parameter type: checkcast, plus unboxing for primitives
+  private static void cast(CodeBuilder code, Class<?> type, ClassDesc desc) {
+    if (type.isPrimitive()) {
+      unbox(code, type);
+    } else if (type != Object.class) {
+      code.checkcast(desc);
+    }
+  }
+
+  // factory argument -> compatible constructor parameter type (see ServiceLocator.isTypeCompatible)
+  private static void convert(CodeBuilder code, Class<?> from, Class<?> to) {
+    if (from == to) return;
+    if (from.isPrimitive()) {
+      ClassDesc wrapper = desc(wrapper(from));
+      code.invokestatic(wrapper, "valueOf", MethodTypeDesc.of(wrapper, desc(from)));
+    } else if (to.isPrimitive()) {
+      unbox(code, to);
+    }
+    // reference -> supertype needs no instruction
+  }
+
+  private static void unbox(CodeBuilder code, Class<?> primitive) {
+    ClassDesc wrapper = desc(wrapper(primitive));
+    code.checkcast(wrapper)
+        .invokevirtual(wrapper, primitive.getName() + "Value", MethodTypeDesc.of(desc(primitive)));
+  }
+
+  private static Class<?> wrapper(Class<?> primitive) {
+    return MethodType.methodType(primitive).wrap().returnType();
+  }
+}
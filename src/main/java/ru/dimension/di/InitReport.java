@@ -0,0 +1,34 @@
+package ru.dimension.di;
+
+import java.util.Map;
+
+/**
+ * Startup report of {@link DimensionDI.Builder#buildAndInit()}.
+ *
+ * Notes:
+ * - scan is null when no packages were scanned or their components came from a
+ *   {@link DimensionDI.Builder#resolutionPlanFile resolution plan}.
+ * - classLoadingNanos covers Class.forName of scanned classes and their supertypes,
+ *   providerCreationNanos covers constructor lookup and MethodHandle creation. Both are
+ *   summed over worker threads with parallel prelinking, and near zero with lazy linking,
+ *   where that work moves to the first lookup.
+ * - registrationNanos covers manual bindings, aliases, locator and factory registration.
+ * - bindings counts every registered key, including interface and alias keys.
+ * - hiddenClassFallbacks maps each class whose hidden-class provider or factory could not be
+ *   defined to the reason, sorted by class name; those classes use the MethodHandle provider or
+ *   the Proxy factory. Lazily linked classes only show up once linked, so with lazy linking
+ *   this covers what {@link DimensionDI#train()} or the factories touched during startup.
+ * - training is the result of {@link DimensionDI#train()} with
+ *   {@link DimensionDI.Builder#trainingRun(boolean)} on, null otherwise; totalNanos does not include it.
+ */
+public record InitReport(
+    long totalNanos,
+    ScanReport scan,
+    long classLoadingNanos,
+    long providerCreationNanos,
+    long registrationNanos,
+    int scannedComponents,
+    int bindings,
+    Map<String, String> hiddenClassFallbacks,
+    TrainingReport training
+) {}
@@ -0,0 +1,158 @@
+package ru.dimension.di;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The ".class" entries of one jar, grouped by package.
+ *
+ * Notes:
+ * - Keys are package paths ("a/b"), values the simple file names without ".class"; the package
+ *   prefix is stored once per package, not once per entry.
+ * - package-info and module-info are dropped when the jar is listed.
+ * - Indexes are kept in a process-wide LRU cache bounded by the total number of entries,
+ *   so a few fat jars cannot pin the heap. Local jars are re-listed when their size or mtime change.
+ */
+final class JarEntryIndex {
+
+  /**
+   * Upper bound on the class entries held by all cached jars together.
+   */
+  static final int MAX_CACHED_ENTRIES = 250_000;
+
+  private static final String[] NO_NAMES = new String[0];
+
+  // access-ordered: the least recently scanned jar is evicted first
+  private static final LinkedHashMap<String, JarEntryIndex> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+  private static int cachedEntries;
+
+  private final Map<String, String[]> byPackage;
+  private final int size;
+  private final String stamp;
+
+  private JarEntryIndex(Map<String, String[]> byPackage, int size, String stamp) {
+    this.byPackage = byPackage;
+    this.size = size;
+    this.stamp = stamp;
+  }
+
+  /**
+   * Cached index of the connection's jar, listing it on a miss or when the jar file changed.
+   */
+  static JarEntryIndex of(JarURLConnection conn) throws IOException {
+    String jarId = conn.getJarFileURL().toExternalForm();
+    String stamp = stamp(jarId);
+
+    synchronized (CACHE) {
+      JarEntryIndex cached = CACHE.get(jarId);
+      if (cached != null && Objects.equals(cached.stamp, stamp)) return cached;
+    }
+
+    // listed outside the lock; concurrent misses on one jar just list it twice
+    JarEntryIndex index = list(conn, stamp);
+    synchronized (CACHE) {
+      put(jarId, index);
+    }
+    return index;
+  }
+
+  /**
+   * Drops the cached index of one jar (its URL as "file:/x.jar").
+   */
+  static void invalidate(String jarId) {
+    synchronized (CACHE) {
+      JarEntryIndex removed = CACHE.remove(jarId);
+      if (removed != null) cachedEntries -= removed.size;
+    }
+  }
+
+  static void invalidateAll() {
+    synchronized (CACHE) {
+      CACHE.clear();
+      cachedEntries = 0;
+    }
+  }
+
+  static int cachedEntryCount() {
+    synchronized (CACHE) {
+      return cachedEntries;
+    }
+  }
+
+  Set<String> packages() {
+    return byPackage.keySet();
+  }
+
+  /**
+   * Simple names (without ".class") of the classes directly in the package path "a/b".
+   */
+  String[] classesIn(String packagePath) {
+    return byPackage.getOrDefault(packagePath, NO_NAMES);
+  }
+
+  int size() {
+    return size;
+  }
+
+  private static void put(String jarId, JarEntryIndex index) {
+    JarEntryIndex previous = CACHE.remove(jarId);
+    if (previous != null) cachedEntries -= previous.size;
+
+    // a jar larger than the whole budget is used once and not kept
+    if (index.size > MAX_CACHED_ENTRIES) return;
+
+    Iterator<JarEntryIndex> eldest = CACHE.values().iterator();
+    while (cachedEntries + index.size > MAX_CACHED_ENTRIES && eldest.hasNext()) {
+      cachedEntries -= eldest.next().size;
+      eldest.remove();
+    }
+    CACHE.put(jarId, index);
+    cachedEntries += index.size;
+  }
+
+  private static JarEntryIndex list(JarURLConnection conn, String stamp) throws IOException {
+    // jar order, so scan results stay in entry order
+    LinkedHashMap<String, List<String>> grouped = new LinkedHashMap<>();
+    int size = 0;
+    try (JarFile jar = conn.getJarFile()) {
+      Enumeration<JarEntry> entries = jar.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry e = entries.nextElement();
+        if (e.isDirectory()) continue;
+        String name = e.getName();
+        if (!name.endsWith(".class")) continue;
+
+        int slash = name.lastIndexOf('/');
+        String simple = name.substring(slash + 1, name.length() - ".class".length());
+        if (simple.equals("package-info") || simple.equals("module-info")) continue;
+
+        String packagePath = slash < 0 ? "" : name.substring(0, slash);
+        grouped.computeIfAbsent(packagePath, _p -> new ArrayList<>()).add(simple);
+        size++;
+      }
+    }
+
+    LinkedHashMap<String, String[]> byPackage = LinkedHashMap.newLinkedHashMap(grouped.size());
+    grouped.forEach((pkg, names) -> byPackage.put(pkg, names.toArray(NO_NAMES)));
+    return new JarEntryIndex(byPackage, size, stamp);
+  }
+
+  /**
+   * Size + mtime of a local jar; null for nested jars and other URL schemes (cached until invalidated).
+   */
+  private static String stamp(String jarId) {
+    if (!jarId.startsWith("file:")) return null;
+    try {
+      BasicFileAttributes attrs = Files.readAttributes(Paths.get(URI.create(jarId)), BasicFileAttributes.class);
+      return attrs.size() + "|" + attrs.lastModifiedTime().toMillis();
+    } catch (IOException | IllegalArgumentException | FileSystemNotFoundException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package ru.dimension.di;
+
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.FieldModel;
+import java.lang.classfile.MethodModel;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.reflect.AccessFlag;
+import java.util.*;
+import ru.dimension.di.DependencyScanner.Dependency;
+import ru.dimension.di.DependencyScanner.ScanResult;
+
+/**
+ * Build-time generator of GraalVM native-image reachability metadata
+ * ({@code META-INF/native-image/<groupId>/<artifactId>/reachability-metadata.json}) for everything
+ * {@link ServiceLocator} reaches reflectively in the scanned packages:
+ * <pre>
+ *   { "reflection": [
+ *     { "type": "app.Car",
+ *       "methods": [ { "name": "&lt;init&gt;", "parameterTypes": [ "app.Engine", "java.util.List" ] } ],
+ *       "fields": [ { "name": "spare" } ] },
+ *     { "type": "app.Engine" },
+ *     { "type": { "proxy": [ "app.TicketFactory" ] } },
+ *     ...
+ *   ] }
+ * </pre>
+ *
+ * Registered:
+ * - every scanned component with the constructor ServiceLocator calls, and its supertypes
+ *   (loaded by name for the supertype bindings);
+ * - {@code @Inject} fields and methods, on the class that declares them, for the whole superclass chain;
+ * - the {@code INSTANCE} field of generated {@code $DimensionFactory} classes from {@code di-processor};
+ * - assisted factory interfaces, i.e. interfaces in the scanned packages whose single abstract method
+ *   returns a component with {@link Assisted} parameters: all their methods plus a Proxy;
+ * - the JSR-330 and {@link Assisted} annotation types.
+ *
+ * Notes:
+ * - Components are found with the scanner configuration of the builder or {@link DependencyScanner.Config}
+ *   passed in; their members come from the class files ({@link ClassFiles}), not from the component index.
+ * - Hidden-class providers and factories are not available in a native image; ServiceLocator falls
+ *   back to the MethodHandle provider and the Proxy factory covered here.
+ * - Entries are sorted, so the output only changes when the metadata does.
+ */
+public final class NativeImageMetadata {
+
+  private static final List<String> ANNOTATIONS = List.of(
+      "jakarta.inject.Inject", "jakarta.inject.Named", "jakarta.inject.Singleton", Assisted.class.getName());
+
+  private final ClassFiles classFiles;
+  private final DependencyScanner.Config config;
+
+  private final Map<String, Entry> reflection = new TreeMap<>();
+  private final Set<String> proxies = new TreeSet<>();
+  private final Set<String> assistedComponents = new HashSet<>();
+
+  /**
+   * Members of one type, sorted; a method is "name(parameter types)".
+   */
+  private static final class Entry {
+    final Map<String, List<String>> methods = new TreeMap<>();
+    final Set<String> fields = new TreeSet<>();
+  }
+
+  private NativeImageMetadata(DependencyScanner.Config config) {
+    this.classFiles = ClassFiles.ofContextLoader();
+    // constructors and annotations are read from the class files, so index entries are not used
+    this.config = config.withUseComponentIndex(false);
+  }
+
+  /**
+   * Contents of {@code reachability-metadata.json}, with the default JSR-330 scanner configuration.
+   *
+   * @param packages packages to scan, as for {@link DimensionDI.Builder#scanPackages(String...)}
+   */
+  public static String generate(String... packages) {
+    return generate(DependencyScanner.Config.defaultsJakartaInject(), packages);
+  }
+
+  /**
+   * Contents of {@code reachability-metadata.json} for the packages and scanner settings of a builder
+   * (annotations, implicit constructors, class filters); its other options do not affect the metadata.
+   */
+  public static String generate(DimensionDI.Builder builder) {
+    return generate(builder.scannerConfig(), builder.scannedPackages());
+  }
+
+  /**
+   * Contents of {@code reachability-metadata.json} with a custom scanner configuration.
+   *
+   * @param packages packages to scan, as for {@link DimensionDI.Builder#scanPackages(String...)}
+   */
+  public static String generate(DependencyScanner.Config config, String... packages) {
+    Objects.requireNonNull(config, "config");
+    return new NativeImageMetadata(config).run(packages);
+  }
+
+  private String run(String[] packages) {
+    List<ScanResult> scanResults = packages.length == 0 ? List.of() : DependencyScanner.scan(config, packages);
+
+    for (ScanResult result : scanResults) {
+      component(result);
+    }
+    if (packages.length > 0) {
+      for (String className : DependencyScanner.classNames(config, packages)) {
+        factoryInterface(className);
+      }
+    }
+    for (String annotation : ANNOTATIONS) entry(annotation);
+
+    return json();
+  }
+
+  // =========================================================================
+  // Types
+  // =========================================================================
+
+  private void component(ScanResult result) {
+    String className = result.className();
+    ClassModel model = classFiles.read(className);
+    if (model == null) return;
+
+    MethodModel ctor = ClassFiles.constructor(model, config.injectConstructorAnnotations());
+    if (ctor != null) method(className, ctor);
+    if (result.dependencies() != null && result.dependencies().stream().anyMatch(Dependency::assisted)) {
+      assistedComponents.add(className);
+    }
+
+    // ServiceLocator walks getDeclaredFields / getDeclaredMethods of every superclass
+    for (ClassModel c = model; c != null; c = classFiles.superclass(c)) {
+      String owner = DependencyScanner.binaryName(c.thisClass().asSymbol());
+      entry(owner);
+      for (FieldModel f : c.fields()) {
+        if (ClassFiles.isInjected(f, config.injectConstructorAnnotations())) {
+          entry(owner).fields.add(f.fieldName().stringValue());
+        }
+      }
+      for (MethodModel m : c.methods()) {
+        if (ClassFiles.isInjected(m, config.injectConstructorAnnotations())) method(owner, m);
+      }
+    }
+
+    for (String supertype : result.supertypes()) entry(supertype);
+
+    String factory = ServiceLocator.generatedFactoryName(className);
+    if (classFiles.read(factory) != null) entry(factory).fields.add("INSTANCE");
+  }
+
+  private void factoryInterface(String className) {
+    ClassModel model = classFiles.read(className);
+    if (model == null || !model.flags().has(AccessFlag.INTERFACE) || model.flags().has(AccessFlag.ANNOTATION)) {
+      return;
+    }
+
+    List<MethodModel> abstractMethods = model.methods().stream()
+        .filter(m -> m.flags().has(AccessFlag.ABSTRACT))
+        .toList();
+    if (abstractMethods.size() != 1) return;
+    String returnType = DependencyScanner.binaryName(abstractMethods.get(0).methodTypeSymbol().returnType());
+    if (!assistedComponents.contains(returnType)) return;
+
+    // the abstract method is called through the Proxy, default methods with invokeDefault
+    for (MethodModel m : model.methods()) {
+      if (!m.flags().has(AccessFlag.STATIC) && !m.methodName().equalsString("<clinit>")) method(className, m);
+    }
+    proxies.add(className);
+  }
+
+  private Entry entry(String type) {
+    return reflection.computeIfAbsent(type, t -> new Entry());
+  }
+
+  private void method(String owner, MethodModel m) {
+    MethodTypeDesc type = m.methodTypeSymbol();
+    List<String> parameterTypes = new ArrayList<>(type.parameterCount());
+    for (ClassDesc p : type.parameterList()) parameterTypes.add(typeName(p));
+    String name = m.methodName().stringValue();
+    entry(owner).methods.put(name + "(" + String.join(",", parameterTypes) + ")", parameterTypes);
+  }
+
+  // "int", "a.b.Outer$Inner", "java.lang.String[]", as the metadata expects them
+  private static String typeName(ClassDesc desc) {
+    return desc.isArray() ? typeName(desc.componentType()) + "[]" : DependencyScanner.binaryName(desc);
+  }
+
+  // =========================================================================
+  // JSON
+  // =========================================================================
+
+  private String json() {
+    StringJoiner entries = new StringJoiner(",\n", "{\n  \"reflection\": [\n", "\n  ]\n}\n");
+
+    reflection.forEach((type, entry) -> {
+      StringBuilder out = new StringBuilder("    {\n      \"type\": ").append(quote(type));
+      if (!entry.methods.isEmpty()) {
+        StringJoiner methods = new StringJoiner(",\n", ",\n      \"methods\": [\n", "\n      ]");
+        entry.methods.forEach((signature, parameterTypes) -> {
+          StringJoiner params = new StringJoiner(", ", "[", "]");
+          for (String p : parameterTypes) params.add(quote(p));
+          String name = signature.substring(0, signature.indexOf('('));
+          methods.add("        { \"name\": " + quote(name) + ", \"parameterTypes\": " + params + " }");
+        });
+        out.append(methods);
+      }
+      if (!entry.fields.isEmpty()) {
+        StringJoiner fields = new StringJoiner(",\n", ",\n      \"fields\": [\n", "\n      ]");
+        for (String f : entry.fields) fields.add("        { \"name\": " + quote(f) + " }");
+        out.append(fields);
+      }
+      entries.add(out.append("\n    }"));
+    });
+    for (String proxy : proxies) {
+      entries.add("    {\n      \"type\": { \"proxy\": [" + quote(proxy) + "] }\n    }");
+    }
+    return entries.toString();
+  }
+
+  private static String quote(String s) {
+    StringBuilder out = new StringBuilder("\"");
+    for (char c : s.toCharArray()) {
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        default -> {
+          if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+          else out.append(c);
+        }
+      }
+    }
+    return out.append('"').toString();
+  }
+}
@@ -0,0 +1,154 @@
+package ru.dimension.di;
+
+import java.util.*;
+
+/**
+ * Requested base packages as a prefix trie over package segments.
+ *
+ * Notes:
+ * - A package covers itself and all of its subpackages, so "com.acme.billing" adds nothing
+ *   once "com.acme" is present.
+ * - {@link #topPackages()} are the packages that are not covered by another one: walking just
+ *   those visits every requested class exactly once.
+ * - Lookups walk the name in place (segment by segment), without splitting it into parts:
+ *   children are a small open-addressing table probed with the hash of the name region.
+ */
+final class PackageTrie {
+
+  private static final class Node {
+    private String[] keys = new String[4];
+    private Node[] values = new Node[4];
+    private int size;
+    boolean terminal;
+
+    /**
+     * Child for the segment name[start, end), or null.
+     */
+    Node get(String name, int start, int end) {
+      int mask = keys.length - 1;
+      for (int i = hash(name, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+        String key = keys[i];
+        if (key.length() == end - start && name.regionMatches(start, key, 0, key.length())) return values[i];
+      }
+      return null;
+    }
+
+    Node getOrAdd(String segment) {
+      Node node = get(segment, 0, segment.length());
+      if (node != null) return node;
+
+      // load factor at most 1/2, so probes stay short and a free slot always exists
+      if (2 * (size + 1) > keys.length) resize();
+      node = new Node();
+      insert(segment, node);
+      size++;
+      return node;
+    }
+
+    private void insert(String key, Node node) {
+      int mask = keys.length - 1;
+      int i = hash(key, 0, key.length()) & mask;
+      while (keys[i] != null) i = (i + 1) & mask;
+      keys[i] = key;
+      values[i] = node;
+    }
+
+    private void resize() {
+      String[] oldKeys = keys;
+      Node[] oldValues = values;
+      keys = new String[oldKeys.length * 2];
+      values = new Node[oldKeys.length * 2];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != null) insert(oldKeys[i], oldValues[i]);
+      }
+    }
+
+    // String.hashCode of name[start, end), spread like HashMap does
+    private static int hash(String name, int start, int end) {
+      int h = 0;
+      for (int i = start; i < end; i++) h = 31 * h + name.charAt(i);
+      return h ^ (h >>> 16);
+    }
+  }
+
+  private final Node root = new Node();
+  // insertion order, to keep scan order stable
+  private final List<String> packages = new ArrayList<>();
+
+  static PackageTrie of(Collection<String> packages) {
+    PackageTrie trie = new PackageTrie();
+    for (String p : packages) trie.add(p);
+    return trie;
+  }
+
+  void add(String basePackage) {
+    Node node = root;
+    int start = 0;
+    while (true) {
+      int dot = basePackage.indexOf('.', start);
+      String segment = dot < 0 ? basePackage.substring(start) : basePackage.substring(start, dot);
+      node = node.getOrAdd(segment);
+      if (dot < 0) break;
+      start = dot + 1;
+    }
+    if (!node.terminal) {
+      node.terminal = true;
+      packages.add(basePackage);
+    }
+  }
+
+  /**
+   * Requested packages that are not subpackages of another requested package, in insertion order.
+   */
+  List<String> topPackages() {
+    List<String> out = new ArrayList<>();
+    for (String p : packages) {
+      if (!coveredByAncestor(p)) out.add(p);
+    }
+    return out;
+  }
+
+  /**
+   * True if the class (binary name "a.b.C" or entry name "a/b/C.class") is in a requested package
+   * or one of its subpackages.
+   */
+  boolean coversClass(String name, char separator) {
+    int end = name.lastIndexOf(separator);
+    if (end < 0) return false; // default package is never scanned
+    return covers(name, end, separator);
+  }
+
+  /**
+   * True if the package ("a.b" or "a/b") is a requested package or one of its subpackages.
+   */
+  boolean coversPackage(String packageName, char separator) {
+    return covers(packageName, packageName.length(), separator);
+  }
+
+  // walks the segments of name[0, end)
+  private boolean covers(String name, int end, char separator) {
+    Node node = root;
+    int start = 0;
+    while (start < end) {
+      int next = name.indexOf(separator, start);
+      if (next < 0 || next > end) next = end;
+      node = node.get(name, start, next);
+      if (node == null) return false;
+      if (node.terminal) return true;
+      start = next + 1;
+    }
+    return false;
+  }
+
+  private boolean coveredByAncestor(String basePackage) {
+    Node node = root;
+    int start = 0;
+    int dot;
+    while ((dot = basePackage.indexOf('.', start)) >= 0) {
+      node = node.get(basePackage, start, dot);
+      if (node.terminal) return true;
+      start = dot + 1;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,130 @@
+package ru.dimension.di;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import ru.dimension.di.ServiceLocator.TypeNameKey;
+
+/**
+ * Opt-in plan file of {@link DimensionDI.Builder#buildAndInit()}: the scanned components (with their
+ * constructor dependencies) and the final binding table, so a later start with the same classpath
+ * skips the scan, the supertype naming ("#n" suffixes) and the unnamed alias computation.
+ *
+ * Notes:
+ * - key covers {@link DependencyScanner#classpathFingerprint} and every builder setting that changes
+ *   the table (manual keys, auto-aliasing, lazy linking); only its SHA-256 is stored.
+ * - The roots holding the components' supertypes are checked as well, like in {@link ScanCache}:
+ *   a changed library jar can change the supertype bindings, so the plan is a miss.
+ * - A binding points either at a scanned component or, for an alias, at a manual key; manual
+ *   providers themselves are never stored, they are registered from the builder as usual.
+ * - Same file handling as {@link ScanCache}: memory-mapped read, write-then-rename, a stale, foreign
+ *   or corrupt file is a miss and write failures are ignored.
+ */
+final class ResolutionPlan {
+
+  private static final int MAGIC = 0xD1A0_7A17;
+  private static final int VERSION = 2;
+
+  /**
+   * key -> scanned component (component set) or manual binding (manual set).
+   */
+  record Binding(TypeNameKey key, String component, TypeNameKey manual) {}
+
+  private final List<DependencyScanner.ScanResult> components;
+  private final List<Binding> bindings;
+
+  ResolutionPlan(List<DependencyScanner.ScanResult> components, List<Binding> bindings) {
+    this.components = List.copyOf(components);
+    this.bindings = List.copyOf(bindings);
+  }
+
+  List<DependencyScanner.ScanResult> components() {
+    return components;
+  }
+
+  List<Binding> bindings() {
+    return bindings;
+  }
+
+  /**
+   * Returns null on a miss.
+   */
+  static ResolutionPlan read(Path file, String key) {
+    if (!Files.isRegularFile(file)) return null;
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+      if (!ScanCache.sha256(key).equals(ScanCache.readString(in))) return null;
+
+      List<DependencyScanner.ScanResult> components = ScanCache.readResults(in);
+      if (!ScanCache.readString(in).equals(DependencyScanner.supertypeFingerprint(components))) return null;
+      int count = in.getInt();
+      if (count < 0 || count > in.remaining()) return null;
+      List<Binding> bindings = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        TypeNameKey bindingKey = readKey(in);
+        if (in.get() != 0) {
+          bindings.add(new Binding(bindingKey, null, readKey(in)));
+        } else {
+          bindings.add(new Binding(bindingKey, ScanCache.readString(in), null));
+        }
+      }
+      return new ResolutionPlan(components, bindings);
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  void write(Path file, String key) {
+    String supertypes = DependencyScanner.supertypeFingerprint(components);
+    if (supertypes == null) return;
+
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      ScanCache.writeString(out, ScanCache.sha256(key));
+
+      ScanCache.writeResults(out, components);
+      ScanCache.writeString(out, supertypes);
+      out.writeInt(bindings.size());
+      for (Binding b : bindings) {
+        writeKey(out, b.key());
+        if (b.manual() != null) {
+          out.writeByte(1);
+          writeKey(out, b.manual());
+        } else {
+          out.writeByte(0);
+          ScanCache.writeString(out, b.component());
+        }
+      }
+      out.flush();
+
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) Files.createDirectories(parent);
+      ScanCache.replace(file, bytes);
+    } catch (IOException | UnsupportedOperationException ignored) {
+      // best effort
+    }
+  }
+
+  private static void writeKey(DataOutputStream out, TypeNameKey key) throws IOException {
+    ScanCache.writeString(out, key.typeName());
+    ScanCache.writeNullableString(out, key.name());
+  }
+
+  private static TypeNameKey readKey(ByteBuffer in) {
+    return new TypeNameKey(ScanCache.readString(in), ScanCache.readNullableString(in));
+  }
+}
@@ -0,0 +1,286 @@
+package ru.dimension.di;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Opt-in on-disk cache of {@link DependencyScanner.ScanResult}s, one file per classpath root.
+ *
+ * Notes:
+ * - Jars are fingerprinted by path + size + mtime.
+ * - Directories are fingerprinted by a digest over relative path + size + mtime of every
+ *   ".class" file under the scanned packages (hashing file contents would re-read every class).
+ * - The scanner config and package list are part of the key: changing either rescans the root.
+ * - Supertype closures reach into other roots (library jars, other directories), so every root
+ *   holding one of the cached supertypes is fingerprinted as well; see
+ *   {@link DependencyScanner#supertypeFingerprint}. JDK modules are keyed by the runtime version.
+ * - Files are read through a memory-mapped buffer; a stale, foreign or corrupt file is a miss.
+ * - Write failures are ignored: the cache only ever saves work, it never fails a scan.
+ */
+final class ScanCache {
+
+  private static final int MAGIC = 0xD1CA_C4E1;
+  private static final int VERSION = 5;
+
+  private final Path directory;
+
+  ScanCache(Path directory) {
+    this.directory = Objects.requireNonNull(directory, "directory");
+  }
+
+  // =========================================================================
+  // Keys
+  // =========================================================================
+
+  /**
+   * Returns null if the root cannot be fingerprinted (nested jars, exotic URLs, missing files).
+   */
+  static String fingerprint(String rootUrl, List<String> packages) throws IOException {
+    if (rootUrl.startsWith("jrt:")) return "jrt|" + Runtime.version();
+
+    if (rootUrl.startsWith("jar:")) {
+      // only plain "jar:file:/x.jar!/" roots; nested jars have no stable file to stat
+      Path jar = DependencyScanner.localJarPath(rootUrl);
+      if (jar == null) return null;
+
+      BasicFileAttributes attrs = Files.readAttributes(jar, BasicFileAttributes.class);
+      return "jar|" + jar.toAbsolutePath() + "|" + attrs.size() + "|" + attrs.lastModifiedTime().toMillis();
+    }
+
+    Path root = toPath(rootUrl);
+    if (root == null || !Files.isDirectory(root)) return null;
+
+    List<String> lines = new ArrayList<>();
+    for (String pkg : new TreeSet<>(packages)) {
+      Path packageDir = root.resolve(pkg.replace('.', File.separatorChar));
+      if (!Files.isDirectory(packageDir)) continue;
+
+      Files.walkFileTree(packageDir, new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+          if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".class")) {
+            lines.add(root.relativize(file).toString().replace(File.separatorChar, '/')
+                          + "|" + attrs.size() + "|" + attrs.lastModifiedTime().toMillis());
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+    Collections.sort(lines);
+    return "dir|" + sha256(String.join("\n", lines));
+  }
+
+  /**
+   * Everything besides the classpath contents that changes the scan result of a root.
+   */
+  static String configKey(DependencyScanner.Config config, List<String> packages) {
+    return String.join("|",
+        String.join(",", new TreeSet<>(config.injectConstructorAnnotations())),
+        String.join(",", new TreeSet<>(config.singletonClassAnnotations())),
+        Boolean.toString(config.allowPublicNoArgConstructor()),
+        config.classFilter().key(),
+        String.join(",", new TreeSet<>(packages)));
+  }
+
+  private static Path toPath(String url) {
+    try {
+      return Paths.get(URI.create(url));
+    } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+      return null;
+    }
+  }
+
+  // =========================================================================
+  // Read / write
+  // =========================================================================
+
+  /**
+   * Returns null on a miss. loader is the one the scan resolves supertypes with.
+   */
+  List<DependencyScanner.ScanResult> read(String rootUrl, String fingerprint, String configKey, ClassLoader loader) {
+    Path file = fileFor(rootUrl);
+    if (!Files.isRegularFile(file)) return null;
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+      if (!rootUrl.equals(readString(in))) return null;
+      if (!fingerprint.equals(readString(in))) return null;
+      if (!configKey.equals(readString(in))) return null;
+
+      List<DependencyScanner.ScanResult> results = readResults(in);
+      if (!readString(in).equals(DependencyScanner.supertypeFingerprint(loader, results))) return null;
+      return results;
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  void write(String rootUrl, String fingerprint, String configKey, List<DependencyScanner.ScanResult> results,
+             ClassLoader loader) {
+    String supertypes = DependencyScanner.supertypeFingerprint(loader, results);
+    if (supertypes == null) return;
+
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      writeString(out, rootUrl);
+      writeString(out, fingerprint);
+      writeString(out, configKey);
+
+      writeResults(out, results);
+      writeString(out, supertypes);
+      out.flush();
+
+      Files.createDirectories(directory);
+      replace(fileFor(rootUrl), bytes);
+    } catch (IOException | UnsupportedOperationException ignored) {
+      // best effort
+    }
+  }
+
+  /**
+   * Write-then-rename, so concurrent readers never see a partial file.
+   */
+  static void replace(Path file, ByteArrayOutputStream bytes) throws IOException {
+    Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream os = Files.newOutputStream(tmp)) {
+        bytes.writeTo(os);
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  private Path fileFor(String rootUrl) {
+    return directory.resolve(sha256(rootUrl).substring(0, 32) + ".scan");
+  }
+
+  // =========================================================================
+  // Encoding (shared with ResolutionPlan)
+  // =========================================================================
+
+  static void writeResults(DataOutputStream out, List<DependencyScanner.ScanResult> results) throws IOException {
+    out.writeInt(results.size());
+    for (DependencyScanner.ScanResult r : results) {
+      writeString(out, r.className());
+      out.writeByte(r.isSingleton() ? 1 : 0);
+      writeStrings(out, r.supertypes());
+      writeStrings(out, r.matchedInjectCtorAnnotations());
+      writeStrings(out, r.matchedSingletonAnnotations());
+      writeDependencies(out, r.dependencies());
+    }
+  }
+
+  static List<DependencyScanner.ScanResult> readResults(ByteBuffer in) {
+    int count = in.getInt();
+    if (count < 0 || count > in.remaining()) throw new IllegalArgumentException("Corrupt scan cache entry");
+    List<DependencyScanner.ScanResult> results = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      results.add(new DependencyScanner.ScanResult(
+          readString(in),
+          in.get() != 0,
+          readStrings(in),
+          readStrings(in),
+          readStrings(in),
+          readDependencies(in)
+      ));
+    }
+    return List.copyOf(results);
+  }
+
+  static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(b.length);
+    out.write(b);
+  }
+
+  private static void writeStrings(DataOutputStream out, Set<String> strings) throws IOException {
+    out.writeInt(strings.size());
+    for (String s : strings) writeString(out, s);
+  }
+
+  static void writeNullableString(DataOutputStream out, String s) throws IOException {
+    if (s == null) out.writeInt(-1);
+    else writeString(out, s);
+  }
+
+  // -1 for unknown dependencies
+  private static void writeDependencies(DataOutputStream out, List<DependencyScanner.Dependency> deps)
+      throws IOException {
+    if (deps == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(deps.size());
+    for (DependencyScanner.Dependency d : deps) {
+      writeString(out, d.type());
+      writeNullableString(out, d.signature());
+      writeNullableString(out, d.named());
+      out.writeByte(d.assisted() ? 1 : 0);
+    }
+  }
+
+  static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length < 0 || length > in.remaining()) throw new IllegalArgumentException("Corrupt scan cache entry");
+    byte[] b = new byte[length];
+    in.get(b);
+    return new String(b, StandardCharsets.UTF_8);
+  }
+
+  private static Set<String> readStrings(ByteBuffer in) {
+    int n = in.getInt();
+    if (n == 0) return Set.of();
+    LinkedHashSet<String> out = new LinkedHashSet<>(n * 2);
+    for (int i = 0; i < n; i++) out.add(readString(in));
+    return Collections.unmodifiableSet(out);
+  }
+
+  static String readNullableString(ByteBuffer in) {
+    if (in.getInt(in.position()) == -1) {
+      in.getInt();
+      return null;
+    }
+    return readString(in);
+  }
+
+  private static List<DependencyScanner.Dependency> readDependencies(ByteBuffer in) {
+    int n = in.getInt();
+    if (n == -1) return null;
+    if (n < 0 || n > in.remaining()) throw new IllegalArgumentException("Corrupt scan cache entry");
+    List<DependencyScanner.Dependency> out = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      out.add(new DependencyScanner.Dependency(
+          readString(in), readNullableString(in), readNullableString(in), in.get() != 0));
+    }
+    return List.copyOf(out);
+  }
+
+  static String sha256(String s) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
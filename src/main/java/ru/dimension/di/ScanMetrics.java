@@ -0,0 +1,95 @@
+package ru.dimension.di;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import ru.dimension.di.ScanReport.Phase;
+import ru.dimension.di.ScanReport.Rejection;
+import ru.dimension.di.ScanReport.RootTiming;
+
+/**
+ * Thread-safe counters filled in by {@link DependencyScanner} and turned into a {@link ScanReport}.
+ * {@link #DISABLED} ignores every call, for callers that do not want a report.
+ */
+final class ScanMetrics {
+
+  static final ScanMetrics DISABLED = new ScanMetrics(false);
+
+  /**
+   * Number of roots kept in {@link ScanReport#slowestRoots()}.
+   */
+  static final int SLOWEST_ROOTS = 5;
+
+  private final boolean enabled;
+  private final LongAdder[] phaseNanos = adders(Phase.values().length);
+  private final LongAdder[] rejected = adders(Rejection.values().length);
+  private final LongAdder bytesRead = new LongAdder();
+  private final Queue<RootTiming> roots = new ConcurrentLinkedQueue<>();
+
+  ScanMetrics() {
+    this(true);
+  }
+
+  private ScanMetrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * Current time when enabled, 0 otherwise; pair with {@link #phase(Phase, long)}.
+   */
+  long start() {
+    return enabled ? System.nanoTime() : 0L;
+  }
+
+  void phase(Phase phase, long startNanos) {
+    if (enabled) phaseNanos[phase.ordinal()].add(System.nanoTime() - startNanos);
+  }
+
+  void read(long startNanos, int bytes) {
+    if (!enabled) return;
+    phaseNanos[Phase.READ.ordinal()].add(System.nanoTime() - startNanos);
+    bytesRead.add(bytes);
+  }
+
+  void reject(Rejection reason) {
+    if (enabled) rejected[reason.ordinal()].increment();
+  }
+
+  void reject(Rejection reason, int count) {
+    if (enabled && count > 0) rejected[reason.ordinal()].add(count);
+  }
+
+  void root(String url, ScanReport.Source source, long startNanos, int classesAccepted) {
+    if (enabled) roots.add(new RootTiming(url, source, System.nanoTime() - startNanos, classesAccepted));
+  }
+
+  ScanReport toReport(long totalNanos, int classesAccepted) {
+    EnumMap<Phase, Long> phases = new EnumMap<>(Phase.class);
+    for (Phase p : Phase.values()) phases.put(p, phaseNanos[p.ordinal()].sum());
+
+    EnumMap<Rejection, Integer> rejections = new EnumMap<>(Rejection.class);
+    int examined = classesAccepted;
+    for (Rejection r : Rejection.values()) {
+      int count = rejected[r.ordinal()].intValue();
+      rejections.put(r, count);
+      examined += count;
+    }
+
+    List<RootTiming> slowest = roots.stream()
+        .sorted(Comparator.comparingLong(RootTiming::nanos).reversed())
+        .limit(SLOWEST_ROOTS)
+        .toList();
+
+    return new ScanReport(totalNanos, phases, bytesRead.sum(), examined, classesAccepted, rejections, slowest);
+  }
+
+  private static LongAdder[] adders(int n) {
+    LongAdder[] out = new LongAdder[n];
+    for (int i = 0; i < n; i++) out[i] = new LongAdder();
+    return out;
+  }
+}
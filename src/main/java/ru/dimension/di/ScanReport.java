@@ -0,0 +1,77 @@
+package ru.dimension.di;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What one classpath scan did and where its time went.
+ *
+ * Notes:
+ * - Phase timings are summed over all worker threads, so in parallel mode they can exceed totalNanos.
+ * - classesExamined = classesAccepted + all rejections; classes served from the scan cache
+ *   only count as accepted.
+ * - slowestRoots holds the classpath entries that took longest, slowest first.
+ */
+public record ScanReport(
+    long totalNanos,
+    Map<Phase, Long> phaseNanos,
+    long bytesRead,
+    int classesExamined,
+    int classesAccepted,
+    Map<Rejection, Integer> rejected,
+    List<RootTiming> slowestRoots
+) {
+
+  public enum Phase {
+    /** Locating the classpath entries of the requested packages. */
+    RESOLVE_ROOTS,
+    /** Reading build-time component indexes. */
+    INDEX,
+    /** Fingerprinting roots and reading/writing the persistent scan cache. */
+    CACHE,
+    /** Walking package directories. */
+    DIRECTORY_WALK,
+    /** Listing and filtering jar entries. */
+    JAR_LISTING,
+    /** Reading class bytes. */
+    READ,
+    /** Constant-pool pre-filter. */
+    PREFILTER,
+    /** Class-File parsing and annotation matching. */
+    PARSE
+  }
+
+  public enum Rejection {
+    /** Excluded by include/exclude rules before reading. */
+    FILTERED,
+    /** Dropped by the constant-pool pre-filter before parsing. */
+    PREFILTER,
+    /** Abstract class, interface or annotation. */
+    NOT_CONCRETE,
+    /** No inject-annotated (or allowed public no-arg) constructor. */
+    NOT_INJECTABLE,
+    /** Already found in an earlier classpath entry. */
+    DUPLICATE
+  }
+
+  public enum Source { SCAN, INDEX, CACHE }
+
+  /**
+   * One classpath entry: its URL, how its results were obtained, wall time and accepted classes.
+   */
+  public record RootTiming(String url, Source source, long nanos, int classesAccepted) {}
+
+  public ScanReport {
+    phaseNanos = Map.copyOf(phaseNanos);
+    rejected = Map.copyOf(rejected);
+    slowestRoots = List.copyOf(slowestRoots);
+  }
+
+  public long phaseNanos(Phase phase) {
+    return phaseNanos.getOrDefault(phase, 0L);
+  }
+
+  public int rejected(Rejection reason) {
+    return rejected.getOrDefault(reason, 0);
+  }
+}
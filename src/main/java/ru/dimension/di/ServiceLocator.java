@@ -1,10 +1,19 @@
 package ru.dimension.di;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
@@ -26,25 +35,74 @@ public final class ServiceLocator {
   // Public key type
   // =========================================================================
 
+  /**
+   * Binding key. {@link #of} returns canonical instances, so lookups allocate nothing: the
+   * unnamed key of a class is cached in a ClassValue, named keys are interned per class once a
+   * binding is registered under them. A name that only normalizes to an interned one (e.g. with
+   * surrounding blanks) is cached as passed on its first lookup, so later hits skip normalization.
+   * Named keys are dropped by {@link ServiceLocator#clear()} together with the registry.
+   * Keys compare by value, so keys built elsewhere still match.
+   */
   public static final class Key {
+    private static final ClassValue<Key> UNNAMED = new ClassValue<>() {
+      @Override
+      protected Key computeValue(Class<?> type) {
+        return new Key(type, null);
+      }
+    };
+    // type -> name (normalized or as passed) -> interned key
+    private static final Map<Class<?>, Map<String, Key>> NAMED = new ConcurrentHashMap<>();
+
     public final Class<?> type;
     public final String name;
+    private final int hash;
 
     Key(Class<?> type, String name) {
       this.type = Objects.requireNonNull(type, "type");
       this.name = normalizeName(name);
+      this.hash = 31 * type.hashCode() + Objects.hashCode(this.name);
     }
 
     public static Key of(Class<?> type) {
-      return new Key(type, null);
+      return UNNAMED.get(type);
     }
 
     public static Key of(Class<?> type, String name) {
-      return new Key(type, name);
+      if (name == null) return of(type);
+      Map<String, Key> named = NAMED.get(type);
+      if (named != null) {
+        Key interned = named.get(name);
+        if (interned != null) return interned;
+      }
+
+      String n = normalizeName(name);
+      if (n == null) return of(type);
+      if (named != null && !n.equals(name)) {
+        Key interned = named.get(n);
+        if (interned != null) {
+          named.putIfAbsent(name, interned);
+          return interned;
+        }
+      }
+      return new Key(type, n);
+    }
+
+    /**
+     * Canonical instance of this key; later {@link #of} calls with the same name return it.
+     * Only registered keys are interned, and only names resolving to them are cached, so lookups
+     * of unregistered names do not grow the cache.
+     */
+    Key intern() {
+      if (name == null) return of(type);
+      return NAMED.computeIfAbsent(type, _t -> new ConcurrentHashMap<>()).computeIfAbsent(name, _n -> this);
+    }
+
+    static void clearInterned() {
+      NAMED.clear();
     }
 
     public Key unnamed() {
-      return name == null ? this : new Key(type, null);
+      return name == null ? this : of(type);
     }
 
     public boolean isNamed() {
@@ -55,12 +113,12 @@ public final class ServiceLocator {
     public boolean equals(Object o) {
       if (this == o) return true;
       if (!(o instanceof Key k)) return false;
-      return type.equals(k.type) && Objects.equals(name, k.name);
+      return hash == k.hash && type.equals(k.type) && Objects.equals(name, k.name);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(type, name);
+      return hash;
     }
 
     @Override
@@ -104,7 +162,11 @@ public final class ServiceLocator {
   // =========================================================================
 
   private static final Map<Key, Supplier<?>> providers = new ConcurrentHashMap<>();
+  // type name -> (binding name or null -> provider), moved into providers when the type is first asked for
+  private static final Map<String, Map<String, Supplier<?>>> unlinked = new ConcurrentHashMap<>();
   private static final ThreadLocal<Deque<Key>> creationStack = ThreadLocal.withInitial(ArrayDeque::new);
+  // bumped after every change that can make a lookup pick another provider; drops bound dependencies
+  private static final AtomicInteger registryVersion = new AtomicInteger();
 
   // =========================================================================
   // Dagger-style multibind registries
@@ -113,6 +175,9 @@ public final class ServiceLocator {
   private static final Map<Class<?>, List<Supplier<?>>> intoSetContributions = new ConcurrentHashMap<>();
   private static final Map<Class<?>, Map<String, Supplier<?>>> intoMapContributions = new ConcurrentHashMap<>();
 
+  // factory interfaces of createFactorySupplier, called once more by a training run
+  private static final Set<Class<?>> factoryInterfaces = ConcurrentHashMap.newKeySet();
+
   public static void initMultibindings(
       Map<Class<?>, ? extends List<Supplier<?>>> sets,
       Map<Class<?>, ? extends Map<String, Supplier<?>>> maps
@@ -143,21 +208,129 @@ public final class ServiceLocator {
 
   public static void setNamedFallbackEnabled(boolean enabled) {
     namedFallbackEnabled = enabled;
+    registryVersion.incrementAndGet();
   }
 
   public static void setUnnamedFallbackEnabled(boolean enabled) {
     unnamedFallbackEnabled = enabled;
+    registryVersion.incrementAndGet();
+  }
+
+  static boolean isNamedFallbackEnabled() {
+    return namedFallbackEnabled;
+  }
+
+  static boolean isUnnamedFallbackEnabled() {
+    return unnamedFallbackEnabled;
   }
 
   public static void clear() {
     providers.clear();
+    unlinked.clear();
     intoSetContributions.clear();
     intoMapContributions.clear();
+    factoryInterfaces.clear();
+    Key.clearInterned();
+    registryVersion.incrementAndGet();
   }
 
   public static void init(Map<Key, Supplier<?>> map) {
     clear();
-    providers.putAll(map);
+    map.forEach((key, provider) -> providers.put(key.intern(), provider));
+    registryVersion.incrementAndGet();
+  }
+
+  // =========================================================================
+  // Lazy linking
+  // =========================================================================
+
+  /**
+   * Binding key by type name, for bindings whose type has not been loaded yet.
+   */
+  record TypeNameKey(String typeName, String name) {
+    TypeNameKey {
+      Objects.requireNonNull(typeName, "typeName");
+      name = normalizeName(name);
+    }
+
+    boolean isNamed() {
+      return name != null;
+    }
+  }
+
+  /**
+   * Adds bindings keyed by type name. Nothing is loaded here: a type's bindings are linked
+   * (turned into regular {@link Key}s) the first time that type is looked up, and bindings
+   * already registered for the same key take precedence. Call after {@link #init(Map)}.
+   */
+  static void initUnlinked(Map<TypeNameKey, Supplier<?>> map) {
+    for (var e : map.entrySet()) {
+      unlinked.computeIfAbsent(e.getKey().typeName(), _t -> new LinkedHashMap<>())
+          .put(e.getKey().name(), e.getValue());
+    }
+    registryVersion.incrementAndGet();
+  }
+
+  // Only adds keys of this type, and a lookup links its type before reading providers, so bindings
+  // bound earlier stay valid: no registryVersion change here.
+  private static void link(Class<?> type) {
+    if (unlinked.isEmpty()) return;
+    // lookups of the same type wait here until its bindings are visible in providers
+    unlinked.computeIfPresent(type.getName(), (_t, pending) -> {
+      pending.forEach((name, supplier) -> providers.putIfAbsent(Key.of(type, name).intern(), supplier));
+      return null;
+    });
+  }
+
+  /**
+   * Provider for a scanned class that is loaded (without initialization) and reflected on
+   * only when the provider is first called.
+   */
+  static Supplier<?> lazyConstructorProvider(String className, boolean singleton, ClassLoader loader,
+                                             boolean hiddenClass) {
+    return new LazyConstructorSupplier(className, singleton, loader, hiddenClass);
+  }
+
+  static Supplier<?> lazyConstructorProvider(String className, boolean singleton, ClassLoader loader) {
+    return lazyConstructorProvider(className, singleton, loader, false);
+  }
+
+  private static final class LazyConstructorSupplier implements Supplier<Object> {
+    private final String className;
+    private final boolean singleton;
+    private final ClassLoader loader;
+    private final boolean hiddenClass;
+    private volatile Supplier<?> delegate;
+
+    private LazyConstructorSupplier(String className, boolean singleton, ClassLoader loader, boolean hiddenClass) {
+      this.className = className;
+      this.singleton = singleton;
+      this.loader = loader;
+      this.hiddenClass = hiddenClass;
+    }
+
+    @Override
+    public Object get() {
+      return delegate().get();
+    }
+
+    private Supplier<?> delegate() {
+      Supplier<?> d = delegate;
+      if (d == null) {
+        synchronized (this) {
+          d = delegate;
+          if (d == null) {
+            try {
+              delegate = d = createConstructorProvider(
+                  Class.forName(className, false, loader), singleton, hiddenClass);
+            } catch (ClassNotFoundException e) {
+              throw new IllegalStateException("Dimension-DI: A class found during scan could not be loaded", e);
+            }
+          }
+        }
+      }
+      return d;
+    }
   }
 
   // =========================================================================
@@ -165,29 +338,35 @@ public final class ServiceLocator {
   // =========================================================================
 
   public static <T> void registerProvider(Class<T> type, Supplier<? extends T> provider) {
-    providers.put(Key.of(type), provider);
+    put(Key.of(type), provider);
   }
 
   public static <T> void registerProvider(Class<T> type, String name, Supplier<? extends T> provider) {
-    providers.put(Key.of(type, name), provider);
+    put(Key.of(type, name), provider);
   }
 
   public static <T> void registerInstance(Class<T> type, T instance) {
-    providers.put(Key.of(type), () -> instance);
+    put(Key.of(type), () -> instance);
   }
 
   public static <T> void registerInstance(Class<T> type, String name, T instance) {
-    providers.put(Key.of(type, name), () -> instance);
+    put(Key.of(type, name), () -> instance);
   }
 
   public static void alias(Key alias, Key target) {
+    link(target.type);
     Supplier<?> s = providers.get(target);
     if (s == null) throw new IllegalStateException("No provider for target: " + target);
-    providers.put(alias, s);
+    put(alias, s);
   }
 
   public static <T> void override(Key key, Supplier<? extends T> provider) {
-    providers.put(key, provider);
+    put(key, provider);
+  }
+
+  private static void put(Key key, Supplier<?> provider) {
+    providers.put(key.intern(), provider);
+    registryVersion.incrementAndGet();
   }
 
   // =========================================================================
@@ -203,11 +382,13 @@ public final class ServiceLocator {
   }
 
   public static boolean has(Class<?> type) {
+    link(type);
     if (providers.containsKey(Key.of(type))) return true;
     return unnamedFallbackEnabled && findUniqueNamedBinding(type) != null;
   }
 
   public static boolean has(Class<?> type, String name) {
+    link(type);
     if (providers.containsKey(Key.of(type, name))) return true;
     return namedFallbackEnabled && providers.containsKey(Key.of(type));
   }
@@ -253,6 +434,7 @@ public final class ServiceLocator {
    * (Unnamed binding is NOT included.)
    */
   public static <T> Map<String, T> getNamedMap(Class<T> type) {
+    link(type);
     TreeMap<String, T> out = new TreeMap<>();
     for (Key k : providers.keySet()) {
       if (k.type.equals(type) && k.isNamed()) {
@@ -267,6 +449,14 @@ public final class ServiceLocator {
   // =========================================================================
 
   private static Object getInternal(Key key) {
+    return callWithCycleDetection(key, findProvider(key));
+  }
+
+  /**
+   * Provider a lookup of key uses, after lazy linking and the fallbacks.
+   */
+  private static Supplier<?> findProvider(Key key) {
+    link(key.type);
     Supplier<?> supplier = providers.get(key);
 
     // Fallback: unnamed -> single named
@@ -285,8 +475,7 @@ public final class ServiceLocator {
     if (supplier == null) {
       throw new IllegalStateException("No provider registered for " + key);
     }
-
-    return callWithCycleDetection(key, supplier);
+    return supplier;
   }
 
   private static Object callWithCycleDetection(Key key, Supplier<?> supplier) {
@@ -326,6 +515,7 @@ public final class ServiceLocator {
   }
 
   private static List<Key> keysForType(Class<?> type) {
+    link(type);
     List<Key> named = new ArrayList<>();
     Key unnamed = Key.of(type);
     boolean hasUnnamed = providers.containsKey(unnamed);
@@ -380,7 +570,94 @@ public final class ServiceLocator {
   // Dependency resolution (supports collections + explicit multibind)
   // =========================================================================
 
-  private record Dependency(Class<?> rawType, Type genericType, String named) {}
+  /**
+   * One injection point: constructor or method parameter, or field.
+   *
+   * Notes:
+   * - Bound lazily, on its first resolution: the kind (single,
+   *   List/Collection, Set, Map) and element type are read once, and a single binding keeps the
+   *   provider of its key, so later resolutions skip the type checks, Key allocation, map lookup and
+   *   fallbacks. As a Supplier it resolves itself.
+   * - The provider is tied to the registryVersion it was found under; registration, override, alias,
+   *   init and the fallback flags bump the version, so the next resolution looks it up again.
+   * - Collections still go through resolveList / resolveSet / resolveMap, whose contents follow
+   *   the registry.
+   * - Invalid generics are not bound and fail on every resolution, as before.
+   */
+  private static final class Dependency implements Supplier<Object> {
+    final Class<?> rawType;
+    final Type genericType;
+    final String named;
+
+    private volatile Target target;
+    private volatile Bound bound;
+
+    Dependency(Class<?> rawType, Type genericType, String named) {
+      this.rawType = rawType;
+      this.genericType = genericType;
+      this.named = named;
+    }
+
+    @Override
+    public Object get() {
+      return resolveDependency(this);
+    }
+
+    Target target() {
+      Target t = target;
+      if (t == null) target = t = Target.of(this);
+      return t;
+    }
+
+    Supplier<?> provider(Key key) {
+      int version = registryVersion.get(); // read before the lookup, so a concurrent change wins
+      Bound b = bound;
+      if (b != null && b.version() == version) return b.provider();
+
+      Supplier<?> provider = findProvider(key);
+      bound = new Bound(version, provider);
+      return provider;
+    }
+  }
+
+  private enum Kind { SINGLE, LIST, SET, MAP }
+
+  /**
+   * What a dependency resolves to: the key of a single binding, or the element / value type of a collection.
+   */
+  private record Target(Kind kind, Class<?> type, Key key) {
+    static Target of(Dependency dep) {
+      Class<?> raw = dep.rawType;
+
+      // List<T> / Collection<T>
+      if (raw == List.class || raw == Collection.class) {
+        return new Target(Kind.LIST, extractSingleGeneric(dep.genericType, 0, "List/Collection"), null);
+      }
+
+      // Set<T>
+      if (raw == Set.class) {
+        return new Target(Kind.SET, extractSingleGeneric(dep.genericType, 0, "Set"), null);
+      }
+
+      // Map<String, T>
+      if (raw == Map.class) {
+        if (!(dep.genericType instanceof ParameterizedType pt) || pt.getActualTypeArguments().length != 2) {
+          throw new IllegalStateException("Map injection requires Map<String, T> with generics");
+        }
+        Class<?> keyType = typeToClass(pt.getActualTypeArguments()[0]);
+        if (keyType != String.class) {
+          throw new IllegalStateException("Map injection only supports Map<String, T>, got Map<"
+                                              + keyType.getName() + ", ...>");
+        }
+        return new Target(Kind.MAP, typeToClass(pt.getActualTypeArguments()[1]), null);
+      }
+
+      // Normal single binding
+      return new Target(Kind.SINGLE, raw, dep.named != null ? Key.of(raw, dep.named) : Key.of(raw));
+    }
+  }
+
+  private record Bound(int version, Supplier<?> provider) {}
 
   private static String readNamed(jakarta.inject.Named named) {
     if (named == null) return null;
@@ -428,69 +705,55 @@ public final class ServiceLocator {
   }
 
   private static Object resolveDependency(Dependency dep) {
-    Class<?> raw = dep.rawType;
-    String named = dep.named;
-
-    // List<T> / Collection<T>
-    if (raw == List.class || raw == Collection.class) {
-      Class<?> elem = extractSingleGeneric(dep.genericType, 0, "List/Collection");
-
-      if (named != null) {
-        Object one = get(elem, named);
-        return List.of(one);
-      }
-
-      // Explicit multibind takes precedence
-      if (hasIntoSet(elem)) {
-        return resolveIntoSetAsList(elem);
-      }
-
-      return getAll(elem);
-    }
-
-    // Set<T>
-    if (raw == Set.class) {
-      Class<?> elem = extractSingleGeneric(dep.genericType, 0, "Set");
-
-      if (named != null) {
-        Object one = get(elem, named);
-        return Set.of(one);
-      }
-
-      if (hasIntoSet(elem)) {
-        return resolveIntoSetAsSet(elem);
-      }
-
-      return getAllSet(elem);
-    }
-
-    // Map<String, T>
-    if (raw == Map.class) {
-      if (!(dep.genericType instanceof ParameterizedType pt) || pt.getActualTypeArguments().length != 2) {
-        throw new IllegalStateException("Map injection requires Map<String, T> with generics");
-      }
-      Class<?> keyType = typeToClass(pt.getActualTypeArguments()[0]);
-      if (keyType != String.class) {
-        throw new IllegalStateException("Map injection only supports Map<String, T>, got Map<"
-                                            + keyType.getName() + ", ...>");
-      }
-      Class<?> valueType = typeToClass(pt.getActualTypeArguments()[1]);
+    Target t = dep.target();
+    return switch (t.kind()) {
+      case SINGLE -> callWithCycleDetection(t.key(), dep.provider(t.key()));
+      case LIST -> resolveList(t.type(), dep.named);
+      case SET -> resolveSet(t.type(), dep.named);
+      case MAP -> resolveMap(t.type(), dep.named);
+    };
+  }
 
-      if (named != null) {
-        Object one = get(valueType, named);
-        return Map.of(named, one);
-      }
+  /**
+   * Value of a plain dependency under exactly {@code Key.of(type, named)}, without a cast, so a
+   * primitive parameter resolves the same {@code int.class} key here as on the reflective path.
+   * Called by generated {@link ConstructorFactory} implementations.
+   */
+  public static Object resolve(Class<?> type, String named) {
+    return getInternal(Key.of(type, named));
+  }
 
-      if (hasIntoMap(valueType)) {
-        return resolveIntoMap(valueType);
-      }
+  /**
+   * Value of a {@code List<T>} or {@code Collection<T>} dependency: the named binding alone,
+   * else the intoSet contributions (explicit multibind takes precedence), else every binding of T.
+   * Also called by generated {@link ConstructorFactory} implementations.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> List<T> resolveList(Class<T> elementType, String named) {
+    if (named != null) return List.of(get(elementType, named));
+    if (hasIntoSet(elementType)) return (List<T>) resolveIntoSetAsList(elementType);
+    return getAll(elementType);
+  }
 
-      return getNamedMap(valueType);
-    }
+  /**
+   * Value of a {@code Set<T>} dependency, resolved like {@link #resolveList(Class, String)}.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Set<T> resolveSet(Class<T> elementType, String named) {
+    if (named != null) return Set.of(get(elementType, named));
+    if (hasIntoSet(elementType)) return (Set<T>) resolveIntoSetAsSet(elementType);
+    return getAllSet(elementType);
+  }
 
-    // Normal single binding
-    Key key = named != null ? Key.of(raw, named) : Key.of(raw);
-    return getInternal(key);
+  /**
+   * Value of a {@code Map<String, T>} dependency: the named binding alone, else the intoMap
+   * contributions, else every named binding of T.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Map<String, T> resolveMap(Class<T> valueType, String named) {
+    if (named != null) return Map.of(named, get(valueType, named));
+    if (hasIntoMap(valueType)) return (Map<String, T>) resolveIntoMap(valueType);
+    return getNamedMap(valueType);
   }
 
   private static Class<?> extractSingleGeneric(Type genericType, int idx, String context) {
@@ -529,21 +792,30 @@ public final class ServiceLocator {
   // =========================================================================
 
   public static <T> Supplier<T> createConstructorProvider(Class<T> clazz, boolean singleton) {
+    return createConstructorProvider(clazz, singleton, false);
+  }
+
+  /**
+   * Same as {@link #createConstructorProvider(Class, boolean)}; with hiddenClass set, classes without a
+   * generated {@link ConstructorFactory} get a provider from {@link HiddenClassProviders} instead of
+   * the MethodHandle one, when it can be defined.
+   */
+  static <T> Supplier<T> createConstructorProvider(Class<T> clazz, boolean singleton, boolean hiddenClass) {
+    ConstructorFactory<T> generated = generatedFactory(clazz);
+    if (generated != null) {
+      Supplier<T> s = generated::create;
+      return singleton ? singleton(s) : s;
+    }
+
     Constructor<?> ctor = findInjectConstructor(clazz);
 
     boolean hasAssistedParams = Arrays.stream(ctor.getParameters())
         .anyMatch(p -> p.isAnnotationPresent(Assisted.class));
 
     if (hasAssistedParams) {
-      return () -> {
-        throw new IllegalStateException(
-            "Class " + clazz.getName() + " has @Assisted parameters and must be created via a factory. " +
-                "Use ServiceLocator.create() or register a factory with DimensionDI.Builder.bindFactory()");
-      };
+      return new AssistedGuard<>(clazz);
     }
 
-    MethodHandle mh = unreflectConstructor(clazz, ctor);
-
     Parameter[] params = ctor.getParameters();
     Dependency[] deps = new Dependency[params.length];
     for (int i = 0; i < params.length; i++) {
@@ -552,6 +824,13 @@ public final class ServiceLocator {
       deps[i] = new Dependency(p.getType(), p.getParameterizedType(), name);
     }
 
+    if (hiddenClass) {
+      Supplier<T> s = hiddenClassProvider(clazz, ctor, deps);
+      if (s != null) return singleton ? singleton(s) : s;
+    }
+
+    MethodHandle mh = unreflectConstructor(clazz, ctor);
+
     Supplier<T> s = () -> {
       Object[] args = new Object[deps.length];
       for (int i = 0; i < deps.length; i++) {
@@ -576,74 +855,483 @@ public final class ServiceLocator {
     return singleton ? singleton(s) : s;
   }
 
+  /**
+   * Provider of a class with {@code @Assisted} constructor parameters, which is only created through a factory.
+   */
+  private static final class AssistedGuard<T> implements Supplier<T> {
+    private final Class<T> type;
+
+    private AssistedGuard(Class<T> type) {
+      this.type = type;
+    }
+
+    @Override
+    public T get() {
+      throw new IllegalStateException(
+          "Class " + type.getName() + " has @Assisted parameters and must be created via a factory. " +
+              "Use ServiceLocator.create() or register a factory with DimensionDI.Builder.bindFactory()");
+    }
+  }
+
+  private static <T> Supplier<T> hiddenClassProvider(Class<T> clazz, Constructor<?> ctor, Dependency[] deps) {
+    Consumer<Object> members = hasInjectedMembers(clazz) ? ServiceLocator::injectMembers : null;
+    Supplier<T> s = HiddenClassProviders.define(clazz, ctor, deps, members);
+    if (s == null || ctor.getExceptionTypes().length == 0) return s;
+
+    // checked constructor exceptions are wrapped like on the MethodHandle path
+    return () -> {
+      try {
+        return s.get();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new RuntimeException("Failed to instantiate " + clazz.getName(), t);
+      }
+    };
+  }
+
+  private static boolean hasInjectedMembers(Class<?> clazz) {
+    for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field f : c.getDeclaredFields()) {
+        if (f.isAnnotationPresent(jakarta.inject.Inject.class)) return true;
+      }
+      for (Method m : c.getDeclaredMethods()) {
+        if (m.isAnnotationPresent(jakarta.inject.Inject.class)) return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Suffix of generated {@link ConstructorFactory} classes; the di-processor uses the same one.
+   */
+  static final String GENERATED_FACTORY_SUFFIX = "$DimensionFactory";
+
+  /**
+   * Written by the di-processor: binary names of the classes it generated a factory for, one per line.
+   */
+  static final String GENERATED_FACTORY_INDEX = "META-INF/dimension-di/factories.idx";
+
+  // class loader -> classes with a generated factory, from every index the loader sees; read once per loader
+  private static final Map<ClassLoader, Set<String>> generatedFactoryIndexes =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * {@code a.b.Outer$Inner} -> {@code a.b.Outer$Inner$DimensionFactory}: the binary name plus a
+   * '$' suffix, so no two classes share a factory name.
+   */
+  static String generatedFactoryName(String className) {
+    return className + GENERATED_FACTORY_SUFFIX;
+  }
+
+  /**
+   * The compile-time generated factory of a class, or null when there is none or it cannot be used.
+   * Only classes listed in a {@link #GENERATED_FACTORY_INDEX} visible to their class loader are
+   * looked up, so a build without the di-processor never probes for factory classes.
+   */
+  @SuppressWarnings("unchecked")
+  static <T> ConstructorFactory<T> generatedFactory(Class<T> clazz) {
+    ClassLoader loader = clazz.getClassLoader();
+    if (loader == null || !generatedFactoryIndexes
+        .computeIfAbsent(loader, ServiceLocator::readGeneratedFactoryIndex)
+        .contains(clazz.getName())) {
+      return null;
+    }
+
+    String factoryName = generatedFactoryName(clazz.getName());
+    Class<?> factoryClass;
+    try {
+      factoryClass = Class.forName(factoryName, true, loader);
+    } catch (ClassNotFoundException e) {
+      // stale index entry: the factory was deleted without recompiling the index
+      return null;
+    }
+
+    // a class of that name that is not a usable factory leaves the class on the MethodHandle provider
+    try {
+      Object instance = factoryClass.getField("INSTANCE").get(null);
+      return instance instanceof ConstructorFactory<?> factory ? (ConstructorFactory<T>) factory : null;
+    } catch (ReflectiveOperationException | NullPointerException e) {
+      return null;
+    }
+  }
+
+  private static Set<String> readGeneratedFactoryIndex(ClassLoader loader) {
+    Set<String> classes = new HashSet<>();
+    try {
+      Enumeration<URL> urls = loader.getResources(GENERATED_FACTORY_INDEX);
+      while (urls.hasMoreElements()) {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(urls.nextElement().openStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#")) classes.add(line);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Dimension-DI: cannot read " + GENERATED_FACTORY_INDEX, e);
+    }
+    return classes;
+  }
+
+  // =========================================================================
+  // Composed prototype providers
+  // =========================================================================
+
+  /**
+   * Folds prototype components into one MethodHandle each: a constructor argument that resolves
+   * to another composable prototype becomes that prototype's own tree (via
+   * {@link MethodHandles#collectArguments}), anything else is a ServiceLocator lookup leaf.
+   * Each tree is called with invokeExact from {@link HiddenClassProviders#constant}.
+   *
+   * Notes:
+   * - Leaves: singletons, manual providers, collections, {@code @Named} arguments without an exact
+   *   binding and edges that close a cycle (the lookup then reports the cycle as usual).
+   * - Not composed (the regular provider is kept): classes with a generated factory, {@code @Assisted}
+   *   parameters or a constructor that cannot be linked.
+   * - Inlined prototypes skip the providers map, so a later {@link #override} of one is only seen
+   *   through its own key, not by composed parents.
+   *
+   * @param providers  final provider map, after manual providers and aliases
+   * @param prototypes scanned prototype providers and their classes
+   * @return replacement per prototype provider that could be composed
+   */
+  static Map<Supplier<?>, Supplier<?>> composePrototypes(Map<Key, Supplier<?>> providers,
+                                                         Map<Supplier<?>, Class<?>> prototypes) {
+    return new Composer(providers, prototypes).run();
+  }
+
+  private static final class Composer {
+    private static final MethodHandle RESOLVE; // (Dependency)Object
+    private static final MethodHandle INJECT;  // (Object)Object
+    private static final MethodHandle FAIL;    // (String, Throwable)Object
+
+    static {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        RESOLVE = lookup.findStatic(ServiceLocator.class, "resolveDependency",
+                                    MethodType.methodType(Object.class, Dependency.class));
+        INJECT = lookup.findStatic(Composer.class, "inject", MethodType.methodType(Object.class, Object.class));
+        FAIL = lookup.findStatic(Composer.class, "fail",
+                                 MethodType.methodType(Object.class, String.class, Throwable.class));
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final Map<Key, Supplier<?>> providers;
+    private final Map<Supplier<?>, Class<?>> prototypes;
+    private final Map<Class<?>, MethodHandle> composed = new HashMap<>(); // null: not composable
+    private final Set<Class<?>> inProgress = new HashSet<>();
+
+    Composer(Map<Key, Supplier<?>> providers, Map<Supplier<?>, Class<?>> prototypes) {
+      this.providers = providers;
+      this.prototypes = prototypes;
+    }
+
+    Map<Supplier<?>, Supplier<?>> run() {
+      Map<Supplier<?>, Supplier<?>> out = new IdentityHashMap<>();
+      prototypes.forEach((provider, clazz) -> {
+        MethodHandle tree = compose(clazz);
+        if (tree != null) out.put(provider, HiddenClassProviders.constant(tree, clazz));
+      });
+      return out;
+    }
+
+    /**
+     * ()Object tree of clazz, or null when it keeps its regular provider.
+     */
+    private MethodHandle compose(Class<?> clazz) {
+      if (composed.containsKey(clazz)) return composed.get(clazz);
+      if (!inProgress.add(clazz)) return null;
+
+      MethodHandle tree;
+      try {
+        tree = build(clazz);
+      } catch (RuntimeException e) {
+        tree = null; // the regular provider reports the problem on get
+      } finally {
+        inProgress.remove(clazz);
+      }
+      composed.put(clazz, tree);
+      return tree;
+    }
+
+    private MethodHandle build(Class<?> clazz) {
+      if (generatedFactory(clazz) != null) return null;
+
+      Constructor<?> ctor = findInjectConstructor(clazz);
+      Parameter[] params = ctor.getParameters();
+      for (Parameter p : params) {
+        if (p.isAnnotationPresent(Assisted.class)) return null;
+      }
+
+      MethodHandle tree = unreflectConstructor(clazz, ctor);
+      if (ctor.getExceptionTypes().length > 0) {
+        // only the constructor itself: failures of the arguments pass through unchanged
+        MethodHandle handler = MethodHandles.insertArguments(FAIL, 0, clazz.getName())
+            .asType(MethodType.methodType(clazz, Throwable.class));
+        tree = MethodHandles.catchException(tree, Throwable.class,
+                                            MethodHandles.dropArguments(handler, 1, ctor.getParameterTypes()));
+      }
+
+      // right to left, so every zero-argument tree replaces the parameter at its own index
+      for (int i = params.length - 1; i >= 0; i--) {
+        tree = MethodHandles.collectArguments(tree, i, argument(params[i]));
+      }
+
+      if (hasInjectedMembers(clazz)) {
+        tree = MethodHandles.filterReturnValue(tree, INJECT.asType(MethodType.methodType(clazz, clazz)));
+      }
+      return tree.asType(MethodType.methodType(Object.class));
+    }
+
+    private MethodHandle argument(Parameter p) {
+      String name = readNamed(p.getAnnotation(jakarta.inject.Named.class));
+      Dependency dep = new Dependency(p.getType(), p.getParameterizedType(), name);
+      MethodType type = MethodType.methodType(p.getType());
+
+      Class<?> prototype = prototypeOf(dep);
+      if (prototype != null) {
+        MethodHandle child = compose(prototype);
+        if (child != null) return child.asType(type);
+      }
+      return MethodHandles.insertArguments(RESOLVE, 0, dep).asType(type);
+    }
+
+    private Class<?> prototypeOf(Dependency dep) {
+      Class<?> raw = dep.rawType;
+      if (raw == List.class || raw == Collection.class || raw == Set.class || raw == Map.class) return null;
+
+      Supplier<?> provider = providers.get(Key.of(raw, dep.named));
+      return provider == null ? null : prototypes.get(provider);
+    }
+
+    private static Object inject(Object instance) {
+      injectMembers(instance);
+      return instance;
+    }
+
+    private static Object fail(String className, Throwable t) throws Throwable {
+      if (t instanceof RuntimeException || t instanceof Error) throw t;
+      throw new RuntimeException("Failed to instantiate " + className, t);
+    }
+  }
+
   // =========================================================================
   // Member injection (field and method)
   // =========================================================================
 
   public static void injectMembers(Object instance) {
     if (instance == null) return;
+    INJECTION_PLANS.get(instance.getClass()).inject(instance);
+  }
 
-    Deque<Class<?>> hierarchy = new ArrayDeque<>();
-    for (Class<?> c = instance.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
-      hierarchy.push(c);
+  /**
+   * Injects members of externally constructed objects, such as deserialized batches; consecutive
+   * instances of the same class share one plan lookup. Null elements are skipped.
+   */
+  public static void injectMembers(Collection<?> instances) {
+    InjectionPlan plan = null;
+    for (Object instance : instances) {
+      if (instance == null) continue;
+      if (plan == null || plan.type != instance.getClass()) plan = INJECTION_PLANS.get(instance.getClass());
+      plan.inject(instance);
     }
+  }
 
-    while (!hierarchy.isEmpty()) {
-      Class<?> c = hierarchy.pop();
+  /**
+   * Injection plan per class, built on first use: resolved {@code @Inject} fields and methods of the
+   * whole hierarchy with their setter/method handles, so later instances skip reflection entirely.
+   * Only types and names are cached; values are resolved on every injection.
+   */
+  private static final ClassValue<InjectionPlan> INJECTION_PLANS = new ClassValue<>() {
+    @Override
+    protected InjectionPlan computeValue(Class<?> type) {
+      return InjectionPlan.of(type);
+    }
+  };
 
-      // Field Injection
-      for (Field f : c.getDeclaredFields()) {
-        if (f.isSynthetic()) continue;
-        if (!f.isAnnotationPresent(jakarta.inject.Inject.class)) continue;
+  private static final class InjectionPlan {
 
-        int mod = f.getModifiers();
-        if (Modifier.isStatic(mod)) continue;
-        if (Modifier.isFinal(mod)) {
-          throw new IllegalStateException("Cannot inject into final field: " + c.getName() + "#" + f.getName());
-        }
+    private static final Step[] NO_STEPS = new Step[0];
 
-        String name = readNamed(f.getAnnotation(jakarta.inject.Named.class));
-        Dependency dep = new Dependency(f.getType(), f.getGenericType(), name);
-        Object value = resolveDependency(dep);
+    private final Class<?> type;
+    // superclass members first, fields before methods within a class
+    private final Step[] steps;
+    private volatile ConstructorPlan constructor;
 
-        try {
-          if (!f.canAccess(instance) && !f.trySetAccessible()) {
-            throw new IllegalStateException("Cannot access field for injection: " + c.getName() + "#" + f.getName());
+    private InjectionPlan(Class<?> type, Step[] steps) {
+      this.type = type;
+      this.steps = steps;
+    }
+
+    boolean hasMembers() {
+      return steps.length > 0;
+    }
+
+    /**
+     * The {@code @Inject} (or no-arg) constructor, made callable on first use: classes that are
+     * only member-injected never need one.
+     */
+    ConstructorPlan constructor() {
+      ConstructorPlan c = constructor;
+      if (c == null) constructor = c = ConstructorPlan.of(type);
+      return c;
+    }
+
+    private sealed interface Step {
+      record FieldStep(MethodHandle setter, Dependency dep, String member) implements Step {}
+      record MethodStep(MethodHandle method, Dependency[] deps, String member) implements Step {}
+    }
+
+    void inject(Object instance) {
+      for (Step step : steps) {
+        switch (step) {
+          case Step.FieldStep(MethodHandle setter, Dependency dep, String member) -> {
+            Object value = resolveDependency(dep);
+            try {
+              setter.invokeExact(instance, value);
+            } catch (Throwable e) {
+              throw new RuntimeException("Failed to inject field: " + member, e);
+            }
+          }
+          case Step.MethodStep(MethodHandle method, Dependency[] deps, String member) -> {
+            Object[] args = new Object[deps.length];
+            for (int i = 0; i < deps.length; i++) {
+              args[i] = resolveDependency(deps[i]);
+            }
+            try {
+              method.invokeExact(instance, args);
+            } catch (Throwable e) {
+              throw new RuntimeException("Failed to inject method: " + member, e);
+            }
           }
-          f.set(instance, value);
-        } catch (IllegalAccessException e) {
-          throw new RuntimeException("Failed to inject field: " + c.getName() + "#" + f.getName(), e);
         }
       }
+    }
 
-      // Method Injection
-      for (Method m : c.getDeclaredMethods()) {
-        if (m.isSynthetic() || m.isBridge()) continue;
-        if (!m.isAnnotationPresent(jakarta.inject.Inject.class)) continue;
+    static InjectionPlan of(Class<?> type) {
+      Deque<Class<?>> hierarchy = new ArrayDeque<>();
+      for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+        hierarchy.push(c);
+      }
 
-        int mod = m.getModifiers();
-        if (Modifier.isStatic(mod) || Modifier.isAbstract(mod)) {
-          throw new IllegalStateException(
-              "Cannot inject into static or abstract method: " + c.getName() + "#" + m.getName());
-        }
+      List<Step> steps = new ArrayList<>();
+      while (!hierarchy.isEmpty()) {
+        Class<?> c = hierarchy.pop();
 
-        Parameter[] params = m.getParameters();
-        Object[] args = new Object[params.length];
-        for (int i = 0; i < params.length; i++) {
-          Parameter p = params[i];
-          String name = readNamed(p.getAnnotation(jakarta.inject.Named.class));
-          args[i] = resolveDependency(new Dependency(p.getType(), p.getParameterizedType(), name));
+        // Field Injection
+        for (Field f : c.getDeclaredFields()) {
+          if (f.isSynthetic()) continue;
+          if (!f.isAnnotationPresent(jakarta.inject.Inject.class)) continue;
+
+          int mod = f.getModifiers();
+          if (Modifier.isStatic(mod)) continue;
+          String member = c.getName() + "#" + f.getName();
+          if (Modifier.isFinal(mod)) {
+            throw new IllegalStateException("Cannot inject into final field: " + member);
+          }
+
+          String name = readNamed(f.getAnnotation(jakarta.inject.Named.class));
+          MethodHandle setter = accessible(c, f, "field", member, l -> l.unreflectSetter(f))
+              .asType(MethodType.methodType(void.class, Object.class, Object.class));
+          steps.add(new Step.FieldStep(setter, new Dependency(f.getType(), f.getGenericType(), name), member));
         }
 
-        try {
-          if (!m.canAccess(instance) && !m.trySetAccessible()) {
-            throw new IllegalStateException("Cannot access method for injection: " + c.getName() + "#" + m.getName());
+        // Method Injection
+        for (Method m : c.getDeclaredMethods()) {
+          if (m.isSynthetic() || m.isBridge()) continue;
+          if (!m.isAnnotationPresent(jakarta.inject.Inject.class)) continue;
+
+          int mod = m.getModifiers();
+          String member = c.getName() + "#" + m.getName();
+          if (Modifier.isStatic(mod) || Modifier.isAbstract(mod)) {
+            throw new IllegalStateException("Cannot inject into static or abstract method: " + member);
+          }
+
+          Parameter[] params = m.getParameters();
+          Dependency[] deps = new Dependency[params.length];
+          for (int i = 0; i < params.length; i++) {
+            Parameter p = params[i];
+            String name = readNamed(p.getAnnotation(jakarta.inject.Named.class));
+            deps[i] = new Dependency(p.getType(), p.getParameterizedType(), name);
           }
-          m.invoke(instance, args);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-          throw new RuntimeException("Failed to inject method: " + c.getName() + "#" + m.getName(), e);
+
+          MethodHandle method = accessible(c, m, "method", member, l -> l.unreflect(m))
+              .asSpreader(Object[].class, params.length)
+              .asType(MethodType.methodType(void.class, Object.class, Object[].class));
+          steps.add(new Step.MethodStep(method, deps, member));
         }
       }
+
+      return new InjectionPlan(type, steps.isEmpty() ? NO_STEPS : steps.toArray(Step[]::new));
+    }
+
+    private interface Unreflect {
+      MethodHandle apply(MethodHandles.Lookup lookup) throws IllegalAccessException;
+    }
+
+    /**
+     * Handle through a private lookup into the declaring class, or through reflection when the
+     * module only allows setAccessible.
+     */
+    private static MethodHandle accessible(Class<?> c, AccessibleObject member, String kind,
+                                           String name, Unreflect unreflect) {
+      try {
+        return unreflect.apply(MethodHandles.privateLookupIn(c, MethodHandles.lookup()));
+      } catch (IllegalAccessException ignored) {
+        // fall through to setAccessible
+      }
+      if (!member.trySetAccessible()) {
+        throw new IllegalStateException("Cannot access " + kind + " for injection: " + name);
+      }
+      try {
+        return unreflect.apply(MethodHandles.lookup());
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Cannot access " + kind + " for injection: " + name, e);
+      }
+    }
+  }
+
+  /**
+   * Constructor of a class with its parameters read once: DI dependencies, or the normalized
+   * {@link Assisted} name (null for unnamed) of runtime-provided ones.
+   */
+  private record ConstructorPlan(Constructor<?> ctor, MethodHandle handle, Class<?>[] types,
+                                 Dependency[] deps, boolean[] assisted, String[] assistedNames) {
+
+    static ConstructorPlan of(Class<?> type) {
+      Constructor<?> ctor = findInjectConstructor(type);
+      Parameter[] params = ctor.getParameters();
+      Class<?>[] types = new Class<?>[params.length];
+      Dependency[] deps = new Dependency[params.length];
+      boolean[] assisted = new boolean[params.length];
+      String[] assistedNames = new String[params.length];
+
+      for (int i = 0; i < params.length; i++) {
+        Parameter p = params[i];
+        types[i] = p.getType();
+        Assisted a = p.getAnnotation(Assisted.class);
+        if (a != null) {
+          assisted[i] = true;
+          assistedNames[i] = normalizeName(a.value());
+        } else {
+          String name = readNamed(p.getAnnotation(jakarta.inject.Named.class));
+          deps[i] = new Dependency(p.getType(), p.getParameterizedType(), name);
+        }
+      }
+
+      MethodHandle handle = unreflectConstructor(type, ctor)
+          .asSpreader(Object[].class, params.length)
+          .asType(MethodType.methodType(Object.class, Object[].class));
+      return new ConstructorPlan(ctor, handle, types, deps, assisted, assistedNames);
+    }
+
+    Object newInstance(Object[] args) throws Throwable {
+      return handle.invokeExact(args);
     }
   }
 
@@ -653,14 +1341,13 @@ public final class ServiceLocator {
 
   @SuppressWarnings("unchecked")
   public static <T> T create(Class<T> clazz, Object... assistedArgs) {
-    Constructor<?> ctor = findInjectConstructor(clazz);
-    Parameter[] params = ctor.getParameters();
-    Object[] args = resolveAssistedParameters(params, assistedArgs);
+    InjectionPlan plan = INJECTION_PLANS.get(clazz);
+    ConstructorPlan ctor = plan.constructor();
+    Object[] args = resolveAssistedParameters(ctor, assistedArgs);
 
     try {
-      MethodHandle mh = unreflectConstructor(clazz, ctor);
-      T instance = (T) mh.invokeWithArguments(args);
-      injectMembers(instance);
+      T instance = (T) ctor.newInstance(args);
+      plan.inject(instance);
       return instance;
     } catch (Throwable t) {
       if (t instanceof RuntimeException re) throw re;
@@ -678,7 +1365,7 @@ public final class ServiceLocator {
     }
   }
 
-  private static Object[] resolveAssistedParameters(Parameter[] params, Object[] assistedArgsRaw) {
+  private static Object[] resolveAssistedParameters(ConstructorPlan ctor, Object[] assistedArgsRaw) {
     Object[] assistedArgsRawSafe = (assistedArgsRaw == null) ? new Object[0] : assistedArgsRaw;
 
     AssistedArg[] assistedArgs = new AssistedArg[assistedArgsRawSafe.length];
@@ -691,27 +1378,24 @@ public final class ServiceLocator {
       }
     }
 
-    Object[] args = new Object[params.length];
+    Class<?>[] types = ctor.types();
+    Object[] args = new Object[types.length];
     boolean[] assistedUsed = new boolean[assistedArgs.length];
 
-    for (int i = 0; i < params.length; i++) {
-      Parameter p = params[i];
-      Assisted assisted = p.getAnnotation(Assisted.class);
-
-      if (assisted != null) {
-        String assistedName = normalizeName(assisted.value());
-        int matchIdx = findMatchingAssistedArg(p.getType(), assistedName, assistedArgs, assistedUsed);
+    for (int i = 0; i < types.length; i++) {
+      if (ctor.assisted()[i]) {
+        String assistedName = ctor.assistedNames()[i];
+        int matchIdx = findMatchingAssistedArg(types[i], assistedName, assistedArgs, assistedUsed);
         if (matchIdx == -1) {
           throw new IllegalArgumentException(
-              "No matching assisted argument for parameter " + p.getType().getName() +
+              "No matching assisted argument for parameter " + types[i].getName() +
                   (assistedName == null ? "" : " named '" + assistedName + "'") +
                   " at index " + i);
         }
         assistedUsed[matchIdx] = true;
         args[i] = assistedArgs[matchIdx].value;
       } else {
-        String name = readNamed(p.getAnnotation(jakarta.inject.Named.class));
-        args[i] = resolveDependency(new Dependency(p.getType(), p.getParameterizedType(), name));
+        args[i] = resolveDependency(ctor.deps()[i]);
       }
     }
 
@@ -795,25 +1479,58 @@ public final class ServiceLocator {
               " is incompatible with targetClass " + targetClass.getName());
     }
 
-    Constructor<?> ctor = findInjectConstructor(targetClass);
-    MethodHandle mh = unreflectConstructor(targetClass, ctor);
+    InjectionPlan plan = INJECTION_PLANS.get(targetClass);
+    Constructor<?> ctor = plan.constructor().ctor();
 
-    Parameter[] ctorParams = ctor.getParameters();
-    ParameterMapping[] mappings = buildParameterMappings(ctorParams, factoryMethod.getParameters());
+    ParameterMapping[] mappings = buildParameterMappings(ctor.getParameters(), factoryMethod.getParameters());
+
+    F generated = hiddenClassFactory(factoryInterface, factoryMethod, plan, mappings);
+    if (generated != null) return generated;
 
     return (F) Proxy.newProxyInstance(
         factoryInterface.getClassLoader(),
         new Class<?>[] { factoryInterface },
         (proxy, method, args) -> {
           if (method.equals(factoryMethod)) {
-            return invokeFactory(mh, ctorParams, mappings, args);
+            return invokeFactory(plan, mappings, args);
           }
           return handleObjectMethod(proxy, method, args);
         }
     );
   }
 
+  /**
+   * Implementation of the factory interface from {@link HiddenClassProviders}, or null when it cannot
+   * be defined and the Proxy factory is used.
+   */
+  private static <F> F hiddenClassFactory(Class<F> factoryInterface, Method factoryMethod,
+                                          InjectionPlan plan, ParameterMapping[] mappings) {
+    Constructor<?> ctor = plan.constructor().ctor();
+    // a proxy reports undeclared checked exceptions as UndeclaredThrowableException; keep that
+    for (Class<?> e : ctor.getExceptionTypes()) {
+      if (RuntimeException.class.isAssignableFrom(e) || Error.class.isAssignableFrom(e)) continue;
+      if (Arrays.stream(factoryMethod.getExceptionTypes()).noneMatch(d -> d.isAssignableFrom(e))) return null;
+    }
+
+    int[] factoryIndex = new int[mappings.length];
+    Supplier<?>[] deps = new Supplier<?>[mappings.length];
+    for (int i = 0; i < mappings.length; i++) {
+      switch (mappings[i]) {
+        case ParameterMapping.FromDI(Dependency dep) -> {
+          factoryIndex[i] = -1;
+          deps[i] = dep;
+        }
+        case ParameterMapping.FromFactory(int idx) -> factoryIndex[i] = idx;
+      }
+    }
+
+    Consumer<Object> members = plan.hasMembers() ? plan::inject : null;
+    return HiddenClassProviders.defineFactory(factoryInterface, factoryMethod, plan.type, ctor,
+                                              factoryIndex, deps, members);
+  }
+
   public static <F> Supplier<F> createFactorySupplier(Class<F> factoryInterface, Class<?> targetClass) {
+    factoryInterfaces.add(factoryInterface);
     return singleton(() -> createFactory(factoryInterface, targetClass));
   }
 
@@ -959,12 +1676,11 @@ public final class ServiceLocator {
   // =========================================================================
 
   private static Object invokeFactory(
-      MethodHandle mh,
-      Parameter[] ctorParams,
+      InjectionPlan plan,
       ParameterMapping[] mappings,
       Object[] factoryArgs
   ) throws Throwable {
-    Object[] args = new Object[ctorParams.length];
+    Object[] args = new Object[mappings.length];
     for (int i = 0; i < mappings.length; i++) {
       args[i] = switch (mappings[i]) {
         case ParameterMapping.FromDI(Dependency dep) -> resolveDependency(dep);
@@ -972,8 +1688,8 @@ public final class ServiceLocator {
       };
     }
 
-    Object instance = mh.invokeWithArguments(args);
-    injectMembers(instance);
+    Object instance = plan.constructor().newInstance(args);
+    plan.inject(instance);
     return instance;
   }
 
@@ -989,6 +1705,112 @@ public final class ServiceLocator {
     };
   }
 
+  // =========================================================================
+  // Training run
+  // =========================================================================
+
+  /**
+   * Resolves every registered binding once, so an AOT cache / CDS training run records the classes,
+   * MethodHandles and lambda forms of the whole startup path, not only the bindings the app happens
+   * to look up.
+   *
+   * Notes:
+   * - Unlinked bindings are linked first, so lazily registered classes are covered too.
+   * - Classes with {@code @Assisted} parameters are skipped: their provider always throws, they are
+   *   exercised through the factories bound for them.
+   * - Factories bound with the builder get every abstract method called once, with null / zero for
+   *   the assisted arguments.
+   * - intoSet / intoMap types are resolved as List, Set and Map.
+   * - Singletons created here stay cached, as after any other lookup.
+   * - Failures are collected, never thrown; keys are tried in name order.
+   */
+  static TrainingReport train() {
+    long start = System.nanoTime();
+    int exercised = 0;
+    List<TrainingReport.Failure> failures = new ArrayList<>();
+
+    ClassLoader loader = ServiceLocator.class.getClassLoader();
+    for (String typeName : new TreeSet<>(unlinked.keySet())) {
+      try {
+        link(Class.forName(typeName, false, loader));
+      } catch (ClassNotFoundException | LinkageError e) {
+        failures.add(new TrainingReport.Failure(typeName, e));
+      }
+    }
+
+    List<Key> keys = new ArrayList<>(providers.keySet());
+    keys.sort(Comparator.comparing(Key::toString));
+    for (Key key : keys) {
+      Object instance;
+      try {
+        if (isAssistedGuard(providers.get(key))) continue;
+        instance = getInternal(key);
+        exercised++;
+      } catch (RuntimeException | LinkageError e) {
+        failures.add(new TrainingReport.Failure(key.toString(), e));
+        continue;
+      }
+      if (instance != null && factoryInterfaces.contains(key.type)) {
+        exercised += trainFactory(key.type, instance, failures);
+      }
+    }
+
+    for (Class<?> type : intoSetContributions.keySet()) {
+      try {
+        resolveList(type, null);
+        resolveSet(type, null);
+        exercised++;
+      } catch (RuntimeException | LinkageError e) {
+        failures.add(new TrainingReport.Failure("intoSet " + type.getName(), e));
+      }
+    }
+    for (Class<?> type : intoMapContributions.keySet()) {
+      try {
+        resolveMap(type, null);
+        exercised++;
+      } catch (RuntimeException | LinkageError e) {
+        failures.add(new TrainingReport.Failure("intoMap " + type.getName(), e));
+      }
+    }
+
+    return new TrainingReport(System.nanoTime() - start, exercised, List.copyOf(failures));
+  }
+
+  private static boolean isAssistedGuard(Supplier<?> provider) {
+    return switch (provider) {
+      case AssistedGuard<?> guard -> true;
+      case SingletonSupplier<?> singleton -> isAssistedGuard(singleton.delegate);
+      case LazyConstructorSupplier lazy -> isAssistedGuard(lazy.delegate());
+      case null, default -> false;
+    };
+  }
+
+  private static int trainFactory(Class<?> factoryInterface, Object factory, List<TrainingReport.Failure> failures) {
+    int exercised = 0;
+    for (Method m : factoryInterface.getMethods()) {
+      if (!Modifier.isAbstract(m.getModifiers()) || m.getDeclaringClass() == Object.class) continue;
+
+      Class<?>[] types = m.getParameterTypes();
+      Object[] args = new Object[types.length];
+      for (int i = 0; i < types.length; i++) {
+        // null, or the zero value of a primitive
+        args[i] = Array.get(Array.newInstance(types[i], 1), 0);
+      }
+
+      String name = factoryInterface.getName() + "." + m.getName();
+      try {
+        m.trySetAccessible();
+        m.invoke(factory, args);
+        exercised++;
+      } catch (InvocationTargetException e) {
+        failures.add(new TrainingReport.Failure(name, e.getCause()));
+      } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+        failures.add(new TrainingReport.Failure(name, e));
+      }
+    }
+    return exercised;
+  }
+
   // =========================================================================
   // Constructor utilities
   // =========================================================================
@@ -0,0 +1,99 @@
+package ru.dimension.di;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassModel;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supertype closure of classes, read from class files without loading them.
+ *
+ * Notes:
+ * - Direct supertypes (superclass + interfaces) are memoized per binary name for the whole scan;
+ *   scanned classes seed the memo from the model the scanner already parsed.
+ * - Supertypes outside the scanned packages (other jars, the JDK) are read through the class
+ *   loader as resources; a type whose bytes cannot be found ends the walk on that branch.
+ * - java.lang.Object is never part of a closure.
+ * - The walk stops at java.* types: a direct java.* supertype is kept (as the baseline bound
+ *   direct interfaces such as Runnable), but it is not expanded, so components are not bound to
+ *   Serializable, Comparable or the AbstractCollection chains and no JDK class file is read.
+ * - Thread-safe: parallel scan workers share one resolver.
+ */
+final class SupertypeResolver {
+
+  private static final String OBJECT = "java.lang.Object";
+  private static final String JDK_PREFIX = "java.";
+
+  // only the class header and the constant pool are touched for supertypes
+  private static final ClassFile PARSER = ClassFile.of(
+      ClassFile.DebugElementsOption.DROP_DEBUG,
+      ClassFile.LineNumbersOption.DROP_LINE_NUMBERS);
+
+  private final ClassLoader loader;
+  private final Map<String, List<String>> direct = new ConcurrentHashMap<>();
+
+  SupertypeResolver(ClassLoader loader) {
+    this.loader = loader;
+  }
+
+  /**
+   * Direct supertypes of a parsed class: superclass first, then interfaces, without java.lang.Object.
+   */
+  static List<String> directSupertypes(ClassModel model) {
+    List<String> out = new ArrayList<>(model.interfaces().size() + 1);
+    model.superclass().ifPresent(sc -> out.add(sc.name().stringValue().replace('/', '.')));
+    model.interfaces().forEach(iface -> out.add(iface.name().stringValue().replace('/', '.')));
+    out.remove(OBJECT);
+    return List.copyOf(out);
+  }
+
+  void remember(String className, List<String> directSupertypes) {
+    direct.putIfAbsent(className, directSupertypes);
+  }
+
+  /**
+   * The given direct supertypes and everything reachable from them outside java.*, in breadth-first order.
+   */
+  Set<String> closure(Collection<String> directSupertypes) {
+    LinkedHashSet<String> out = new LinkedHashSet<>();
+    ArrayDeque<String> queue = new ArrayDeque<>();
+    for (String type : directSupertypes) {
+      if (type.equals(OBJECT) || !out.add(type) || type.startsWith(JDK_PREFIX)) continue;
+      queue.add(type);
+    }
+    while (!queue.isEmpty()) {
+      for (String type : directOf(queue.poll())) {
+        if (type.startsWith(JDK_PREFIX) || !out.add(type)) continue;
+        queue.add(type);
+      }
+    }
+    return Collections.unmodifiableSet(out);
+  }
+
+  Set<String> closureOf(String className) {
+    return closure(directOf(className));
+  }
+
+  /**
+   * Direct supertypes of a type by name; empty if its class file is not visible to the loader.
+   */
+  List<String> directOf(String className) {
+    List<String> known = direct.get(className);
+    if (known != null) return known;
+
+    List<String> read = read(className);
+    List<String> raced = direct.putIfAbsent(className, read);
+    return raced != null ? raced : read;
+  }
+
+  private List<String> read(String className) {
+    try (InputStream is = loader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+      if (is == null) return List.of();
+      return directSupertypes(PARSER.parse(is.readAllBytes()));
+    } catch (IOException | IllegalArgumentException e) {
+      return List.of();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package ru.dimension.di;
+
+import java.util.List;
+
+/**
+ * Result of {@link DimensionDI#train()}: every registered binding resolved once.
+ *
+ * Notes:
+ * - exercised counts bindings, factory methods and multibinding types that resolved without error.
+ * - failures lists everything that could not be exercised, in the order it was tried; its classes
+ *   and MethodHandles may be missing from an AOT cache recorded by the same run.
+ */
+public record TrainingReport(long totalNanos, int exercised, List<Failure> failures) {
+
+  /**
+   * binding: key, type name, {@code Factory.method} or {@code intoSet/intoMap type}.
+   */
+  public record Failure(String binding, Throwable error) {}
+
+  public TrainingReport {
+    failures = List.copyOf(failures);
+  }
+
+  public boolean complete() {
+    return failures.isEmpty();
+  }
+
+  /**
+   * Multi-line summary, one failure per line.
+   */
+  public String summary() {
+    StringBuilder out = new StringBuilder("Dimension-DI training run: ")
+        .append(exercised).append(" binding(s) exercised, ")
+        .append(failures.size()).append(" failed in ")
+        .append(totalNanos / 1_000_000).append(" ms");
+    for (Failure f : failures) {
+      out.append("\n - ").append(f.binding()).append(": ").append(f.error());
+    }
+    return out.toString();
+  }
+}
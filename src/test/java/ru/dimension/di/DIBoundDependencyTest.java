@@ -0,0 +1,85 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.ServiceLocator.Key;
+import ru.dimension.di.beans.ConsumerBean;
+import ru.dimension.di.beans.PrototypeBean;
+import ru.dimension.di.beans.SingletonBean;
+import ru.dimension.di.graph.ok.Car;
+import ru.dimension.di.graph.ok.Engine;
+import ru.dimension.di.graph.ok.V8Engine;
+
+class DIBoundDependencyTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Bound dependencies resolve like lookups, including collections and named bindings")
+  void boundAfterInit() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.ok")
+        .buildAndInit();
+
+    Car first = ServiceLocator.get(Car.class);
+    Car second = ServiceLocator.get(Car.class);
+    assertNotSame(first, second);
+    assertInstanceOf(V8Engine.class, first.engine());
+    assertSame(first.engine(), second.engine());
+    assertSame(first.engine(), first.named());
+    assertEquals(1, first.engines().size());
+  }
+
+  @Test
+  @DisplayName("An override after init is seen by dependencies bound before it")
+  void overrideAfterBinding() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.ok")
+        .buildAndInit();
+    Engine v8 = ServiceLocator.get(Car.class).engine();
+
+    Engine replacement = new Engine() {};
+    ServiceLocator.override(Key.of(Engine.class), () -> replacement);
+
+    Car car = ServiceLocator.get(Car.class);
+    assertSame(replacement, car.engine());
+    assertSame(v8, car.named(), "other keys keep their provider");
+  }
+
+  @Test
+  @DisplayName("Dependencies missing on the first get fail and resolve once registered")
+  void missingThenRegistered() {
+    ServiceLocator.registerProvider(ConsumerBean.class, ServiceLocator.createConstructorProvider(ConsumerBean.class, false));
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> ServiceLocator.get(ConsumerBean.class));
+    assertTrue(e.getMessage().contains("No provider registered for"), e.getMessage());
+
+    ServiceLocator.registerProvider(SingletonBean.class, ServiceLocator.createConstructorProvider(SingletonBean.class, true));
+    ServiceLocator.registerProvider(PrototypeBean.class, ServiceLocator.createConstructorProvider(PrototypeBean.class, false));
+
+    ConsumerBean consumer = ServiceLocator.get(ConsumerBean.class);
+    assertNotSame(consumer.firstBean, consumer.secondBean);
+    assertSame(consumer.singletonBean, ServiceLocator.get(ConsumerBean.class).singletonBean);
+  }
+
+  @Test
+  @DisplayName("Changing a fallback flag drops bindings made through the fallback")
+  void fallbackFlagRebinds() {
+    ServiceLocator.registerProvider(Engine.class, "V8Engine", V8Engine::new);
+    ServiceLocator.registerProvider(Car.class, ServiceLocator.createConstructorProvider(Car.class, false));
+    assertNotNull(ServiceLocator.get(Car.class).engine(), "unnamed -> single named");
+
+    try {
+      ServiceLocator.setUnnamedFallbackEnabled(false);
+      assertThrows(IllegalStateException.class, () -> ServiceLocator.get(Car.class));
+    } finally {
+      ServiceLocator.setUnnamedFallbackEnabled(true);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.beans.PrototypeBean;
+import ru.dimension.di.beans.SingletonBean;
+import ru.dimension.di.local.LocalComponents;
+
+class DIClassFilterTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Package globs match whole segments; a trailing .** also matches the package itself")
+  void packageGlobs() {
+    ClassFilter filter = ClassFilter.DEFAULT.withIncludePackages(List.of("com.acme.**", "org.*.api"));
+
+    assertTrue(filter.acceptsPackage("com.acme"));
+    assertTrue(filter.acceptsPackage("com.acme.billing.internal"));
+    assertTrue(filter.acceptsPackage("org.shop.api"));
+    assertFalse(filter.acceptsPackage("com.acmex"));
+    assertFalse(filter.acceptsPackage("org.shop.v1.api"));
+
+    ClassFilter excluded = filter.withExcludePackages(List.of("com.acme.*.internal"));
+    assertTrue(excluded.acceptsPackage("com.acme.billing"));
+    assertFalse(excluded.acceptsPackage("com.acme.billing.internal"));
+  }
+
+  @Test
+  @DisplayName("Class regexes and anonymous-class skipping")
+  void classRules() {
+    ClassFilter filter = ClassFilter.DEFAULT.withExcludeClasses(List.of(".*Dto"));
+
+    assertTrue(filter.acceptsClass("com.acme.Service"));
+    assertTrue(filter.acceptsClass("com.acme.Outer$Inner"));
+    assertFalse(filter.acceptsClass("com.acme.OrderDto"));
+    assertTrue(filter.acceptsClass("com.acme.Outer$1Local"));
+
+    ClassFilter skipping = filter.withSkipAnonymous(true);
+    assertFalse(skipping.acceptsClass("com.acme.Outer$1"));
+    assertFalse(skipping.acceptsClass("com.acme.Outer$1Local"));
+    assertFalse(filter.withIncludeClasses(List.of(".*Service")).acceptsClass("com.acme.Repository"));
+  }
+
+  @Test
+  @DisplayName("Rejected classes are left out of the scan results")
+  void scanHonorsFilter() {
+    DependencyScanner.Config config = DependencyScanner.Config.defaultsJakartaInject()
+        .withClassFilter(ClassFilter.DEFAULT
+                             .withExcludePackages(List.of("ru.dimension.di.named"))
+                             .withExcludeClasses(List.of(".*PrototypeBean")));
+
+    List<String> names = DependencyScanner.scan(config, "ru.dimension.di.beans", "ru.dimension.di.named")
+        .stream().map(DependencyScanner.ScanResult::className).toList();
+
+    assertTrue(names.contains(SingletonBean.class.getName()));
+    assertFalse(names.contains(PrototypeBean.class.getName()));
+    assertTrue(names.stream().noneMatch(n -> n.startsWith("ru.dimension.di.named.")));
+  }
+
+  @Test
+  @DisplayName("Local classes are scanned by default and skipped only on request")
+  void localClasses() {
+    String counter = LocalComponents.counter().getName();
+    DependencyScanner.Config config = DependencyScanner.Config.defaultsJakartaInject();
+
+    List<String> names = DependencyScanner.scan(config, "ru.dimension.di.local")
+        .stream().map(DependencyScanner.ScanResult::className).toList();
+    assertTrue(names.contains(counter));
+
+    List<String> skipped = DependencyScanner.scan(
+            config.withClassFilter(ClassFilter.DEFAULT.withSkipAnonymous(true)), "ru.dimension.di.local")
+        .stream().map(DependencyScanner.ScanResult::className).toList();
+    assertFalse(skipped.contains(counter));
+  }
+
+  @Test
+  @DisplayName("Builder exclude rules keep classes out of the locator")
+  void builderExcludes() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.beans")
+        .excludeClasses(".*PrototypeBean")
+        .buildAndInit();
+
+    assertTrue(ServiceLocator.has(SingletonBean.class));
+    assertFalse(ServiceLocator.has(PrototypeBean.class));
+  }
+}
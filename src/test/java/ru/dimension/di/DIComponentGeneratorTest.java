@@ -0,0 +1,98 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import javax.tools.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dimension.di.component.AppModule;
+import ru.dimension.di.component.Repository;
+import ru.dimension.di.component.Service;
+import ru.dimension.di.graph.cycle.Chicken;
+import ru.dimension.di.graph.missing.Gauge;
+import ru.dimension.di.graph.ok.V8Engine;
+
+class DIComponentGeneratorTest {
+
+  private static final String COMPONENT = "ru.dimension.di.component.AppComponent";
+
+  @TempDir
+  Path out;
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("The generated component wires scanned and module bindings with plain calls")
+  void generatesComponent() throws Exception {
+    String source = ComponentGenerator.generate(COMPONENT, AppModule.class.getName(),
+                                                "ru.dimension.di.component", "ru.dimension.di.graph.ok");
+
+    assertTrue(source.contains("new ru.dimension.di.graph.ok.Car("), source);
+    assertTrue(source.contains("ru.dimension.di.component.AppModule.settings()"), source);
+    assertFalse(source.contains("ServiceLocator"), "no registry at runtime");
+
+    try (URLClassLoader loader = compile(source)) {
+      Class<?> componentClass = loader.loadClass(COMPONENT);
+      Object component = componentClass.getConstructor().newInstance();
+      Method service = componentClass.getMethod("service");
+      Method engine = componentClass.getMethod("v8Engine");
+
+      Service first = (Service) service.invoke(component);
+      Service second = (Service) service.invoke(component);
+      assertNotSame(first, second, "prototype");
+      assertSame(first.repository(), second.repository(), "singleton");
+
+      Repository repository = first.repository();
+      assertEquals("db://local", repository.settings().url());
+      assertEquals(3, repository.retries());
+      assertEquals(List.of("V8Engine"), List.copyOf(repository.engines().keySet()));
+
+      V8Engine v8 = (V8Engine) engine.invoke(component);
+      assertSame(v8, first.car().engine());
+      assertSame(v8, first.car().named());
+      assertEquals(List.of(v8), first.car().engines());
+    }
+  }
+
+  @Test
+  @DisplayName("Missing bindings and cycles are reported together")
+  void reportsProblems() {
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> ComponentGenerator.generate(
+        COMPONENT, null, "ru.dimension.di.graph.missing", "ru.dimension.di.graph.cycle"));
+
+    assertTrue(e.getMessage().contains("No binding for " + Gauge.class.getName()), e.getMessage());
+    assertTrue(e.getMessage().contains("Circular dependency: "), e.getMessage());
+    assertTrue(e.getMessage().contains(Chicken.class.getName()), e.getMessage());
+  }
+
+  private URLClassLoader compile(String source) throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    URI uri = URI.create("string:///" + COMPONENT.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    JavaFileObject file = new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+
+    try (StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, null)) {
+      fm.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(out));
+      List<String> options = List.of("-proc:none", "-classpath", System.getProperty("java.class.path"));
+      assertTrue(compiler.getTask(null, fm, diagnostics, options, null, List.of(file)).call(),
+                 () -> diagnostics.getDiagnostics().toString());
+    }
+    return new URLClassLoader(new URL[] {out.toUri().toURL()}, getClass().getClassLoader());
+  }
+}
@@ -0,0 +1,121 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DIComponentIndexTest {
+
+  private static final String PACKAGE = "ru.dimension.di.beans";
+
+  @TempDir
+  Path root;
+
+  @Test
+  @DisplayName("Indexed root is served from the index without reading class files")
+  void indexedRootIsNotScanned() throws IOException {
+    writeIndex(
+        "ru.dimension.di.beans.IndexedSingleton\t0\tjakarta.inject.Singleton\tjakarta.inject.Inject\tjava.lang.Runnable",
+        "ru.dimension.di.beans.IndexedPlain\t1\t\t\t",
+        "ru.dimension.di.beans.IndexedHidden\t0\t\tsome.other.Inject\t",
+        "ru.dimension.di.other.OutOfPackage\t1\t\t\t"
+    );
+
+    // Neither class exists: reading their bytes would fail the scan
+    Map<String, DependencyScanner.ScanResult> results =
+        scanWithRoot(DependencyScanner.Config.defaultsJakartaInject());
+
+    DependencyScanner.ScanResult singleton = results.get("ru.dimension.di.beans.IndexedSingleton");
+    assertNotNull(singleton);
+    assertTrue(singleton.isSingleton());
+    assertEquals(Set.of("java.lang.Runnable"), singleton.supertypes());
+
+    assertNotNull(results.get("ru.dimension.di.beans.IndexedPlain"));
+    assertNull(results.get("ru.dimension.di.beans.IndexedHidden"), "constructor annotation is not configured");
+    assertNull(results.get("ru.dimension.di.other.OutOfPackage"), "outside of the scanned package");
+
+    // Roots without an index are still scanned
+    assertNotNull(results.get("ru.dimension.di.beans.SingletonBean"));
+  }
+
+  @Test
+  @DisplayName("Scanner config is applied to index entries")
+  void configAppliedToIndex() throws IOException {
+    writeIndex(
+        "ru.dimension.di.beans.IndexedPlain\t1\t\t\t",
+        "ru.dimension.di.beans.IndexedCustom\t0\tcom.acme.Shared\tcom.acme.Wire\t"
+    );
+
+    DependencyScanner.Config config = DependencyScanner.Config.defaultsJakartaInject()
+        .withAllowPublicNoArgConstructor(false)
+        .withInjectConstructorAnnotations(Set.of("com.acme.Wire"))
+        .withSingletonClassAnnotations(Set.of("com.acme.Shared"));
+
+    Map<String, DependencyScanner.ScanResult> results = scanWithRoot(config);
+
+    assertNull(results.get("ru.dimension.di.beans.IndexedPlain"));
+    assertTrue(results.get("ru.dimension.di.beans.IndexedCustom").isSingleton());
+  }
+
+  @Test
+  @DisplayName("Index can be switched off")
+  void indexDisabled() throws IOException {
+    writeIndex("ru.dimension.di.beans.IndexedPlain\t1\t\t\t");
+
+    Map<String, DependencyScanner.ScanResult> results =
+        scanWithRoot(DependencyScanner.Config.defaultsJakartaInject().withUseComponentIndex(false));
+
+    assertNull(results.get("ru.dimension.di.beans.IndexedPlain"));
+    assertNotNull(results.get("ru.dimension.di.beans.SingletonBean"));
+  }
+
+  @Test
+  @DisplayName("Index with an unknown header is ignored")
+  void unknownFormatIgnored() throws IOException {
+    Path index = root.resolve(ComponentIndex.RESOURCE);
+    Files.createDirectories(index.getParent());
+    Files.writeString(index, "# dimension-di component index v999\nru.dimension.di.beans.IndexedPlain\t1\t\t\t\n");
+    Files.createDirectories(root.resolve(PACKAGE.replace('.', '/')));
+
+    Map<String, DependencyScanner.ScanResult> results =
+        scanWithRoot(DependencyScanner.Config.defaultsJakartaInject());
+
+    assertNull(results.get("ru.dimension.di.beans.IndexedPlain"));
+  }
+
+  private void writeIndex(String... lines) throws IOException {
+    Path index = root.resolve(ComponentIndex.RESOURCE);
+    Files.createDirectories(index.getParent());
+    Files.writeString(index, "# dimension-di component index v1\n" + String.join("\n", lines) + "\n");
+
+    // the package must exist under the root for the class loader to report it
+    Files.createDirectories(root.resolve(PACKAGE.replace('.', '/')));
+  }
+
+  private Map<String, DependencyScanner.ScanResult> scanWithRoot(DependencyScanner.Config config)
+      throws IOException {
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+
+    try (URLClassLoader cl = new URLClassLoader(new URL[] { root.toUri().toURL() }, getClass().getClassLoader())) {
+      thread.setContextClassLoader(cl);
+      List<DependencyScanner.ScanResult> results = DependencyScanner.scan(config, PACKAGE);
+      return results.stream()
+          .collect(Collectors.toMap(DependencyScanner.ScanResult::className, Function.identity()));
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+}
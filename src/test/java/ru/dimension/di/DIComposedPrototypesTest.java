@@ -0,0 +1,91 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.ServiceLocator.Key;
+import ru.dimension.di.composed.Axle;
+import ru.dimension.di.composed.Brake;
+import ru.dimension.di.composed.Cart;
+import ru.dimension.di.composed.Clock;
+import ru.dimension.di.composed.Trailer;
+import ru.dimension.di.composed.Wheel;
+import ru.dimension.di.graph.cycle.Chicken;
+
+class DIComposedPrototypesTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Prototype dependencies are folded into the parent's handle; singletons stay lookups")
+  void composedTree() {
+    Supplier<?> wheel = ServiceLocator.createConstructorProvider(Wheel.class, false);
+    Supplier<?> axle = ServiceLocator.createConstructorProvider(Axle.class, false);
+    Map<Key, Supplier<?>> providers = new HashMap<>(Map.of(
+        Key.of(Wheel.class), wheel,
+        Key.of(Axle.class), axle));
+    Map<Supplier<?>, Class<?>> prototypes = new IdentityHashMap<>(Map.of(wheel, Wheel.class, axle, Axle.class));
+
+    Map<Supplier<?>, Supplier<?>> composed = ServiceLocator.composePrototypes(providers, prototypes);
+    assertEquals(2, composed.size());
+    assertTrue(composed.get(axle).getClass().isHidden(), composed.get(axle).getClass().getName());
+
+    // the composed Axle never asks the locator for its wheels: nothing is registered
+    Axle first = (Axle) composed.get(axle).get();
+    Axle second = (Axle) composed.get(axle).get();
+    assertNotSame(first, second);
+    assertNotSame(first.left(), first.right());
+  }
+
+  @Test
+  @DisplayName("Builder option wires prototypes, singletons and members like the regular providers")
+  void builderOption() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.composed")
+        .composedPrototypes(true)
+        .buildAndInit();
+
+    Cart cart = ServiceLocator.get(Cart.class);
+    Cart other = ServiceLocator.get(Cart.class);
+    assertNotSame(cart, other);
+    assertNotSame(cart.axle(), other.axle());
+    assertNotSame(cart.axle().left(), cart.axle().right());
+    assertSame(ServiceLocator.get(Clock.class), cart.clock());
+    assertSame(cart.clock(), other.clock());
+    assertNotNull(cart.spare(), "members are injected after construction");
+  }
+
+  @Test
+  @DisplayName("Checked constructor exceptions of an inlined prototype are wrapped with its class")
+  void checkedException() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.composed")
+        .composedPrototypes(true)
+        .buildAndInit();
+
+    RuntimeException e = assertThrows(RuntimeException.class, () -> ServiceLocator.get(Trailer.class));
+    assertEquals("Failed to instantiate " + Brake.class.getName(), e.getMessage());
+    assertEquals("worn out", e.getCause().getMessage());
+  }
+
+  @Test
+  @DisplayName("Prototype cycles still fail with the runtime cycle check")
+  void cycle() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.cycle")
+        .composedPrototypes(true)
+        .buildAndInit();
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> ServiceLocator.get(Chicken.class));
+    assertTrue(e.getMessage().contains("Circular dependency detected"), e.getMessage());
+  }
+}
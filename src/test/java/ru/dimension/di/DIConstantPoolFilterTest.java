@@ -0,0 +1,167 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.dimension.di.beans.ConsumerBean;
+import ru.dimension.di.beans.PrototypeBean;
+import ru.dimension.di.beans.SingletonBean;
+
+class DIConstantPoolFilterTest {
+
+  private static final Map<String, byte[]> CLASSES = new LinkedHashMap<>();
+
+  @BeforeAll
+  static void loadClasses() throws IOException, URISyntaxException {
+    for (Class<?> type : List.of(SingletonBean.class, PrototypeBean.class, ConsumerBean.class,
+                                 Runnable.class, AutoCloseable.class, DIConstantPoolFilterTest.class)) {
+      CLASSES.put(type.getName(), bytesOf(type));
+    }
+
+    // a large third-party jar: mostly classes that are not components
+    Path mockitoJar = Path.of(Mockito.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    try (JarFile jar = new JarFile(mockitoJar.toFile())) {
+      for (JarEntry entry : Collections.list(jar.entries())) {
+        String name = entry.getName();
+        if (!name.endsWith(".class") || name.endsWith("-info.class")) continue;
+        try (InputStream in = jar.getInputStream(entry)) {
+          CLASSES.put(name.substring(0, name.length() - 6).replace('/', '.'), in.readAllBytes());
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Filter never rejects a class the full parse accepts")
+  void noFalseNegatives() {
+    List<DependencyScanner.Config> configs = List.of(
+        DependencyScanner.Config.defaultsJakartaInject(),
+        DependencyScanner.Config.defaultsJakartaInject().withAllowPublicNoArgConstructor(false),
+        DependencyScanner.Config.defaultsJakartaInject()
+            .withAllowPublicNoArgConstructor(false)
+            .withInjectConstructorAnnotations(Set.of("java.lang.Deprecated"))
+    );
+
+    for (DependencyScanner.Config config : configs) {
+      ConstantPoolFilter filter = new ConstantPoolFilter(config);
+      List<String> accepted = new ArrayList<>();
+      List<String> filtered = new ArrayList<>();
+
+      CLASSES.forEach((name, bytes) -> {
+        if (DependencyScanner.analyzeClass(config, null, name, bytes) != null) accepted.add(name);
+        if (DependencyScanner.analyzeClass(config, filter, name, bytes) != null) filtered.add(name);
+      });
+
+      assertEquals(accepted, filtered, () -> "config " + config);
+    }
+  }
+
+  @Test
+  @DisplayName("Filter rejects interfaces and classes without injectable constructors")
+  void rejectsNonComponents() {
+    ConstantPoolFilter injectOnly = new ConstantPoolFilter(
+        DependencyScanner.Config.defaultsJakartaInject().withAllowPublicNoArgConstructor(false));
+
+    assertTrue(injectOnly.mayBeComponent(CLASSES.get(SingletonBean.class.getName())));
+    assertTrue(injectOnly.mayBeComponent(CLASSES.get(ConsumerBean.class.getName())));
+    assertFalse(injectOnly.mayBeComponent(CLASSES.get(Runnable.class.getName())));
+    assertFalse(injectOnly.mayBeComponent(CLASSES.get(DIConstantPoolFilterTest.class.getName())));
+
+    long passed = CLASSES.values().stream().filter(injectOnly::mayBeComponent).count();
+    assertTrue(passed < CLASSES.size() / 10, () -> passed + " of " + CLASSES.size() + " passed");
+  }
+
+  @Test
+  @DisplayName("Malformed class bytes are left to the real parser")
+  void malformedIsAccepted() {
+    ConstantPoolFilter filter = new ConstantPoolFilter(DependencyScanner.Config.defaultsJakartaInject());
+
+    assertTrue(filter.mayBeComponent(new byte[] { 1, 2, 3 }));
+    byte[] truncated = CLASSES.get(SingletonBean.class.getName());
+    assertTrue(filter.mayBeComponent(Arrays.copyOf(truncated, 12)));
+  }
+
+  @Test
+  @DisplayName("Duplicate \"<init>\" / \"()V\" pool entries are left to the real parser")
+  void duplicateUtf8IsAccepted() throws IOException {
+    DependencyScanner.Config config = DependencyScanner.Config.defaultsJakartaInject();
+    ConstantPoolFilter filter = new ConstantPoolFilter(config);
+    byte[] bytes = publicNoArgClassWithDuplicateInit();
+
+    assertTrue(filter.mayBeComponent(bytes));
+    assertNotNull(DependencyScanner.analyzeClass(config, filter, "app.Dup", bytes));
+  }
+
+  /**
+   * public class app.Dup { public Dup() {} } whose constructor is named by a second "<init>" Utf8 entry.
+   */
+  private static byte[] publicNoArgClassWithDuplicateInit() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(0xCAFEBABE);
+    out.writeShort(0);
+    out.writeShort(52);
+
+    out.writeShort(11);
+    out.writeByte(1); out.writeUTF("<init>");           // #1, unused by the method table
+    out.writeByte(1); out.writeUTF("()V");              // #2
+    out.writeByte(1); out.writeUTF("app/Dup");          // #3
+    out.writeByte(7); out.writeShort(3);                // #4
+    out.writeByte(1); out.writeUTF("java/lang/Object"); // #5
+    out.writeByte(7); out.writeShort(5);                // #6
+    out.writeByte(1); out.writeUTF("<init>");           // #7, the constructor's name
+    out.writeByte(1); out.writeUTF("Code");             // #8
+    out.writeByte(10); out.writeShort(6); out.writeShort(10); // #9 Object.<init>()V
+    out.writeByte(12); out.writeShort(7); out.writeShort(2);  // #10
+
+    out.writeShort(0x0021); // public super
+    out.writeShort(4);
+    out.writeShort(6);
+    out.writeShort(0);      // interfaces
+    out.writeShort(0);      // fields
+
+    out.writeShort(1);      // methods
+    out.writeShort(0x0001);
+    out.writeShort(7);
+    out.writeShort(2);
+    out.writeShort(1);
+    out.writeShort(8);      // Code
+    out.writeInt(17);
+    out.writeShort(1);
+    out.writeShort(1);
+    out.writeInt(5);
+    out.write(new byte[] { 0x2a, (byte) 0xb7, 0x00, 0x09, (byte) 0xb1 }); // aload_0, invokespecial #9, return
+    out.writeShort(0);
+    out.writeShort(0);
+
+    out.writeShort(0);      // class attributes
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static byte[] bytesOf(Class<?> type) throws IOException {
+    String resource = type.getName().replace('.', '/') + ".class";
+    try (InputStream in = ClassLoader.getSystemResourceAsStream(resource)) {
+      assertNotNull(in, resource);
+      return in.readAllBytes();
+    }
+  }
+}
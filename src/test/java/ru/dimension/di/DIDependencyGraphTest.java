@@ -0,0 +1,96 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.graph.cycle.Chicken;
+import ru.dimension.di.graph.cycle.Egg;
+import ru.dimension.di.graph.missing.Dashboard;
+import ru.dimension.di.graph.missing.Gauge;
+import ru.dimension.di.graph.ok.Car;
+import ru.dimension.di.graph.ok.Engine;
+import ru.dimension.di.graph.ok.V8Engine;
+
+class DIDependencyGraphTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Scan results carry constructor parameters with generics and @Named")
+  void constructorDependencies() {
+    Map<String, DependencyScanner.ScanResult> results = DependencyScanner.scan("ru.dimension.di.graph.ok").stream()
+        .collect(Collectors.toMap(DependencyScanner.ScanResult::className, Function.identity()));
+
+    assertEquals(List.of(), results.get(V8Engine.class.getName()).dependencies());
+
+    List<DependencyScanner.Dependency> deps = results.get(Car.class.getName()).dependencies();
+    assertEquals(List.of(
+        new DependencyScanner.Dependency(Engine.class.getName(), null, null, false),
+        new DependencyScanner.Dependency(List.class.getName(),
+                                         "Ljava/util/List<Lru/dimension/di/graph/ok/Engine;>;", null, false),
+        new DependencyScanner.Dependency(Engine.class.getName(), null, "V8Engine", false)
+    ), deps);
+  }
+
+  @Test
+  @DisplayName("A resolvable graph passes and links as usual")
+  void resolvableGraph() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.ok")
+        .validateDependencyGraph(true)
+        .buildAndInit();
+
+    Car car = ServiceLocator.get(Car.class);
+    assertSame(car.engine(), car.named());
+    assertEquals(List.of(car.engine()), car.engines());
+  }
+
+  @Test
+  @DisplayName("Missing bindings are reported before anything is resolved")
+  void missingBinding() {
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.missing")
+        .validateDependencyGraph(true)
+        .buildAndInit());
+
+    assertTrue(e.getMessage().contains("No binding for " + Gauge.class.getName()
+                                           + " required by " + Dashboard.class.getName()), e.getMessage());
+  }
+
+  @Test
+  @DisplayName("Manual providers satisfy scanned dependencies")
+  void manualProvider() {
+    Gauge gauge = new Gauge() {};
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.missing")
+        .instance(Gauge.class, gauge)
+        .validateDependencyGraph(true)
+        .buildAndInit();
+
+    assertSame(gauge, ServiceLocator.get(Dashboard.class).gauge());
+  }
+
+  @Test
+  @DisplayName("Constructor cycles are reported with their path")
+  void cycle() {
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.cycle")
+        .validateDependencyGraph(true)
+        .buildAndInit());
+
+    String chicken = Chicken.class.getName();
+    String egg = Egg.class.getName();
+    assertTrue(e.getMessage().contains("Circular dependency: " + chicken + " -> " + egg + " -> " + chicken)
+                   || e.getMessage().contains("Circular dependency: " + egg + " -> " + chicken + " -> " + egg),
+               e.getMessage());
+  }
+}
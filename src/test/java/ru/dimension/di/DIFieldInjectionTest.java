@@ -192,6 +192,19 @@ class DIFieldInjectionTest {
     public FieldConsumer getMethodDep() { return methodDep; }
   }
 
+  public static class PrimitiveMemberConsumer {
+    @Inject
+    private int size;
+    private long total;
+    private PrototypeBean bean;
+
+    @Inject
+    void setTotal(long total, PrototypeBean bean) {
+      this.total = total;
+      this.bean = bean;
+    }
+  }
+
 
   @Nested
   @DisplayName("Method Injection Tests")
@@ -261,6 +274,45 @@ class DIFieldInjectionTest {
                  "Exception message should indicate illegal injection target.");
     }
 
+    @Test
+    @DisplayName("Primitive members are unboxed and every instance gets freshly resolved values")
+    void primitiveMembersPerInstance() {
+      DimensionDI.builder()
+          .scanPackages("ru.dimension.di.beans")
+          .provide(int.class, () -> 3)
+          .provide(long.class, () -> 5L)
+          .buildAndInit();
+
+      PrimitiveMemberConsumer first = new PrimitiveMemberConsumer();
+      PrimitiveMemberConsumer second = new PrimitiveMemberConsumer();
+      ServiceLocator.injectMembers(first);
+      ServiceLocator.injectMembers(second);
+
+      assertEquals(3, first.size);
+      assertEquals(5L, first.total);
+      assertNotNull(first.bean);
+      assertNotSame(first.bean, second.bean, "Prototype dependency should be resolved per injection.");
+    }
+
+    @Test
+    @DisplayName("Bulk injection fills every element and skips nulls")
+    void bulkInjection() {
+      DimensionDI.builder()
+          .scanPackages("ru.dimension.di.beans", "ru.dimension.di.fields")
+          .provide(int.class, () -> 3)
+          .provide(long.class, () -> 5L)
+          .buildAndInit();
+
+      PrimitiveMemberConsumer first = new PrimitiveMemberConsumer();
+      FieldConsumer second = new FieldConsumer();
+      PrimitiveMemberConsumer third = new PrimitiveMemberConsumer();
+      ServiceLocator.injectMembers(java.util.Arrays.asList(first, null, second, third));
+
+      assertEquals(3, first.size);
+      assertNotNull(second.singletonBean);
+      assertEquals(5L, third.total);
+    }
+
     @Test
     @DisplayName("Constructor, field, and method injections all work together")
     void allInjectionTypesWorkTogether() {
@@ -0,0 +1,207 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.annotation.processing.Processor;
+import javax.tools.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DIGeneratedFactoryTest {
+
+  // the di-processor module next to this one, compiled on the fly so the factories are its real output
+  private static final Path PROCESSOR_SOURCES = Path.of("dimension-di-processor", "src", "main", "java");
+  private static final String PROCESSOR = "ru.dimension.di.processor.ConstructorFactoryProcessor";
+
+  private static final Map<String, String> SOURCES = Map.of(
+      "app.gen.Gear", """
+          package app.gen;
+          @jakarta.inject.Singleton
+          public class Gear {
+            @jakarta.inject.Inject public Gear() {}
+          }
+          """,
+      "app.gen.Widget", """
+          package app.gen;
+          public class Widget {
+            public final Gear gear;
+            public final int size;
+            public final Class<?> createdBy;
+            @jakarta.inject.Inject Widget(Gear gear, @jakarta.inject.Named("size") int size) {
+              this.gear = gear;
+              this.size = size;
+              this.createdBy = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).getCallerClass();
+            }
+          }
+          """,
+      "app.gen.Plain", """
+          package app.gen;
+          public class Plain {
+            public Plain() {}
+          }
+          """,
+      "app.gen.Broken", """
+          package app.gen;
+          public class Broken {
+            public Broken() {}
+          }
+          """,
+      "app.gen.Broken$DimensionFactory", """
+          package app.gen;
+          public class Broken$DimensionFactory {
+            public static final Object INSTANCE = "not a factory";
+          }
+          """);
+
+  @TempDir
+  Path out;
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Generated factories are found for classes in the factory index only")
+  void lookup() throws Exception {
+    try (URLClassLoader loader = compileWithProcessor()) {
+      ConstructorFactory<?> widget = ServiceLocator.generatedFactory(loader.loadClass("app.gen.Widget"));
+      assertNotNull(widget);
+      assertEquals("app.gen.Widget$DimensionFactory", widget.getClass().getName());
+
+      assertNull(ServiceLocator.generatedFactory(loader.loadClass("app.gen.Plain")), "no @Inject constructor");
+      assertNull(ServiceLocator.generatedFactory(DIGeneratedFactoryTest.class), "no index on this class path");
+    }
+  }
+
+  @Test
+  @DisplayName("An indexed factory without a usable INSTANCE falls back to the MethodHandle provider")
+  void unusableFactory() throws Exception {
+    try (URLClassLoader loader = compileWithProcessor()) {
+      // hand-written Broken$DimensionFactory, listed as if the processor had generated it
+      Path index = out.resolve("classes").resolve(ServiceLocator.GENERATED_FACTORY_INDEX);
+      Files.writeString(index, "app.gen.Broken\n", StandardOpenOption.APPEND);
+      Class<?> broken = loader.loadClass("app.gen.Broken");
+      assertNull(ServiceLocator.generatedFactory(broken));
+      assertInstanceOf(broken, ServiceLocator.createConstructorProvider(broken, false).get());
+    }
+  }
+
+  @Test
+  @DisplayName("Providers create instances through the generated factory, primitives included")
+  void providerUsesFactory() throws Exception {
+    try (URLClassLoader loader = compileWithProcessor()) {
+      Class<?> gear = loader.loadClass("app.gen.Gear");
+      Class<?> widget = loader.loadClass("app.gen.Widget");
+      ServiceLocator.init(Map.<ServiceLocator.Key, Supplier<?>>of(
+          ServiceLocator.Key.of(gear), ServiceLocator.createConstructorProvider(gear, true),
+          ServiceLocator.Key.of(int.class, "size"), () -> 3));
+
+      Supplier<?> provider = ServiceLocator.createConstructorProvider(widget, false);
+      Object first = provider.get();
+      Object second = provider.get();
+
+      assertNotSame(first, second);
+      assertEquals("app.gen.Widget$DimensionFactory", ((Class<?>) field(first, "createdBy")).getName());
+      assertSame(ServiceLocator.get(gear), field(first, "gear"));
+      assertEquals(3, field(first, "size"));
+    }
+  }
+
+  @Test
+  @DisplayName("A component resolves the same keys with and without its generated factory")
+  void sameKeysAsReflection() throws Exception {
+    try (URLClassLoader generated = compileWithProcessor();
+         URLClassLoader reflective = new URLClassLoader(new URL[] {withoutFactoryIndex().toUri().toURL()},
+                                                        getClass().getClassLoader())) {
+      Class<?> generatedGear = generated.loadClass("app.gen.Gear");
+      Class<?> reflectiveGear = reflective.loadClass("app.gen.Gear");
+      ServiceLocator.init(Map.<ServiceLocator.Key, Supplier<?>>of(
+          ServiceLocator.Key.of(generatedGear), ServiceLocator.createConstructorProvider(generatedGear, true),
+          ServiceLocator.Key.of(reflectiveGear), ServiceLocator.createConstructorProvider(reflectiveGear, true),
+          ServiceLocator.Key.of(int.class, "size"), () -> 5));
+
+      Object viaFactory = ServiceLocator.createConstructorProvider(generated.loadClass("app.gen.Widget"), false).get();
+      Object viaReflection = ServiceLocator.createConstructorProvider(reflective.loadClass("app.gen.Widget"), false).get();
+
+      assertEquals("app.gen.Widget$DimensionFactory", ((Class<?>) field(viaFactory, "createdBy")).getName());
+      assertFalse(field(viaReflection, "createdBy") instanceof Class<?> c && c.getName().endsWith("$DimensionFactory"));
+      assertEquals(5, field(viaFactory, "size"));
+      assertEquals(field(viaFactory, "size"), field(viaReflection, "size"));
+    }
+  }
+
+  private static Object field(Object instance, String name) throws ReflectiveOperationException {
+    return instance.getClass().getField(name).get(instance);
+  }
+
+  private URLClassLoader compileWithProcessor() throws Exception {
+    assumeTrue(Files.isDirectory(PROCESSOR_SOURCES), "di-processor sources are not next to this module");
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    Path processorClasses = Files.createDirectories(out.resolve("processor"));
+    Path classes = Files.createDirectories(out.resolve("classes"));
+
+    try (StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, null);
+         Stream<Path> files = Files.walk(PROCESSOR_SOURCES)) {
+      fm.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(processorClasses));
+      List<Path> processorSources = files.filter(p -> p.toString().endsWith(".java")).toList();
+      assertTrue(compiler.getTask(null, fm, diagnostics, List.of("-proc:none"), null,
+                                  fm.getJavaFileObjectsFromPaths(processorSources)).call(),
+                 () -> diagnostics.getDiagnostics().toString());
+    }
+
+    try (URLClassLoader processorLoader = new URLClassLoader(new URL[] {processorClasses.toUri().toURL()},
+                                                             getClass().getClassLoader());
+         StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, null)) {
+      fm.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(classes));
+      fm.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(classes));
+      List<JavaFileObject> sources = SOURCES.entrySet().stream().map(e -> source(e.getKey(), e.getValue())).toList();
+      JavaCompiler.CompilationTask task = compiler.getTask(
+          null, fm, diagnostics, List.of("-classpath", System.getProperty("java.class.path")), null, sources);
+      task.setProcessors(List.of((Processor) processorLoader.loadClass(PROCESSOR).getConstructor().newInstance()));
+      assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+    }
+    return new URLClassLoader(new URL[] {classes.toUri().toURL()}, getClass().getClassLoader());
+  }
+
+  /**
+   * Copy of the compiled classes without the factory index, so the locator takes the reflective path.
+   */
+  private Path withoutFactoryIndex() throws IOException {
+    Path classes = out.resolve("classes");
+    Path copy = Files.createDirectories(out.resolve("reflective"));
+    try (Stream<Path> files = Files.walk(classes)) {
+      for (Path file : files.filter(p -> p.toString().endsWith(".class")).toList()) {
+        Path target = copy.resolve(classes.relativize(file).toString());
+        Files.createDirectories(target.getParent());
+        Files.copy(file, target);
+      }
+    }
+    return copy;
+  }
+
+  private static JavaFileObject source(String className, String code) {
+    URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+}
@@ -0,0 +1,104 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.ServiceLocator.Key;
+import ru.dimension.di.hidden.Faulty;
+import ru.dimension.di.hidden.Motor;
+import ru.dimension.di.hidden.Pump;
+import ru.dimension.di.hidden.Ticket;
+import ru.dimension.di.hidden.TicketFactory;
+
+class DIHiddenClassProviderTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Hidden-class provider calls a private constructor with typed and unboxed arguments")
+  void hiddenClassProvider() {
+    Motor motor = new Motor();
+    ServiceLocator.init(Map.of(Key.of(Motor.class), () -> motor, Key.of(int.class), () -> 42));
+
+    Supplier<Pump> provider = ServiceLocator.createConstructorProvider(Pump.class, false, true);
+    assertTrue(provider.getClass().isHidden(), provider.getClass().getName());
+
+    Pump pump = provider.get();
+    assertSame(motor, pump.motor());
+    assertEquals(List.of(motor), pump.motors());
+    assertEquals(42, pump.pressure());
+    assertSame(motor, pump.fieldMotor(), "members are injected after construction");
+    assertNotSame(pump, provider.get());
+  }
+
+  @Test
+  @DisplayName("Checked constructor exceptions are wrapped like on the MethodHandle path")
+  void checkedException() {
+    Supplier<Faulty> provider = ServiceLocator.createConstructorProvider(Faulty.class, false, true);
+
+    RuntimeException e = assertThrows(RuntimeException.class, provider::get);
+    assertEquals("Failed to instantiate " + Faulty.class.getName(), e.getMessage());
+    assertEquals("boom", e.getCause().getMessage());
+  }
+
+  @Test
+  @DisplayName("Builder option creates scanned components through hidden classes")
+  void builderOption() {
+    InitReport report = DimensionDI.builder()
+        .scanPackages("ru.dimension.di.hidden")
+        .excludeClasses(".*Faulty")
+        .provide(int.class, () -> 7)
+        .hiddenClassProviders(true)
+        .buildAndInit();
+
+    Pump pump = ServiceLocator.get(Pump.class);
+    assertSame(ServiceLocator.get(Motor.class), pump.motor());
+    assertEquals(7, pump.pressure());
+    assertEquals(Map.of(), report.hiddenClassFallbacks());
+  }
+
+  @Test
+  @DisplayName("Assisted factories are hidden classes implementing the interface")
+  void hiddenClassFactory() {
+    Motor motor = new Motor();
+    ServiceLocator.init(Map.of(Key.of(Motor.class), () -> motor));
+
+    TicketFactory factory = ServiceLocator.createFactory(TicketFactory.class);
+    assertTrue(factory.getClass().isHidden(), factory.getClass().getName());
+    assertFalse(Proxy.isProxyClass(factory.getClass()));
+
+    Ticket ticket = factory.create(12, "A");
+    assertSame(motor, ticket.motor());
+    assertEquals(12, ticket.seat());
+    assertEquals("A", ticket.label());
+
+    assertEquals(1, factory.first("B").seat(), "default methods are inherited");
+    assertEquals(factory, factory);
+  }
+
+  @Test
+  @DisplayName("Factory interfaces the target package cannot see fall back to a proxy, with the reason recorded")
+  void proxyFallback() {
+    ServiceLocator.init(Map.of(Key.of(Motor.class), Motor::new));
+    HiddenClassProviders.clearFallbacks();
+
+    LocalTicketFactory factory = ServiceLocator.createFactory(LocalTicketFactory.class);
+    assertTrue(Proxy.isProxyClass(factory.getClass()));
+    assertEquals(3, factory.create(3, "C").seat());
+
+    assertEquals(List.of(Ticket.class.getName()), List.copyOf(HiddenClassProviders.fallbacks().keySet()));
+  }
+
+  private interface LocalTicketFactory {
+    Ticket create(Integer seat, @Assisted("label") String label);
+  }
+}
@@ -0,0 +1,96 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DIJarEntryIndexTest {
+
+  private static final String PATH = "ru/dimension/di/beans";
+
+  @TempDir
+  Path tmp;
+
+  @AfterEach
+  void tearDown() {
+    DimensionDI.clearJarEntryCache();
+  }
+
+  @Test
+  @DisplayName("Entries are grouped by package; package-info and non-class entries are dropped")
+  void groupsByPackage() throws IOException {
+    Path jar = writeJar(tmp.resolve("a.jar"), List.of(
+        PATH + "/SingletonBean.class",
+        PATH + "/PrototypeBean.class",
+        PATH + "/package-info.class",
+        "ru/dimension/di/named/Foo.class",
+        "META-INF/MANIFEST.MF"));
+
+    JarEntryIndex index = JarEntryIndex.of(open(jar));
+
+    assertEquals(Set.of(PATH, "ru/dimension/di/named"), index.packages());
+    assertArrayEquals(new String[] { "SingletonBean", "PrototypeBean" }, index.classesIn(PATH));
+    assertEquals(0, index.classesIn("ru/dimension").length);
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  @DisplayName("Cached indexes are reused, re-listed when the jar changes and dropped on invalidation")
+  void cacheLifecycle() throws IOException {
+    Path jar = writeJar(tmp.resolve("b.jar"), List.of(PATH + "/SingletonBean.class"));
+
+    JarEntryIndex first = JarEntryIndex.of(open(jar));
+    assertSame(first, JarEntryIndex.of(open(jar)));
+    assertEquals(1, JarEntryIndex.cachedEntryCount());
+
+    writeJar(jar, List.of(PATH + "/SingletonBean.class", PATH + "/PrototypeBean.class"));
+    Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 10_000));
+    JarEntryIndex second = JarEntryIndex.of(open(jar));
+    assertNotSame(first, second);
+    assertEquals(2, second.size());
+    assertEquals(2, JarEntryIndex.cachedEntryCount());
+
+    JarEntryIndex.invalidate(jar.toUri().toURL().toExternalForm());
+    assertEquals(0, JarEntryIndex.cachedEntryCount());
+  }
+
+  private static JarURLConnection open(Path jar) throws IOException {
+    URL url = new URL("jar:" + jar.toUri().toURL().toExternalForm() + "!/");
+    JarURLConnection conn = (JarURLConnection) url.openConnection();
+    conn.setUseCaches(false);
+    return conn;
+  }
+
+  private Path writeJar(Path jar, List<String> entries) throws IOException {
+    try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+      for (String name : entries) {
+        out.putNextEntry(new JarEntry(name));
+        out.write(bytes());
+        out.closeEntry();
+      }
+    }
+    return jar;
+  }
+
+  private byte[] bytes() throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(PATH + "/SingletonBean.class")) {
+      assertNotNull(in);
+      return in.readAllBytes();
+    }
+  }
+}
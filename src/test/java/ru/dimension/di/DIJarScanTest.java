@@ -0,0 +1,76 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DIJarScanTest {
+
+  private static final String PACKAGE = "ru.dimension.di.beans";
+  private static final String PATH = PACKAGE.replace('.', '/');
+  private static final List<String> BEANS = List.of("SingletonBean", "PrototypeBean", "ConsumerBean");
+
+  @TempDir
+  Path tmp;
+
+  @Test
+  @DisplayName("Jar and directory roots with the same classes give the same results")
+  void jarMatchesDirectory() throws IOException {
+    Path dir = Files.createDirectories(tmp.resolve("classes").resolve(PATH));
+    Path jar = tmp.resolve("beans.jar");
+
+    try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+      out.putNextEntry(new JarEntry(PATH + "/"));
+      out.closeEntry();
+      for (String name : BEANS) {
+        byte[] bytes = classBytes(name);
+        Files.write(dir.resolve(name + ".class"), bytes);
+        out.putNextEntry(new JarEntry(PATH + "/" + name + ".class"));
+        out.write(bytes);
+        out.closeEntry();
+      }
+    }
+
+    DependencyScanner.Config config = DependencyScanner.Config.defaultsJakartaInject();
+    List<DependencyScanner.ScanResult> fromDirectory = scanWithRoot(tmp.resolve("classes"), config);
+    List<DependencyScanner.ScanResult> fromJar = scanWithRoot(jar, config);
+
+    // directory walk order is file-system dependent
+    assertEquals(BEANS.size(), fromDirectory.size());
+    assertEquals(Set.copyOf(fromDirectory), Set.copyOf(fromJar));
+    assertEquals(fromJar, scanWithRoot(jar, config.withParallel(true)));
+  }
+
+  private byte[] classBytes(String simpleName) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(PATH + "/" + simpleName + ".class")) {
+      assertNotNull(in, simpleName);
+      return in.readAllBytes();
+    }
+  }
+
+  private static List<DependencyScanner.ScanResult> scanWithRoot(Path root, DependencyScanner.Config config)
+      throws IOException {
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+
+    try (URLClassLoader cl = new URLClassLoader(new URL[] { root.toUri().toURL() }, null)) {
+      thread.setContextClassLoader(cl);
+      return DependencyScanner.scan(config, PACKAGE);
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.ServiceLocator.Key;
+import ru.dimension.di.beans.PrototypeBean;
+import ru.dimension.di.beans.SingletonBean;
+
+class DIKeyLookupTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Unnamed keys are canonical per class")
+  void unnamedKeysCached() {
+    assertSame(Key.of(SingletonBean.class), Key.of(SingletonBean.class));
+    assertSame(Key.of(SingletonBean.class), Key.of(SingletonBean.class, null));
+    assertSame(Key.of(SingletonBean.class), Key.of(SingletonBean.class, "  "));
+    assertSame(Key.of(SingletonBean.class), Key.of(SingletonBean.class, "x").unnamed());
+    assertNotEquals(Key.of(SingletonBean.class), Key.of(PrototypeBean.class));
+  }
+
+  @Test
+  @DisplayName("Named keys are interned on registration and still match by value")
+  void namedKeysInterned() {
+    Key before = Key.of(SingletonBean.class, "interned");
+    assertNotSame(before, Key.of(SingletonBean.class, "interned"), "unregistered names are not cached");
+
+    ServiceLocator.registerProvider(SingletonBean.class, " interned ", SingletonBean::new);
+    Key registered = Key.of(SingletonBean.class, "interned");
+    assertSame(registered, Key.of(SingletonBean.class, "interned"));
+    assertEquals(before, registered);
+    assertEquals(before.hashCode(), registered.hashCode());
+    assertSame(registered, Key.of(SingletonBean.class, " interned "), "names as passed resolve to the interned key");
+    assertNotNull(ServiceLocator.get(SingletonBean.class, " interned "));
+  }
+
+  @Test
+  @DisplayName("Interned named keys are dropped by clear()")
+  void clearDropsInternedKeys() {
+    ServiceLocator.registerProvider(SingletonBean.class, "cleared", SingletonBean::new);
+    Key registered = Key.of(SingletonBean.class, "cleared");
+    assertSame(registered, Key.of(SingletonBean.class, "cleared"));
+
+    ServiceLocator.clear();
+
+    assertNotSame(registered, Key.of(SingletonBean.class, "cleared"));
+    assertEquals(registered, Key.of(SingletonBean.class, "cleared"));
+  }
+
+  @Test
+  @DisplayName("A singleton get allocates nothing once warmed up")
+  void singletonGetDoesNotAllocate() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                   && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    ServiceLocator.registerProvider(SingletonBean.class, ServiceLocator.singleton(SingletonBean::new));
+    ServiceLocator.registerProvider(SingletonBean.class, "named", ServiceLocator.singleton(SingletonBean::new));
+
+    int calls = 100_000;
+    Object last = null;
+    for (int i = 0; i < calls; i++) {
+      last = ServiceLocator.get(SingletonBean.class);
+      last = ServiceLocator.get(SingletonBean.class, "named");
+    }
+
+    long start = bean.getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < calls; i++) {
+      last = ServiceLocator.get(SingletonBean.class);
+      last = ServiceLocator.get(SingletonBean.class, "named");
+    }
+    long allocated = bean.getCurrentThreadAllocatedBytes() - start;
+
+    assertNotNull(last);
+    // a Key per call would be several megabytes; leave room for the measurement itself
+    assertTrue(allocated < calls, "allocated " + allocated + " bytes for " + 2 * calls + " gets");
+  }
+}
@@ -0,0 +1,74 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.beans.ConsumerBean;
+import ru.dimension.di.beans.SingletonBean;
+import ru.dimension.di.lazy.Greeter;
+import ru.dimension.di.lazy.LazyGreeter;
+
+class DILazyLinkingTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Unlinked classes are not loaded until first get")
+  void classLoadedOnFirstGet() {
+    ServiceLocator.initUnlinked(Map.of(
+        new ServiceLocator.TypeNameKey(Greeter.class.getName(), null),
+        ServiceLocator.lazyConstructorProvider("ru.dimension.di.lazy.MissingGreeter", false,
+                                               getClass().getClassLoader())));
+
+    assertTrue(ServiceLocator.has(Greeter.class));
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> ServiceLocator.get(Greeter.class));
+    assertInstanceOf(ClassNotFoundException.class, e.getCause());
+  }
+
+  @Test
+  @DisplayName("Interface bindings are linked by name on first lookup")
+  void interfaceBindingsLinked() {
+    DimensionDI.builder()
+        .lazyLinking(true)
+        .scanPackages("ru.dimension.di.lazy")
+        .buildAndInit();
+
+    Greeter greeter = ServiceLocator.get(Greeter.class);
+    assertEquals("hello", greeter.greet());
+    assertSame(greeter, ServiceLocator.get(Greeter.class, "LazyGreeter"));
+    assertSame(greeter, ServiceLocator.get(LazyGreeter.class));
+  }
+
+  @Test
+  @DisplayName("Lazy linking wires components like the eager mode")
+  void lazyLinkingWiresDependencies() {
+    DimensionDI.builder()
+        .lazyLinking(true)
+        .scanPackages("ru.dimension.di.beans")
+        .buildAndInit();
+
+    assertTrue(ServiceLocator.has(ConsumerBean.class));
+    ConsumerBean consumer = ServiceLocator.get(ConsumerBean.class);
+    assertSame(ServiceLocator.get(SingletonBean.class), consumer.singletonBean);
+    assertNotSame(consumer.firstBean, consumer.secondBean);
+  }
+
+  @Test
+  @DisplayName("Manual bindings take precedence over lazily linked scanned ones")
+  void manualBindingWins() {
+    Greeter manual = () -> "manual";
+    DimensionDI.builder()
+        .lazyLinking(true)
+        .scanPackages("ru.dimension.di.lazy")
+        .instance(Greeter.class, manual)
+        .buildAndInit();
+
+    assertSame(manual, ServiceLocator.get(Greeter.class));
+  }
+}
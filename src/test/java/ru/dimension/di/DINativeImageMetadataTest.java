@@ -0,0 +1,71 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DINativeImageMetadataTest {
+
+  private static final String HIDDEN = "ru.dimension.di.hidden";
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Scanned constructors and @Inject fields are registered for reflection")
+  void componentsAndMembers() {
+    String json = NativeImageMetadata.generate(HIDDEN);
+
+    assertTrue(json.startsWith("{\n  \"reflection\": ["), json);
+    assertTrue(json.contains("\"type\": \"ru.dimension.di.hidden.Pump\""), json);
+    assertTrue(json.contains("{ \"name\": \"<init>\", \"parameterTypes\": "
+                                 + "[\"ru.dimension.di.hidden.Motor\", \"java.util.List\", \"int\"] }"), json);
+    assertTrue(json.contains("{ \"name\": \"fieldMotor\" }"), json);
+    assertTrue(json.contains("\"type\": \"ru.dimension.di.hidden.Motor\""), json);
+    assertTrue(json.contains("{ \"name\": \"<init>\", \"parameterTypes\": [] }"), "no-arg constructors");
+  }
+
+  @Test
+  @DisplayName("Assisted factory interfaces get their methods and a Proxy entry")
+  void assistedFactories() {
+    String json = NativeImageMetadata.generate(HIDDEN);
+
+    assertTrue(json.contains("\"type\": { \"proxy\": [\"ru.dimension.di.hidden.TicketFactory\"] }"), json);
+    assertTrue(json.contains("{ \"name\": \"create\", \"parameterTypes\": "
+                                 + "[\"java.lang.Integer\", \"java.lang.String\"] }"), json);
+    assertTrue(json.contains("{ \"name\": \"first\", \"parameterTypes\": [\"java.lang.String\"] }"), json);
+    assertTrue(json.contains("{ \"name\": \"<init>\", \"parameterTypes\": "
+                                 + "[\"ru.dimension.di.hidden.Motor\", \"int\", \"java.lang.Object\"] }"), json);
+  }
+
+  @Test
+  @DisplayName("Annotation types are always registered and the output is stable")
+  void annotationsAndOrder() {
+    String json = NativeImageMetadata.generate(HIDDEN);
+
+    for (String annotation : new String[] {"jakarta.inject.Inject", "jakarta.inject.Named",
+                                           "jakarta.inject.Singleton", "ru.dimension.di.Assisted"}) {
+      assertTrue(json.contains("\"type\": \"" + annotation + "\""), annotation);
+    }
+    assertEquals(json, NativeImageMetadata.generate(HIDDEN));
+    assertTrue(json.indexOf("hidden.Motor\"") < json.indexOf("hidden.Pump\""), "entries are sorted");
+    assertFalse(NativeImageMetadata.generate().contains("proxy"));
+  }
+
+  @Test
+  @DisplayName("The builder's scanner settings decide which components are registered")
+  void builderScannerSettings() {
+    String json = NativeImageMetadata.generate(DimensionDI.builder()
+        .scanPackages(HIDDEN)
+        .excludeClasses(".*Pump"));
+
+    assertTrue(json.contains("\"type\": \"ru.dimension.di.hidden.Motor\""), json);
+    assertFalse(json.contains("\"type\": \"ru.dimension.di.hidden.Pump\""), json);
+    assertEquals(NativeImageMetadata.generate(HIDDEN),
+                 NativeImageMetadata.generate(DependencyScanner.Config.defaultsJakartaInject(), HIDDEN));
+  }
+}
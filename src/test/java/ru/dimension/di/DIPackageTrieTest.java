@@ -0,0 +1,42 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DIPackageTrieTest {
+
+  @Test
+  @DisplayName("Subpackages of a requested package are not top packages")
+  void topPackagesDropCoveredOnes() {
+    PackageTrie trie = PackageTrie.of(List.of("com.acme.billing", "com.acme", "com.acmex", "com.acme", "org.x"));
+    assertEquals(List.of("com.acme", "com.acmex", "org.x"), trie.topPackages());
+  }
+
+  @Test
+  @DisplayName("Classes are matched by whole package segments")
+  void coversClass() {
+    PackageTrie trie = PackageTrie.of(List.of("com.acme"));
+
+    assertTrue(trie.coversClass("com.acme.Foo", '.'));
+    assertTrue(trie.coversClass("com.acme.billing.Bar", '.'));
+    assertTrue(trie.coversClass("com/acme/billing/Bar.class", '/'));
+
+    assertFalse(trie.coversClass("com.acmex.Foo", '.'));
+    assertFalse(trie.coversClass("com.Foo", '.'));
+    assertFalse(trie.coversClass("Foo", '.'));
+  }
+
+  @Test
+  @DisplayName("Overlapping base packages give the same results as the outer package alone")
+  void overlappingPackagesScannedOnce() {
+    List<DependencyScanner.ScanResult> outer = DependencyScanner.scan("ru.dimension.di");
+    List<DependencyScanner.ScanResult> overlapping =
+        DependencyScanner.scan("ru.dimension.di.beans", "ru.dimension.di", "ru.dimension.di.named");
+
+    assertFalse(outer.isEmpty());
+    assertEquals(outer, overlapping);
+  }
+}
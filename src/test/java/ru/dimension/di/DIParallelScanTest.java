@@ -0,0 +1,66 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.beans.ConsumerBean;
+import ru.dimension.di.beans.SingletonBean;
+
+class DIParallelScanTest {
+
+  private static final String[] PACKAGES = {
+      "ru.dimension.di.beans",
+      "ru.dimension.di.fields",
+      "ru.dimension.di.named",
+      "ru.dimension.di.multibind"
+  };
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Parallel scan returns the same results in the same order as a sequential scan")
+  void parallelScanIsDeterministic() {
+    DependencyScanner.Config sequential = DependencyScanner.Config.defaultsJakartaInject();
+    DependencyScanner.Config parallel = sequential.withParallel(true);
+
+    List<DependencyScanner.ScanResult> expected = DependencyScanner.scan(sequential, PACKAGES);
+    assertFalse(expected.isEmpty());
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(expected, DependencyScanner.scan(parallel, PACKAGES));
+    }
+  }
+
+  @Test
+  @DisplayName("Builder with parallel scan wires components as usual")
+  void builderParallelScan() {
+    DimensionDI.builder()
+        .parallelScan(true)
+        .scanPackages("ru.dimension.di.beans")
+        .buildAndInit();
+
+    ConsumerBean consumer = ServiceLocator.get(ConsumerBean.class);
+    assertSame(ServiceLocator.get(SingletonBean.class), consumer.singletonBean);
+    assertNotSame(consumer.firstBean, consumer.secondBean);
+  }
+
+  @Test
+  @DisplayName("Parallel prelinking wires components like the serial path")
+  void builderParallelPrelink() {
+    DimensionDI.builder()
+        .parallelScan(true)
+        .parallelPrelink(true)
+        .scanPackages(PACKAGES)
+        .buildAndInit();
+
+    ConsumerBean consumer = ServiceLocator.get(ConsumerBean.class);
+    assertSame(ServiceLocator.get(SingletonBean.class), consumer.singletonBean);
+    assertNotSame(consumer.firstBean, consumer.secondBean);
+  }
+}
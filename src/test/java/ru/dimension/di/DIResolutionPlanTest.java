@@ -0,0 +1,115 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dimension.di.graph.missing.Dashboard;
+import ru.dimension.di.graph.missing.Gauge;
+import ru.dimension.di.graph.ok.Car;
+import ru.dimension.di.graph.ok.Engine;
+import ru.dimension.di.graph.ok.V8Engine;
+
+class DIResolutionPlanTest {
+
+  @TempDir
+  Path dir;
+
+  private Path planFile;
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+    planFile = dir.resolve("plan.bin");
+  }
+
+  @Test
+  @DisplayName("Second start loads the plan instead of scanning and registers the same bindings")
+  void reusedPlan() {
+    InitReport first = start();
+    assertNotNull(first.scan());
+    assertTrue(Files.isRegularFile(planFile));
+
+    ServiceLocator.clear();
+    InitReport second = start();
+    assertNull(second.scan(), "nothing scanned");
+    assertEquals(first.scannedComponents(), second.scannedComponents());
+    assertEquals(first.bindings(), second.bindings());
+
+    Car car = ServiceLocator.get(Car.class);
+    assertSame(car.engine(), car.named());
+    assertEquals(List.of(car.engine()), car.engines());
+    assertSame(ServiceLocator.get(V8Engine.class), ServiceLocator.get(Engine.class, "V8Engine"));
+  }
+
+  @Test
+  @DisplayName("Lazy linking registers the plan's bindings unlinked")
+  void lazyLinking() {
+    start(DimensionDI.builder().lazyLinking(true));
+    ServiceLocator.clear();
+
+    InitReport second = start(DimensionDI.builder().lazyLinking(true));
+    assertNull(second.scan());
+    assertSame(ServiceLocator.get(Engine.class), ServiceLocator.get(Car.class).engine());
+  }
+
+  @Test
+  @DisplayName("Aliases of manual providers point at the providers of the current builder")
+  void manualAlias() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.missing")
+        .instanceNamed(Gauge.class, "main", new Gauge() {})
+        .resolutionPlanFile(planFile)
+        .buildAndInit();
+    ServiceLocator.clear();
+
+    Gauge gauge = new Gauge() {};
+    InitReport second = DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.missing")
+        .instanceNamed(Gauge.class, "main", gauge)
+        .resolutionPlanFile(planFile)
+        .buildAndInit();
+
+    assertNull(second.scan());
+    assertSame(gauge, ServiceLocator.get(Dashboard.class).gauge());
+  }
+
+  @Test
+  @DisplayName("Changed manual keys do not reuse the plan")
+  void manualKeysChanged() {
+    start();
+    ServiceLocator.clear();
+
+    Engine engine = new Engine() {};
+    InitReport second = start(DimensionDI.builder().instance(Engine.class, engine));
+    assertNotNull(second.scan());
+    assertSame(engine, ServiceLocator.get(Car.class).engine());
+  }
+
+  @Test
+  @DisplayName("Corrupt plan file is ignored and rewritten")
+  void corruptFileIgnored() throws IOException {
+    Files.write(planFile, new byte[] { (byte) 0xD1, (byte) 0xA0, 0x7A, 0x17, 0, 0, 0, 1, 0x7f, 0, 0, 0 });
+
+    assertNotNull(start().scan());
+    ServiceLocator.clear();
+    assertNull(start().scan());
+  }
+
+  private InitReport start() {
+    return start(DimensionDI.builder());
+  }
+
+  private InitReport start(DimensionDI.Builder builder) {
+    return builder
+        .scanPackages("ru.dimension.di.graph.ok")
+        .resolutionPlanFile(planFile)
+        .buildAndInit();
+  }
+}
@@ -0,0 +1,189 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.dimension.di.cache.CachedRepository;
+import ru.dimension.di.supertypes.Repository;
+
+class DIScanCacheTest {
+
+  private static final String PACKAGE = "ru.dimension.di.beans";
+  private static final String PATH = PACKAGE.replace('.', '/');
+
+  @TempDir
+  Path root;
+
+  @TempDir
+  Path cacheDir;
+
+  private final DependencyScanner.Config config =
+      DependencyScanner.Config.defaultsJakartaInject();
+
+  @BeforeEach
+  void copyBeans() throws IOException {
+    Path target = Files.createDirectories(root.resolve(PATH));
+    for (String name : List.of("SingletonBean", "PrototypeBean", "ConsumerBean")) {
+      try (InputStream in = getClass().getClassLoader().getResourceAsStream(PATH + "/" + name + ".class")) {
+        assertNotNull(in, name);
+        Files.copy(in, target.resolve(name + ".class"));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Cached scan returns the same results as a fresh scan")
+  void sameResults() throws IOException {
+    List<DependencyScanner.ScanResult> fresh = scanWithRoot(config);
+    List<DependencyScanner.ScanResult> first = scanWithRoot(config.withCacheDirectory(cacheDir));
+    List<DependencyScanner.ScanResult> second = scanWithRoot(config.withCacheDirectory(cacheDir));
+
+    assertFalse(fresh.isEmpty());
+    assertEquals(fresh, first);
+    assertEquals(fresh, second);
+    assertEquals(1, cacheFiles().size());
+  }
+
+  @Test
+  @DisplayName("Unchanged root is served from the cache")
+  void hit() throws IOException {
+    writeFakeEntry(config);
+
+    List<DependencyScanner.ScanResult> results = scanWithRoot(config.withCacheDirectory(cacheDir));
+
+    assertEquals(List.of("ru.dimension.di.beans.FromCache"),
+                 results.stream().map(DependencyScanner.ScanResult::className).toList());
+  }
+
+  @Test
+  @DisplayName("Modified class file invalidates the cached root")
+  void modifiedRootIsRescanned() throws IOException {
+    writeFakeEntry(config);
+
+    Path bean = root.resolve(PATH).resolve("SingletonBean.class");
+    Files.setLastModifiedTime(bean, FileTime.fromMillis(Files.getLastModifiedTime(bean).toMillis() + 10_000));
+
+    List<DependencyScanner.ScanResult> results = scanWithRoot(config.withCacheDirectory(cacheDir));
+
+    assertTrue(results.stream().noneMatch(r -> r.className().endsWith("FromCache")));
+    assertTrue(results.stream().anyMatch(r -> r.className().endsWith("SingletonBean")));
+  }
+
+  @Test
+  @DisplayName("Different scanner config does not reuse the cached root")
+  void configChangeIsMiss() throws IOException {
+    writeFakeEntry(config);
+
+    List<DependencyScanner.ScanResult> results =
+        scanWithRoot(config.withAllowPublicNoArgConstructor(false).withCacheDirectory(cacheDir));
+
+    assertTrue(results.stream().noneMatch(r -> r.className().endsWith("FromCache")));
+  }
+
+  @Test
+  @DisplayName("Corrupt cache file is ignored and rewritten")
+  void corruptFileIgnored() throws IOException {
+    List<DependencyScanner.ScanResult> fresh = scanWithRoot(config.withCacheDirectory(cacheDir));
+
+    Path file = cacheFiles().getFirst();
+    Files.write(file, new byte[] { (byte) 0xD1, (byte) 0xCA, (byte) 0xC4, (byte) 0xE1, 0, 0, 0, 1, 0x7f, 0, 0, 0 });
+
+    assertEquals(fresh, scanWithRoot(config.withCacheDirectory(cacheDir)));
+    assertEquals(fresh, scanWithRoot(config.withCacheDirectory(cacheDir)));
+  }
+
+  @Test
+  @DisplayName("Modified supertype in another root invalidates the cached root")
+  void modifiedSupertypeRootIsRescanned(@TempDir Path components, @TempDir Path library) throws IOException {
+    copyClass(CachedRepository.class, components);
+    copyClass(Repository.class, library);
+    DependencyScanner.Config cached = config.withCacheDirectory(cacheDir);
+    String pkg = CachedRepository.class.getPackageName();
+
+    assertEquals(ScanReport.Source.SCAN, scanSource(cached, pkg, components, library));
+    assertEquals(ScanReport.Source.CACHE, scanSource(cached, pkg, components, library));
+
+    Path iface = library.resolve(Repository.class.getName().replace('.', '/') + ".class");
+    Files.setLastModifiedTime(iface, FileTime.fromMillis(Files.getLastModifiedTime(iface).toMillis() + 10_000));
+
+    assertEquals(ScanReport.Source.SCAN, scanSource(cached, pkg, components, library));
+  }
+
+  private static void copyClass(Class<?> type, Path root) throws IOException {
+    String path = type.getName().replace('.', '/') + ".class";
+    Path target = root.resolve(path);
+    Files.createDirectories(target.getParent());
+    try (InputStream in = type.getClassLoader().getResourceAsStream(path)) {
+      assertNotNull(in, path);
+      Files.copy(in, target);
+    }
+  }
+
+  private static ScanReport.Source scanSource(DependencyScanner.Config config, String pkg, Path... roots)
+      throws IOException {
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+    URL[] urls = new URL[roots.length];
+    for (int i = 0; i < roots.length; i++) urls[i] = roots[i].toUri().toURL();
+
+    try (URLClassLoader cl = new URLClassLoader(urls, null)) {
+      thread.setContextClassLoader(cl);
+      ScanMetrics metrics = new ScanMetrics();
+      List<DependencyScanner.ScanResult> results = DependencyScanner.scan(config, metrics, pkg);
+      assertEquals(List.of(Repository.class.getName()), List.copyOf(results.getFirst().supertypes()));
+      return metrics.toReport(0, results.size()).slowestRoots().getFirst().source();
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+
+  private void writeFakeEntry(DependencyScanner.Config config) throws IOException {
+    String rootUrl = rootUrl();
+    List<String> packages = List.of(PACKAGE);
+    new ScanCache(cacheDir).write(
+        rootUrl,
+        ScanCache.fingerprint(rootUrl, packages),
+        ScanCache.configKey(config, packages),
+        List.of(new DependencyScanner.ScanResult("ru.dimension.di.beans.FromCache", false, Set.of(), Set.of(), Set.of())),
+        getClass().getClassLoader()
+    );
+  }
+
+  private String rootUrl() throws IOException {
+    try (URLClassLoader cl = new URLClassLoader(new URL[] { root.toUri().toURL() }, null)) {
+      return ComponentIndex.rootOf(cl.getResource(PATH), PATH);
+    }
+  }
+
+  private List<Path> cacheFiles() throws IOException {
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      return files.filter(p -> p.getFileName().toString().endsWith(".scan")).toList();
+    }
+  }
+
+  private List<DependencyScanner.ScanResult> scanWithRoot(DependencyScanner.Config config) throws IOException {
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+
+    // no parent: only the copied beans are visible under the scanned package
+    try (URLClassLoader cl = new URLClassLoader(new URL[] { root.toUri().toURL() }, null)) {
+      thread.setContextClassLoader(cl);
+      return DependencyScanner.scan(config, PACKAGE);
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DIScanReportTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Scan metrics count every examined class once")
+  void scanCounters() {
+    DependencyScanner.Config config = DependencyScanner.Config.defaultsJakartaInject().withUseComponentIndex(false);
+    ScanMetrics metrics = new ScanMetrics();
+
+    List<DependencyScanner.ScanResult> results = DependencyScanner.scan(config, metrics, "ru.dimension.di.named");
+    ScanReport report = metrics.toReport(1, results.size());
+
+    assertEquals(results.size(), report.classesAccepted());
+    int rejected = report.rejected().values().stream().mapToInt(Integer::intValue).sum();
+    assertEquals(report.classesAccepted() + rejected, report.classesExamined());
+    // EventListener and NamedRouter are interfaces
+    assertTrue(report.rejected(ScanReport.Rejection.PREFILTER)
+                   + report.rejected(ScanReport.Rejection.NOT_CONCRETE) >= 2);
+    assertTrue(report.bytesRead() > 0);
+    assertTrue(report.phaseNanos(ScanReport.Phase.PARSE) > 0);
+    assertFalse(report.slowestRoots().isEmpty());
+  }
+
+  @Test
+  @DisplayName("buildAndInit returns the report and passes it to the listener")
+  void initReport() {
+    AtomicReference<InitReport> received = new AtomicReference<>();
+
+    InitReport report = DimensionDI.builder()
+        .scanPackages("ru.dimension.di.beans")
+        .onInitReport(received::set)
+        .buildAndInit();
+
+    assertSame(report, received.get());
+    assertNotNull(report.scan());
+    assertEquals(3, report.scannedComponents());
+    assertTrue(report.bindings() >= 3);
+    assertTrue(report.classLoadingNanos() > 0);
+    assertTrue(report.providerCreationNanos() > 0);
+    assertTrue(report.totalNanos() >= report.scan().totalNanos());
+  }
+
+  @Test
+  @DisplayName("Disabled metrics record nothing")
+  void disabledMetrics() {
+    DependencyScanner.scan(DependencyScanner.Config.defaultsJakartaInject(), ScanMetrics.DISABLED,
+                           "ru.dimension.di.beans");
+    ScanReport report = ScanMetrics.DISABLED.toReport(0, 0);
+    assertEquals(0, report.classesExamined());
+    assertEquals(0, report.bytesRead());
+  }
+}
@@ -0,0 +1,102 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.supertypes.AbstractRepository;
+import ru.dimension.di.supertypes.AuditRepository;
+import ru.dimension.di.supertypes.AuditedRepository;
+import ru.dimension.di.supertypes.JdbcRepository;
+import ru.dimension.di.supertypes.Repository;
+import ru.dimension.di.supertypes.RepositoryLog;
+
+class DISupertypeBindingTest {
+
+  private static final String PACKAGE = "ru.dimension.di.supertypes";
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Scan results carry superclasses and inherited interfaces")
+  void supertypeClosure() {
+    Map<String, DependencyScanner.ScanResult> results = DependencyScanner.scan(PACKAGE).stream()
+        .collect(Collectors.toMap(DependencyScanner.ScanResult::className, Function.identity()));
+
+    assertEquals(List.of(AbstractRepository.class.getName(), Repository.class.getName()),
+                 List.copyOf(results.get(JdbcRepository.class.getName()).supertypes()));
+    assertEquals(List.of(AuditedRepository.class.getName(), Repository.class.getName()),
+                 List.copyOf(results.get(AuditRepository.class.getName()).supertypes()));
+  }
+
+  @Test
+  @DisplayName("Components are bound to every supertype, unnamed and by implementation name")
+  void bindsAllSupertypes() {
+    DimensionDI.builder()
+        .scanPackages(PACKAGE)
+        .buildAndInit();
+
+    JdbcRepository jdbc = ServiceLocator.get(JdbcRepository.class);
+    assertSame(jdbc, ServiceLocator.get(AbstractRepository.class));
+    assertSame(jdbc, ServiceLocator.get(Repository.class, "JdbcRepository"));
+    assertInstanceOf(AuditRepository.class, ServiceLocator.get(Repository.class, "AuditRepository"));
+    assertInstanceOf(AuditRepository.class, ServiceLocator.get(AuditedRepository.class));
+
+    assertEquals(2, ServiceLocator.getNamedMap(Repository.class).size());
+  }
+
+  @Test
+  @DisplayName("Lazy linking binds the same supertypes")
+  void lazyLinkingBindsAllSupertypes() {
+    DimensionDI.builder()
+        .lazyLinking(true)
+        .scanPackages(PACKAGE)
+        .buildAndInit();
+
+    assertSame(ServiceLocator.get(JdbcRepository.class), ServiceLocator.get(AbstractRepository.class));
+    assertInstanceOf(AuditRepository.class, ServiceLocator.get(Repository.class, "AuditRepository"));
+  }
+
+  @Test
+  @DisplayName("JDK supertypes are bound only when direct; the walk does not enter java.*")
+  void jdkSupertypesStopTheClosure() {
+    List<DependencyScanner.ScanResult> results = DependencyScanner.scan(PACKAGE);
+    DependencyScanner.ScanResult log = results.stream()
+        .filter(r -> r.className().equals(RepositoryLog.class.getName()))
+        .findFirst().orElseThrow();
+
+    assertEquals(List.of(AbstractList.class.getName(), AutoCloseable.class.getName()),
+                 List.copyOf(log.supertypes()));
+
+    Set<ServiceLocator.TypeNameKey> keys = DimensionDI.scannedBindings(results, Set.of()).entrySet().stream()
+        .filter(e -> e.getValue() == log)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+    assertEquals(Set.of(
+        new ServiceLocator.TypeNameKey(RepositoryLog.class.getName(), null),
+        new ServiceLocator.TypeNameKey(AbstractList.class.getName(), null),
+        new ServiceLocator.TypeNameKey(AbstractList.class.getName(), "RepositoryLog"),
+        new ServiceLocator.TypeNameKey(AutoCloseable.class.getName(), null),
+        new ServiceLocator.TypeNameKey(AutoCloseable.class.getName(), "RepositoryLog")), keys);
+
+    DimensionDI.builder()
+        .scanPackages(PACKAGE)
+        .buildAndInit();
+
+    assertInstanceOf(RepositoryLog.class, ServiceLocator.get(AutoCloseable.class));
+    assertFalse(ServiceLocator.has(AbstractCollection.class));
+    assertFalse(ServiceLocator.has(Collection.class));
+  }
+}
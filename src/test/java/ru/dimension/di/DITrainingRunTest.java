@@ -0,0 +1,113 @@
+package ru.dimension.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.dimension.di.assisted.AssistedComponent;
+import ru.dimension.di.assisted.AssistedComponentFactory;
+import ru.dimension.di.assisted.PrimitiveAssistedComponent;
+import ru.dimension.di.assisted.PrimitiveAssistedComponentFactory;
+import ru.dimension.di.graph.ok.Engine;
+
+class DITrainingRunTest {
+
+  @BeforeEach
+  void setUp() {
+    ServiceLocator.clear();
+  }
+
+  @Test
+  @DisplayName("Every binding is resolved once, lazily linked ones included")
+  void everyBinding() {
+    InitReport init = DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.ok")
+        .lazyLinking(true)
+        .buildAndInit();
+
+    TrainingReport report = DimensionDI.train();
+
+    assertTrue(report.complete(), report::summary);
+    assertEquals(init.bindings(), report.exercised());
+  }
+
+  @Test
+  @DisplayName("Bound factories are called and multibindings resolved")
+  void factoriesAndMultibindings() {
+    AtomicInteger contributions = new AtomicInteger();
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.beans")
+        .bindFactory(PrimitiveAssistedComponentFactory.class, PrimitiveAssistedComponent.class)
+        .intoSet(Runnable.class, () -> {
+          contributions.incrementAndGet();
+          return () -> {};
+        })
+        .intoMap(String.class, "greeting", () -> {
+          contributions.incrementAndGet();
+          return "hello";
+        })
+        .buildAndInit();
+
+    TrainingReport report = DimensionDI.train();
+
+    assertTrue(report.complete(), report::summary);
+    // intoSet as List and Set, intoMap once
+    assertEquals(3, contributions.get());
+  }
+
+  @Test
+  @DisplayName("Failures are collected with their binding instead of thrown")
+  void failures() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.ok")
+        .provide(Engine.class, () -> {
+          throw new IllegalStateException("engine is down");
+        })
+        .buildAndInit();
+
+    TrainingReport report = DimensionDI.train();
+
+    assertFalse(report.complete());
+    List<String> failed = report.failures().stream().map(TrainingReport.Failure::binding).toList();
+    assertTrue(failed.contains(ServiceLocator.Key.of(Engine.class).toString()), failed::toString);
+    assertTrue(report.summary().contains("engine is down"), report.summary());
+    assertTrue(report.exercised() > 0, "the other bindings are still exercised");
+  }
+
+  @Test
+  @DisplayName("Assisted classes are exercised through their factories, not their throwing providers")
+  void assistedClasses() {
+    DimensionDI.builder()
+        .scanPackages("ru.dimension.di.assisted", "ru.dimension.di.beans")
+        .lazyLinking(true)
+        .bindFactory(AssistedComponentFactory.class, AssistedComponent.class)
+        .buildAndInit();
+
+    TrainingReport report = DimensionDI.train();
+
+    assertTrue(report.complete(), report::summary);
+    assertTrue(report.exercised() > 0);
+  }
+
+  @Test
+  @DisplayName("A training run returns its report through InitReport and the listener")
+  void trainingRunReport() {
+    AtomicReference<InitReport> received = new AtomicReference<>();
+    InitReport init = DimensionDI.builder()
+        .scanPackages("ru.dimension.di.graph.ok")
+        .trainingRun(true)
+        .onInitReport(received::set)
+        .buildAndInit();
+
+    assertNotNull(init.training());
+    assertTrue(init.training().complete(), init.training()::summary);
+    assertSame(init, received.get());
+
+    ServiceLocator.clear();
+    assertNull(DimensionDI.builder().scanPackages("ru.dimension.di.graph.ok").buildAndInit().training());
+  }
+}
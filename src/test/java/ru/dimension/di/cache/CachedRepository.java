@@ -0,0 +1,14 @@
+package ru.dimension.di.cache;
+
+import jakarta.inject.Inject;
+import ru.dimension.di.supertypes.Repository;
+
+public class CachedRepository implements Repository {
+  @Inject
+  public CachedRepository() {}
+
+  @Override
+  public String name() {
+    return "CachedRepository";
+  }
+}
@@ -0,0 +1,19 @@
+package ru.dimension.di.component;
+
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+
+public final class AppModule {
+
+  private AppModule() {}
+
+  @Singleton
+  public static Settings settings() {
+    return new Settings("db://local");
+  }
+
+  @Named("retries")
+  public static int retries() {
+    return 3;
+  }
+}
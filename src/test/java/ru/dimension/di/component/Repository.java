@@ -0,0 +1,25 @@
+package ru.dimension.di.component;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import java.util.Map;
+import ru.dimension.di.graph.ok.Engine;
+
+@Singleton
+public class Repository {
+  private final Settings settings;
+  private final int retries;
+  private final Map<String, Engine> engines;
+
+  @Inject
+  Repository(Settings settings, @Named("retries") int retries, Map<String, Engine> engines) {
+    this.settings = settings;
+    this.retries = retries;
+    this.engines = engines;
+  }
+
+  public Settings settings() { return settings; }
+  public int retries() { return retries; }
+  public Map<String, Engine> engines() { return engines; }
+}
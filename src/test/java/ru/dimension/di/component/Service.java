@@ -0,0 +1,18 @@
+package ru.dimension.di.component;
+
+import jakarta.inject.Inject;
+import ru.dimension.di.graph.ok.Car;
+
+public class Service {
+  private final Repository repository;
+  private final Car car;
+
+  @Inject
+  public Service(Repository repository, Car car) throws Exception {
+    this.repository = repository;
+    this.car = car;
+  }
+
+  public Repository repository() { return repository; }
+  public Car car() { return car; }
+}
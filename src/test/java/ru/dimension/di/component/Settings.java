@@ -0,0 +1,3 @@
+package ru.dimension.di.component;
+
+public record Settings(String url) {}
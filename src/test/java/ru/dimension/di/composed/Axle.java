@@ -0,0 +1,22 @@
+package ru.dimension.di.composed;
+
+import jakarta.inject.Inject;
+
+public class Axle {
+  private final Wheel left;
+  private final Wheel right;
+
+  @Inject
+  Axle(Wheel left, Wheel right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  public Wheel left() {
+    return left;
+  }
+
+  public Wheel right() {
+    return right;
+  }
+}
@@ -0,0 +1,10 @@
+package ru.dimension.di.composed;
+
+import jakarta.inject.Inject;
+
+public class Brake {
+  @Inject
+  public Brake() throws Exception {
+    throw new Exception("worn out");
+  }
+}
@@ -0,0 +1,29 @@
+package ru.dimension.di.composed;
+
+import jakarta.inject.Inject;
+
+public class Cart {
+  private final Axle axle;
+  private final Clock clock;
+
+  @Inject
+  Wheel spare;
+
+  @Inject
+  public Cart(Axle axle, Clock clock) {
+    this.axle = axle;
+    this.clock = clock;
+  }
+
+  public Axle axle() {
+    return axle;
+  }
+
+  public Clock clock() {
+    return clock;
+  }
+
+  public Wheel spare() {
+    return spare;
+  }
+}
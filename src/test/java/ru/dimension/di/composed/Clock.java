@@ -0,0 +1,10 @@
+package ru.dimension.di.composed;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@Singleton
+public class Clock {
+  @Inject
+  public Clock() {}
+}
@@ -0,0 +1,8 @@
+package ru.dimension.di.composed;
+
+import jakarta.inject.Inject;
+
+public class Trailer {
+  @Inject
+  public Trailer(Brake brake) {}
+}
@@ -0,0 +1,8 @@
+package ru.dimension.di.composed;
+
+import jakarta.inject.Inject;
+
+public class Wheel {
+  @Inject
+  public Wheel() {}
+}
@@ -0,0 +1,8 @@
+package ru.dimension.di.graph.cycle;
+
+import jakarta.inject.Inject;
+
+public class Chicken {
+  @Inject
+  public Chicken(Egg egg) {}
+}
@@ -0,0 +1,16 @@
+package ru.dimension.di.graph.missing;
+
+import jakarta.inject.Inject;
+
+public class Dashboard {
+  private final Gauge gauge;
+
+  @Inject
+  public Dashboard(Gauge gauge) {
+    this.gauge = gauge;
+  }
+
+  public Gauge gauge() {
+    return gauge;
+  }
+}
@@ -0,0 +1,4 @@
+package ru.dimension.di.graph.missing;
+
+public interface Gauge {
+}
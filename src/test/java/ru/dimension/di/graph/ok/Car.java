@@ -0,0 +1,30 @@
+package ru.dimension.di.graph.ok;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import java.util.List;
+
+public class Car {
+  private final Engine engine;
+  private final List<Engine> engines;
+  private final Engine named;
+
+  @Inject
+  public Car(Engine engine, List<Engine> engines, @Named("V8Engine") Engine named) {
+    this.engine = engine;
+    this.engines = engines;
+    this.named = named;
+  }
+
+  public Engine engine() {
+    return engine;
+  }
+
+  public List<Engine> engines() {
+    return engines;
+  }
+
+  public Engine named() {
+    return named;
+  }
+}
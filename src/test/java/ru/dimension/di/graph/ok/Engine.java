@@ -0,0 +1,4 @@
+package ru.dimension.di.graph.ok;
+
+public interface Engine {
+}
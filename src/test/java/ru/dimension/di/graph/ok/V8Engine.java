@@ -0,0 +1,10 @@
+package ru.dimension.di.graph.ok;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@Singleton
+public class V8Engine implements Engine {
+  @Inject
+  public V8Engine() {}
+}
@@ -0,0 +1,10 @@
+package ru.dimension.di.hidden;
+
+import jakarta.inject.Inject;
+
+public class Faulty {
+  @Inject
+  public Faulty() throws Exception {
+    throw new Exception("boom");
+  }
+}
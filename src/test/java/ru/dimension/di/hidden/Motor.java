@@ -0,0 +1,10 @@
+package ru.dimension.di.hidden;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@Singleton
+public class Motor {
+  @Inject
+  public Motor() {}
+}
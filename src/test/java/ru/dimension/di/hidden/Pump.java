@@ -0,0 +1,36 @@
+package ru.dimension.di.hidden;
+
+import jakarta.inject.Inject;
+import java.util.List;
+
+public class Pump {
+  private final Motor motor;
+  private final List<Motor> motors;
+  private final int pressure;
+
+  @Inject
+  Motor fieldMotor;
+
+  @Inject
+  private Pump(Motor motor, List<Motor> motors, int pressure) {
+    this.motor = motor;
+    this.motors = motors;
+    this.pressure = pressure;
+  }
+
+  public Motor motor() {
+    return motor;
+  }
+
+  public List<Motor> motors() {
+    return motors;
+  }
+
+  public int pressure() {
+    return pressure;
+  }
+
+  public Motor fieldMotor() {
+    return fieldMotor;
+  }
+}
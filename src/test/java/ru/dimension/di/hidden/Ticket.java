@@ -0,0 +1,21 @@
+package ru.dimension.di.hidden;
+
+import jakarta.inject.Inject;
+import ru.dimension.di.Assisted;
+
+public class Ticket {
+  private final Motor motor;
+  private final int seat;
+  private final Object label;
+
+  @Inject
+  Ticket(Motor motor, @Assisted int seat, @Assisted("label") Object label) {
+    this.motor = motor;
+    this.seat = seat;
+    this.label = label;
+  }
+
+  public Motor motor() { return motor; }
+  public int seat() { return seat; }
+  public Object label() { return label; }
+}
@@ -0,0 +1,11 @@
+package ru.dimension.di.hidden;
+
+import ru.dimension.di.Assisted;
+
+public interface TicketFactory {
+  Ticket create(Integer seat, @Assisted("label") String label);
+
+  default Ticket first(String label) {
+    return create(1, label);
+  }
+}
@@ -0,0 +1,5 @@
+package ru.dimension.di.lazy;
+
+public interface Greeter {
+  String greet();
+}
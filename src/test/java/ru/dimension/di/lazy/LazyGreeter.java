@@ -0,0 +1,15 @@
+package ru.dimension.di.lazy;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@Singleton
+public class LazyGreeter implements Greeter {
+  @Inject
+  public LazyGreeter() {}
+
+  @Override
+  public String greet() {
+    return "hello";
+  }
+}
@@ -0,0 +1,18 @@
+package ru.dimension.di.local;
+
+import jakarta.inject.Inject;
+
+public final class LocalComponents {
+  private LocalComponents() {}
+
+  /**
+   * A component declared as a local class; its binary name is "LocalComponents$1Counter".
+   */
+  public static Class<?> counter() {
+    class Counter {
+      @Inject
+      Counter() {}
+    }
+    return Counter.class;
+  }
+}
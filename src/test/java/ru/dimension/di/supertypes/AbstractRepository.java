@@ -0,0 +1,8 @@
+package ru.dimension.di.supertypes;
+
+public abstract class AbstractRepository implements Repository {
+  @Override
+  public String name() {
+    return getClass().getSimpleName();
+  }
+}
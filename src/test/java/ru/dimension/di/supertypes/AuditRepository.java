@@ -0,0 +1,13 @@
+package ru.dimension.di.supertypes;
+
+import jakarta.inject.Inject;
+
+public class AuditRepository implements AuditedRepository {
+  @Inject
+  public AuditRepository() {}
+
+  @Override
+  public String name() {
+    return "AuditRepository";
+  }
+}
@@ -0,0 +1,3 @@
+package ru.dimension.di.supertypes;
+
+public interface AuditedRepository extends Repository {}
@@ -0,0 +1,10 @@
+package ru.dimension.di.supertypes;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@Singleton
+public class JdbcRepository extends AbstractRepository {
+  @Inject
+  public JdbcRepository() {}
+}
@@ -0,0 +1,5 @@
+package ru.dimension.di.supertypes;
+
+public interface Repository {
+  String name();
+}
@@ -0,0 +1,22 @@
+package ru.dimension.di.supertypes;
+
+import jakarta.inject.Inject;
+import java.util.AbstractList;
+
+public class RepositoryLog extends AbstractList<String> implements AutoCloseable {
+  @Inject
+  public RepositoryLog() {}
+
+  @Override
+  public String get(int index) {
+    throw new IndexOutOfBoundsException(index);
+  }
+
+  @Override
+  public int size() {
+    return 0;
+  }
+
+  @Override
+  public void close() {}
+}